@@ -0,0 +1,116 @@
+package io.github.nyg404.ttigfaer.benchmark;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.chat.Chat;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор команды и аргументов на смеси сообщений, похожей на групповой чат: 80% обычного текста,
+ * 15% команд с аргументами, 5% команд с суффиксом {@code @ИмяБота}.
+ *
+ * <p>{@code legacy} — прежний разбор: аргументы через {@code split("\\s+")} для каждого сообщения
+ * в конструкторе и ещё один {@code split} в {@code getCommand()}. {@code current} — создание
+ * {@link MessageContext} целиком (с копированием полей, которого в {@code legacy} нет), команда
+ * и аргументы — только для команд, как их запрашивает диспетчер.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandParsingBenchmark {
+    private static final int MESSAGES = 1024;
+    private static final String PREFIX = "/";
+    private static final String[] CHATTER = {
+            "привет всем", "кто сегодня идёт на встречу?", "ок", "😂😂😂",
+            "скиньте ссылку на документ, пожалуйста, я не могу найти её в истории чата",
+            "да, согласен с предыдущим сообщением, давайте так и сделаем завтра утром"
+    };
+    private static final String[] COMMANDS = {
+            "/start", "/help", "/ban 123456789 спам", "/mute 42 10m флуд в чате", "/warn @user причина"
+    };
+
+    private Update[] updates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        updates = new Update[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            int kind = random.nextInt(100);
+            String text;
+            if (kind < 80) {
+                text = CHATTER[random.nextInt(CHATTER.length)];
+            } else if (kind < 95) {
+                text = COMMANDS[random.nextInt(COMMANDS.length)];
+            } else {
+                text = "/ban@MyBot " + random.nextInt(1_000_000) + " реклама";
+            }
+            updates[i] = update(text);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void legacy(Blackhole blackhole) {
+        for (Update update : updates) {
+            String text = update.getMessage().getText();
+            blackhole.consume(legacyArgs(text));
+            blackhole.consume(legacyCommand(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void current(Blackhole blackhole) {
+        for (Update update : updates) {
+            MessageContext ctx = new MessageContext(update, PREFIX, "MyBot");
+            String command = ctx.getCommand();
+            blackhole.consume(command);
+            if (!command.isEmpty()) {
+                blackhole.consume(ctx.getMessageArgs().size());
+            }
+        }
+    }
+
+    private static List<String> legacyArgs(String text) {
+        if (text == null || text.isEmpty() || !text.startsWith(PREFIX)) {
+            return Collections.emptyList();
+        }
+        String[] split = text.substring(PREFIX.length()).trim().split("\\s+");
+        return split.length > 1 ? Arrays.asList(split).subList(1, split.length) : Collections.emptyList();
+    }
+
+    private static String legacyCommand(String text) {
+        if (text != null && !text.isEmpty() && text.startsWith(PREFIX)) {
+            return text.substring(PREFIX.length()).split("\\s+")[0].toLowerCase();
+        }
+        return "";
+    }
+
+    private static Update update(String text) {
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setText(text);
+        message.setChat(Chat.builder().id(-100L).type("supergroup").build());
+        message.setFrom(new User(7L, "user", false));
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.nyg404.ttigfaer.benchmark;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Commands.HandlerInvoker;
+import io.github.nyg404.ttigfaer.core.Utils.ArgumentRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.chat.Chat;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вызов обработчика: прежний путь через рефлексию ({@code getParameterTypes}, массив аргументов,
+ * {@link Method#invoke}) против заранее скомпилированного {@link HandlerInvoker}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandlerInvocationBenchmark {
+
+    private Handlers bean;
+    private Method method;
+    private ArgumentRegistry argumentRegistry;
+    private HandlerInvoker invoker;
+    private MessageContext ctx;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        bean = new Handlers();
+        method = Handlers.class.getDeclaredMethod("handle", MessageContext.class, Service.class);
+        method.setAccessible(true);
+        argumentRegistry = new ArgumentRegistry();
+        argumentRegistry.register(Service.class, new Service());
+        invoker = HandlerInvoker.compile(bean, method, argumentRegistry);
+
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setText("/ban 42 spam");
+        message.setChat(Chat.builder().id(-100L).type("supergroup").build());
+        message.setFrom(new User(7L, "user", false));
+        Update update = new Update();
+        update.setMessage(message);
+        ctx = new MessageContext(update, "/");
+    }
+
+    @Benchmark
+    public void reflection(Blackhole blackhole) throws Exception {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Object[] args = new Object[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (paramTypes[i].isAssignableFrom(MessageContext.class)) {
+                args[i] = ctx;
+            } else {
+                args[i] = argumentRegistry.getRaw(paramTypes[i]);
+                if (args[i] == null) {
+                    throw new IllegalArgumentException("Не найден аргумент типа: " + paramTypes[i].getSimpleName());
+                }
+            }
+        }
+        method.invoke(bean, args);
+        blackhole.consume(bean.calls);
+    }
+
+    @Benchmark
+    public void methodHandle(Blackhole blackhole) throws Throwable {
+        invoker.invoke(ctx);
+        blackhole.consume(bean.calls);
+    }
+
+    public static class Service {
+    }
+
+    public static class Handlers {
+        private long calls;
+
+        void handle(MessageContext ctx, Service service) {
+            calls += ctx.getMessageId() + (service != null ? 1 : 0);
+        }
+    }
+}
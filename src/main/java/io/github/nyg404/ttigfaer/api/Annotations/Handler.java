@@ -1,5 +1,6 @@
 package io.github.nyg404.ttigfaer.api.Annotations;
 
+import io.github.nyg404.ttigfaer.core.Enum.HandlerPriority;
 import io.github.nyg404.ttigfaer.core.Enum.HandlerType;
 
 import java.lang.annotation.ElementType;
@@ -73,5 +74,13 @@ public @interface Handler {
      * @return одиночный или массив фильтров.
      */
     String[] filters() default {};
+
+    /**
+     * Приоритет выполнения обработчика. По умолчанию — по типу обработчика
+     * ({@link HandlerType#getDefaultPriority()}).
+     *
+     * @return приоритет {@link HandlerPriority}
+     */
+    HandlerPriority priority() default HandlerPriority.DEFAULT;
 }
 
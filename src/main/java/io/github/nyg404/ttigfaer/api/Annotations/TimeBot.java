@@ -1,5 +1,8 @@
 package io.github.nyg404.ttigfaer.api.Annotations;
 
+import io.github.nyg404.ttigfaer.core.Enum.LimitScope;
+import io.github.nyg404.ttigfaer.core.Enum.OverflowPolicy;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -11,6 +14,11 @@ import java.lang.annotation.Target;
  * limit - Устанавливает лимит метода в N Окно
  * limitWindows - Устанавливает время для окна
  * delay - Устанавливает лимит перед отправкой метода.
+ * supersede - Новый вызов пользователя в чате отменяет его ещё не выполненный отложенный вызов.
+ * overflow - Что делать с вызовом сверх лимита (по умолчанию — очередь).
+ * maxQueue - Максимальная длина очереди для {@link OverflowPolicy#QUEUE}.
+ * message - Ответ пользователю для {@link OverflowPolicy#DROP_WITH_REPLY}.
+ * scope - Для кого считается лимит (по умолчанию — для чата).
  * </pre>
  */
 
@@ -32,4 +40,31 @@ public @interface TimeBot {
      * Устаналивает время бота перед отправкой метода.
      */
     int delay() default 0;
+
+    /**
+     * Отменять ожидающий {@link #delay()} вызов, если тот же пользователь в том же чате
+     * вызвал обработчик снова: выполнится только последний вызов.
+     */
+    boolean supersede() default false;
+
+    /**
+     * Политика для вызовов сверх лимита.
+     */
+    OverflowPolicy overflow() default OverflowPolicy.QUEUE;
+
+    /**
+     * Максимальное количество отложенных вызовов на ключ лимита для {@link OverflowPolicy#QUEUE};
+     * вызовы сверх него отбрасываются.
+     */
+    int maxQueue() default 100;
+
+    /**
+     * Текст ответа для {@link OverflowPolicy#DROP_WITH_REPLY}.
+     */
+    String message() default "Слишком часто, попробуйте позже.";
+
+    /**
+     * Область действия лимита.
+     */
+    LimitScope scope() default LimitScope.CHAT;
 }
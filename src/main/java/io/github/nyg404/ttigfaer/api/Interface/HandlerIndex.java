@@ -0,0 +1,19 @@
+package io.github.nyg404.ttigfaer.api.Interface;
+
+import io.github.nyg404.ttigfaer.core.Model.HandlerDescriptor;
+
+import java.util.List;
+
+/**
+ * Индекс обработчиков, сгенерированный {@code HandlerAnnotationProcessor} на этапе компиляции.
+ * <p>
+ * Реализации подключаются через {@link java.util.ServiceLoader}. Если индекса нет,
+ * {@code CommandManager} находит обработчики рефлексией.
+ */
+public interface HandlerIndex {
+
+    /**
+     * @return описания всех методов с {@code @Handler} из скомпилированного модуля
+     */
+    List<HandlerDescriptor> handlers();
+}
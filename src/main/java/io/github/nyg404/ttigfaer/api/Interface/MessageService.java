@@ -6,7 +6,9 @@ import org.telegram.telegrambots.meta.api.objects.InputFile;
 import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 
+import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Интерфейс для отправки и управления сообщениями в Telegram.
@@ -20,8 +22,9 @@ public interface MessageService {
      *
      * @param chatId ID чата
      * @param text   Текст сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendMessage(long chatId, String text);
+    Message sendMessage(long chatId, String text);
 
     /**
      * Отправить текстовое сообщение в чат с дополнительными опциями.
@@ -29,16 +32,37 @@ public interface MessageService {
      * @param chatId  ID чата
      * @param text    Текст сообщения
      * @param options Опции сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendMessage(long chatId, String text, MessageOptions options);
+    Message sendMessage(long chatId, String text, MessageOptions options);
+
+    /**
+     * Отправить текст любой длины, разделив его на несколько сообщений по лимиту Telegram.
+     *
+     * @param chatId ID чата
+     * @param text   Текст сообщения
+     * @return отправленные сообщения или null в случае ошибки
+     */
+    List<Message> sendLongMessage(long chatId, String text);
+
+    /**
+     * Отправить текст любой длины с дополнительными опциями, разделив его на несколько сообщений.
+     *
+     * @param chatId  ID чата
+     * @param text    Текст сообщения
+     * @param options Опции сообщения
+     * @return отправленные сообщения или null в случае ошибки
+     */
+    List<Message> sendLongMessage(long chatId, String text, MessageOptions options);
 
     /**
      * Отправить ответ на сообщение в контексте.
      *
      * @param context Контекст сообщения
      * @param text    Текст ответа
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendReplayMessage(MessageContext context, String text);
+    Message sendReplayMessage(MessageContext context, String text);
 
     /**
      * Отправить ответ на сообщение в контексте.
@@ -46,15 +70,16 @@ public interface MessageService {
      * @param context Контекст сообщения
      * @param text    Текст ответа
      * @param options Опции сообщения.
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendReplayMessage(MessageContext context, String text, MessageOptions options);
+    Message sendReplayMessage(MessageContext context, String text, MessageOptions options);
     /**
      * Переслать сообщение из одного чата в другой.
      *
      * @param context     Контекст исходного сообщения
      * @param targetChaId ID целевого чата
      * @param message     Сообщение для пересылки
-     * @return Пересланное сообщение
+     * @return пересланное сообщение или null в случае ошибки
      */
     Message sendForwardMessage(MessageContext context, long targetChaId, Message message);
 
@@ -63,8 +88,9 @@ public interface MessageService {
      *
      * @param chatId ID чата
      * @param file   Файл аудио
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendAudio(long chatId, InputFile file);
+    Message sendAudio(long chatId, InputFile file);
 
     /**
      * Отправить аудио файл с дополнительными опциями.
@@ -72,16 +98,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл аудио
      * @param options Опции аудио
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendAudio(long chatId, InputFile file, AudioOptions options);
+    Message sendAudio(long chatId, InputFile file, AudioOptions options);
 
     /**
      * Отправить фото.
      *
      * @param chatId ID чата
      * @param file   Файл фото
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendPhoto(long chatId, InputFile file);
+    Message sendPhoto(long chatId, InputFile file);
 
     /**
      * Отправить фото с дополнительными опциями.
@@ -89,16 +117,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл фото
      * @param options Опции фото
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendPhoto(long chatId, InputFile file, PhotoOptions options);
+    Message sendPhoto(long chatId, InputFile file, PhotoOptions options);
 
     /**
      * Отправить анимацию.
      *
      * @param chatId ID чата
      * @param file   Файл анимации
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendAnimation(long chatId, InputFile file);
+    Message sendAnimation(long chatId, InputFile file);
 
     /**
      * Отправить анимацию с дополнительными опциями.
@@ -106,16 +136,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл анимации
      * @param options Опции анимации
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendAnimation(long chatId, InputFile file, AnimationOptions options);
+    Message sendAnimation(long chatId, InputFile file, AnimationOptions options);
 
     /**
      * Отправить видео.
      *
      * @param chatId ID чата
      * @param file   Файл видео
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendVideo(long chatId, InputFile file);
+    Message sendVideo(long chatId, InputFile file);
 
     /**
      * Отправить видео с дополнительными опциями.
@@ -123,16 +155,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл видео
      * @param options Опции видео
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendVideo(long chatId, InputFile file, VideoOptions options);
+    Message sendVideo(long chatId, InputFile file, VideoOptions options);
 
     /**
      * Отправить документ.
      *
      * @param chatId ID чата
      * @param file   Файл документа
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendDocument(long chatId, InputFile file);
+    Message sendDocument(long chatId, InputFile file);
 
     /**
      * Отправить документ с дополнительными опциями.
@@ -140,16 +174,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл документа
      * @param options Опции документа
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendDocument(long chatId, InputFile file, DocumentOptions options);
+    Message sendDocument(long chatId, InputFile file, DocumentOptions options);
 
     /**
      * Отправить голосовое сообщение.
      *
      * @param chatId ID чата
      * @param file   Файл голоса
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendVoice(long chatId, InputFile file);
+    Message sendVoice(long chatId, InputFile file);
 
     /**
      * Отправить голосовое сообщение с дополнительными опциями.
@@ -157,16 +193,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл голоса
      * @param options Опции голосового сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendVoice(long chatId, InputFile file, VoiceOptions options);
+    Message sendVoice(long chatId, InputFile file, VoiceOptions options);
 
     /**
      * Отправить стикер.
      *
      * @param chatId ID чата
      * @param file   Файл стикера
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendSticker(long chatId, InputFile file);
+    Message sendSticker(long chatId, InputFile file);
 
     /**
      * Отправить стикер с дополнительными опциями.
@@ -174,16 +212,18 @@ public interface MessageService {
      * @param chatId ID чата
      * @param file   Файл стикера
      * @param options Опции стикера
+     * @return отправленное сообщение или null в случае ошибки
      */
-    void sendSticker(long chatId, InputFile file, StickerOptions options);
+    Message sendSticker(long chatId, InputFile file, StickerOptions options);
 
     /**
      * Отправить группу медиа (несколько медиа файлов в одном сообщении).
      *
      * @param chatId     ID чата
      * @param groupMedia Коллекция медиа объектов для отправки
+     * @return отправленные сообщения или null в случае ошибки
      */
-    void sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia);
+    List<Message> sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia);
 
     /**
      * Отправить группу медиа с дополнительными опциями.
@@ -191,8 +231,9 @@ public interface MessageService {
      * @param chatId     ID чата
      * @param groupMedia Коллекция медиа объектов
      * @param options    Опции медиа группы
+     * @return отправленные сообщения или null в случае ошибки
      */
-    void sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options);
+    List<Message> sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options);
 
     /**
      * Отредактировать текст сообщения.
@@ -200,8 +241,9 @@ public interface MessageService {
      * @param chatId    ID чата
      * @param messageId ID сообщения
      * @param text      Новый текст сообщения
+     * @return изменённое сообщение или {@code true} для inline-сообщений или null в случае ошибки
      */
-    void editText(long chatId, int messageId, String text);
+    Serializable editText(long chatId, int messageId, String text);
 
     /**
      * Отредактировать текст сообщения с дополнительными опциями.
@@ -210,8 +252,9 @@ public interface MessageService {
      * @param messageId ID сообщения
      * @param text      Новый текст сообщения
      * @param options   Опции редактирования текста
+     * @return изменённое сообщение или {@code true} для inline-сообщений или null в случае ошибки
      */
-    void editText(long chatId, int messageId, String text, EditTextOptions options);
+    Serializable editText(long chatId, int messageId, String text, EditTextOptions options);
 
     /**
      * Отредактировать медиа сообщение.
@@ -219,8 +262,9 @@ public interface MessageService {
      * @param chatId    ID чата
      * @param messageId ID сообщения
      * @param file      Новый медиа файл
+     * @return изменённое сообщение или {@code true} для inline-сообщений или null в случае ошибки
      */
-    void editMedia(long chatId, int messageId, InputMedia file);
+    Serializable editMedia(long chatId, int messageId, InputMedia file);
 
     /**
      * Отредактировать медиа сообщение с дополнительными опциями.
@@ -229,14 +273,26 @@ public interface MessageService {
      * @param messageId ID сообщения
      * @param file      Новый медиа файл
      * @param options   Опции редактирования медиа
+     * @return изменённое сообщение или {@code true} для inline-сообщений или null в случае ошибки
      */
-    void editMedia(long chatId, int messageId, InputMedia file, EditMediaOptions options);
+    Serializable editMedia(long chatId, int messageId, InputMedia file, EditMediaOptions options);
 
     /**
      * Удалить сообщение.
      *
      * @param chatId    ID чата
      * @param messageId ID сообщения для удаления
+     * @return true, если сообщение удалено
+     */
+    boolean deleteMessage(long chatId, int messageId);
+
+    /**
+     * Удалить несколько сообщений одного чата (до 100 за запрос).
+     * Ненайденные сообщения пропускаются.
+     *
+     * @param chatId     ID чата
+     * @param messageIds ID сообщений для удаления
+     * @return true, если запрос выполнен
      */
-    void deleteMessage(long chatId, int messageId);
+    boolean deleteMessages(long chatId, Collection<Integer> messageIds);
 }
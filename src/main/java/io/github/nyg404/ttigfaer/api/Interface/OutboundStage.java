@@ -0,0 +1,46 @@
+package io.github.nyg404.ttigfaer.api.Interface;
+
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Стадия конвейера исходящих запросов ({@code OutboundPipeline}).
+ * <p>
+ * Все бины этого типа встраиваются в конвейер по возрастанию {@link #getOrder()}: стадия с меньшим
+ * порядком оборачивает стадии с большим. Встроенные стадии: журнал ({@code OutboundJournal}, если включён),
+ * метрики ({@code OutboundMetrics}),
+ * соблюдение лимитов и порядка в чате ({@code OutboundScheduler}) и повтор временных ошибок
+ * ({@code OutboundRetry}), который ближе всех к сети. Стадия не должна блокировать поток — только комбинировать
+ * {@link CompletableFuture}.
+ */
+public interface OutboundStage extends Ordered {
+
+    /**
+     * Обрабатывает запрос и передаёт его дальше по конвейеру.
+     *
+     * @param request запрос
+     * @param chain   оставшаяся часть конвейера
+     * @param <T>     тип результата
+     * @return результат запроса
+     */
+    <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain);
+
+    @Override
+    default int getOrder() {
+        return 0;
+    }
+
+    /**
+     * Оставшаяся часть конвейера.
+     */
+    interface Chain {
+        /**
+         * @param request запрос
+         * @param <T>     тип результата
+         * @return результат запроса
+         */
+        <T> CompletableFuture<T> proceed(OutboundRequest<T> request);
+    }
+}
@@ -6,12 +6,14 @@ import org.telegram.telegrambots.meta.api.objects.InputFile;
 import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 
+import java.io.Serializable;
 import java.util.Collection;
-import java.util.concurrent.Future;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Асинхронный интерфейс для отправки и управления сообщениями в Telegram.
- * Все методы используют ExecutorService для асинхронного выполнения.
+ * Методы не блокируют поток и возвращают {@link CompletableFuture} с результатом запроса.
  */
 @SuppressWarnings("all")
 public interface MessageServiceAsync {
@@ -21,8 +23,9 @@ public interface MessageServiceAsync {
      *
      * @param chatId ID чата
      * @param text   Текст сообщения
+     * @return отправленное сообщение
      */
-    void sendMessageAsync(long chatId, String text);
+    CompletableFuture<Message> sendMessageAsync(long chatId, String text);
 
     /**
      * Асинхронно отправить текстовое сообщение в чат с дополнительными опциями.
@@ -30,16 +33,47 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param text    Текст сообщения
      * @param options Опции сообщения
+     * @return отправленное сообщение
      */
-    void sendMessageAsync(long chatId, String text, MessageOptions options);
+    CompletableFuture<Message> sendMessageAsync(long chatId, String text, MessageOptions options);
+
+    /**
+     * Асинхронно отправить текст любой длины, разделив его на несколько сообщений по лимиту Telegram.
+     *
+     * @param chatId ID чата
+     * @param text   Текст сообщения
+     * @return отправленные сообщения
+     */
+    CompletableFuture<List<Message>> sendLongMessageAsync(long chatId, String text);
+
+    /**
+     * Асинхронно отправить текст любой длины с дополнительными опциями, разделив его на несколько сообщений.
+     *
+     * @param chatId  ID чата
+     * @param text    Текст сообщения
+     * @param options Опции сообщения
+     * @return отправленные сообщения
+     */
+    CompletableFuture<List<Message>> sendLongMessageAsync(long chatId, String text, MessageOptions options);
 
     /**
      * Асинхронно отправить ответ на сообщение в контексте.
      *
      * @param context Контекст сообщения
      * @param text    Текст ответа
+     * @return отправленное сообщение
      */
-    void sendReplayMessageAsync(MessageContext context, String text);
+    CompletableFuture<Message> sendReplayMessageAsync(MessageContext context, String text);
+
+    /**
+     * Асинхронно отправить ответ на сообщение в контексте с дополнительными опциями.
+     *
+     * @param context Контекст сообщения
+     * @param text    Текст ответа
+     * @param options Опции сообщения
+     * @return отправленное сообщение
+     */
+    CompletableFuture<Message> sendReplayMessageAsync(MessageContext context, String text, MessageOptions options);
 
     /**
      * Асинхронно переслать сообщение из одного чата в другой.
@@ -47,17 +81,18 @@ public interface MessageServiceAsync {
      * @param context     Контекст исходного сообщения
      * @param targetChatId ID целевого чата
      * @param message     Сообщение для пересылки
-     * @return Future с пересланным сообщением
+     * @return пересланное сообщение
      */
-    Future<Message> sendForwardMessageAsync(MessageContext context, long targetChatId, Message message);
+    CompletableFuture<Message> sendForwardMessageAsync(MessageContext context, long targetChatId, Message message);
 
     /**
      * Асинхронно отправить аудио файл.
      *
      * @param chatId ID чата
      * @param file   Файл аудио
+     * @return отправленное сообщение
      */
-    void sendAudioAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendAudioAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить аудио файл с дополнительными опциями.
@@ -65,16 +100,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл аудио
      * @param options Опции аудио
+     * @return отправленное сообщение
      */
-    void sendAudioAsync(long chatId, InputFile file, AudioOptions options);
+    CompletableFuture<Message> sendAudioAsync(long chatId, InputFile file, AudioOptions options);
 
     /**
      * Асинхронно отправить фото.
      *
      * @param chatId ID чата
      * @param file   Файл фото
+     * @return отправленное сообщение
      */
-    void sendPhotoAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendPhotoAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить фото с дополнительными опциями.
@@ -82,16 +119,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл фото
      * @param options Опции фото
+     * @return отправленное сообщение
      */
-    void sendPhotoAsync(long chatId, InputFile file, PhotoOptions options);
+    CompletableFuture<Message> sendPhotoAsync(long chatId, InputFile file, PhotoOptions options);
 
     /**
      * Асинхронно отправить анимацию.
      *
      * @param chatId ID чата
      * @param file   Файл анимации
+     * @return отправленное сообщение
      */
-    void sendAnimationAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendAnimationAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить анимацию с дополнительными опциями.
@@ -99,16 +138,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл анимации
      * @param options Опции анимации
+     * @return отправленное сообщение
      */
-    void sendAnimationAsync(long chatId, InputFile file, AnimationOptions options);
+    CompletableFuture<Message> sendAnimationAsync(long chatId, InputFile file, AnimationOptions options);
 
     /**
      * Асинхронно отправить видео.
      *
      * @param chatId ID чата
      * @param file   Файл видео
+     * @return отправленное сообщение
      */
-    void sendVideoAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendVideoAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить видео с дополнительными опциями.
@@ -116,16 +157,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл видео
      * @param options Опции видео
+     * @return отправленное сообщение
      */
-    void sendVideoAsync(long chatId, InputFile file, VideoOptions options);
+    CompletableFuture<Message> sendVideoAsync(long chatId, InputFile file, VideoOptions options);
 
     /**
      * Асинхронно отправить документ.
      *
      * @param chatId ID чата
      * @param file   Файл документа
+     * @return отправленное сообщение
      */
-    void sendDocumentAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendDocumentAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить документ с дополнительными опциями.
@@ -133,16 +176,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл документа
      * @param options Опции документа
+     * @return отправленное сообщение
      */
-    void sendDocumentAsync(long chatId, InputFile file, DocumentOptions options);
+    CompletableFuture<Message> sendDocumentAsync(long chatId, InputFile file, DocumentOptions options);
 
     /**
      * Асинхронно отправить голосовое сообщение.
      *
      * @param chatId ID чата
      * @param file   Файл голоса
+     * @return отправленное сообщение
      */
-    void sendVoiceAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendVoiceAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить голосовое сообщение с дополнительными опциями.
@@ -150,16 +195,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл голоса
      * @param options Опции голосового сообщения
+     * @return отправленное сообщение
      */
-    void sendVoiceAsync(long chatId, InputFile file, VoiceOptions options);
+    CompletableFuture<Message> sendVoiceAsync(long chatId, InputFile file, VoiceOptions options);
 
     /**
      * Асинхронно отправить стикер.
      *
      * @param chatId ID чата
      * @param file   Файл стикера
+     * @return отправленное сообщение
      */
-    void sendStickerAsync(long chatId, InputFile file);
+    CompletableFuture<Message> sendStickerAsync(long chatId, InputFile file);
 
     /**
      * Асинхронно отправить стикер с дополнительными опциями.
@@ -167,16 +214,18 @@ public interface MessageServiceAsync {
      * @param chatId  ID чата
      * @param file    Файл стикера
      * @param options Опции стикера
+     * @return отправленное сообщение
      */
-    void sendStickerAsync(long chatId, InputFile file, StickerOptions options);
+    CompletableFuture<Message> sendStickerAsync(long chatId, InputFile file, StickerOptions options);
 
     /**
      * Асинхронно отправить группу медиа (несколько медиа файлов в одном сообщении).
      *
      * @param chatId     ID чата
      * @param groupMedia Коллекция медиа объектов для отправки
+     * @return отправленные сообщения
      */
-    void sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia);
+    CompletableFuture<List<Message>> sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia);
 
     /**
      * Асинхронно отправить группу медиа с дополнительными опциями.
@@ -184,8 +233,9 @@ public interface MessageServiceAsync {
      * @param chatId     ID чата
      * @param groupMedia Коллекция медиа объектов
      * @param options    Опции медиа группы
+     * @return отправленные сообщения
      */
-    void sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options);
+    CompletableFuture<List<Message>> sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options);
 
     /**
      * Асинхронно отредактировать текст сообщения.
@@ -193,8 +243,9 @@ public interface MessageServiceAsync {
      * @param chatId    ID чата
      * @param messageId ID сообщения
      * @param text      Новый текст сообщения
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
-    void editTextAsync(long chatId, int messageId, String text);
+    CompletableFuture<Serializable> editTextAsync(long chatId, int messageId, String text);
 
     /**
      * Асинхронно отредактировать текст сообщения с дополнительными опциями.
@@ -203,8 +254,9 @@ public interface MessageServiceAsync {
      * @param messageId ID сообщения
      * @param text      Новый текст сообщения
      * @param options   Опции редактирования текста
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
-    void editTextAsync(long chatId, int messageId, String text, EditTextOptions options);
+    CompletableFuture<Serializable> editTextAsync(long chatId, int messageId, String text, EditTextOptions options);
 
     /**
      * Асинхронно отредактировать медиа сообщение.
@@ -212,8 +264,9 @@ public interface MessageServiceAsync {
      * @param chatId    ID чата
      * @param messageId ID сообщения
      * @param file      Новый медиа файл
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
-    void editMediaAsync(long chatId, int messageId, InputMedia file);
+    CompletableFuture<Serializable> editMediaAsync(long chatId, int messageId, InputMedia file);
 
     /**
      * Асинхронно отредактировать медиа сообщение с дополнительными опциями.
@@ -222,14 +275,26 @@ public interface MessageServiceAsync {
      * @param messageId ID сообщения
      * @param file      Новый медиа файл
      * @param options   Опции редактирования медиа
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
-    void editMediaAsync(long chatId, int messageId, InputMedia file, EditMediaOptions options);
+    CompletableFuture<Serializable> editMediaAsync(long chatId, int messageId, InputMedia file, EditMediaOptions options);
 
     /**
      * Асинхронно удалить сообщение.
      *
      * @param chatId    ID чата
      * @param messageId ID сообщения
+     * @return true, если сообщение удалено
+     */
+    CompletableFuture<Boolean> deleteMessageAsync(long chatId, int messageId);
+
+    /**
+     * Асинхронно удалить несколько сообщений одного чата (до 100 за запрос).
+     * Ненайденные сообщения пропускаются.
+     *
+     * @param chatId     ID чата
+     * @param messageIds ID сообщений для удаления
+     * @return true, если запрос выполнен
      */
-    void deleteMessageAsync(long chatId, int messageId);
+    CompletableFuture<Boolean> deleteMessagesAsync(long chatId, Collection<Integer> messageIds);
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package io.github.nyg404.ttigfaer.api.Message;
 
 import io.github.nyg404.ttigfaer.core.Model.CallbackData;
+import io.github.nyg404.ttigfaer.core.Utils.ContentMask;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
@@ -8,9 +10,11 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.User;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Контекст входящего Telegram-сообщения, содержащий удобные методы и поля
@@ -40,8 +44,8 @@ public class MessageContext {
     /** ID сообщения */
     private final Integer messageId;
 
-    /** Аргументы команды, переданные после неё (разделённые пробелами) */
-    private final List<String> messageArgs;
+    /** Аргументы команды, переданные после неё (разделённые пробелами); вычисляются при первом обращении */
+    private List<String> messageArgs;
 
     /** ID сообщения, на которое был дан ответ, если есть */
     private final Integer replyToMessageId;
@@ -55,12 +59,27 @@ public class MessageContext {
     /** Префикс команды, например "/" или "!" */
     private final String prefix;
 
+    /** Имя бота без {@code @} для проверки суффикса команды или null, если суффикс не проверяется */
+    @Getter(AccessLevel.NONE)
+    private final String botUsername;
+
     /** Флаг, указывающий, является ли контекст callback'ом */
     private final boolean isCallback;
 
     /** Данные callback (action и payload), если это callback */
     private final CallbackData callbackData;
 
+    /** Позиция начала команды в тексте (сразу после префикса) или -1, если это не команда */
+    @Getter(AccessLevel.NONE)
+    private final int commandStart;
+
+    /** Команда в нижнем регистре; вычисляется при первом обращении */
+    @Getter(AccessLevel.NONE)
+    private String command;
+
+    /** Маска содержимого сообщения ({@link ContentMask}) или -1, пока не вычислена */
+    @Getter(AccessLevel.NONE)
+    private int contentMask = -1;
 
     /**
      * Создаёт новый {@link MessageContext} из {@link Update} и префикса команды.
@@ -69,8 +88,21 @@ public class MessageContext {
      * @param prefix префикс, с которого начинаются команды (например, "/")
      */
     public MessageContext(Update update, String prefix) {
+        this(update, prefix, null);
+    }
+
+    /**
+     * Создаёт новый {@link MessageContext} из {@link Update}, префикса команды и имени бота.
+     *
+     * @param update      объект обновления от Telegram
+     * @param prefix      префикс, с которого начинаются команды (например, "/")
+     * @param botUsername имя бота без {@code @}; команда с суффиксом другого бота не распознаётся.
+     *                    null — суффикс не проверяется
+     */
+    public MessageContext(Update update, String prefix, String botUsername) {
         this.rawUpdate = update;
         this.prefix = prefix;
+        this.botUsername = botUsername == null || botUsername.isBlank() ? null : botUsername.strip();
         this.isCallback = update.hasCallbackQuery();
 
         if (isCallback) {
@@ -78,13 +110,14 @@ public class MessageContext {
             this.message = (Message) callbackQuery.getMessage();
             this.callbackData = CallbackData.fromString(callbackQuery.getData());
             this.messageText = null; // Callback не имеет текста сообщения
-            this.messageArgs = Collections.emptyList();
+            this.commandStart = -1;
             this.user = callbackQuery.getFrom();
         } else {
             this.message = update.getMessage();
             this.callbackData = null;
             this.messageText = message.getText() != null ? message.getText() : "";
-            this.messageArgs = parseArgs(messageText);
+            // Обычные сообщения отсеиваются одной проверкой префикса, без разбора текста
+            this.commandStart = !messageText.isEmpty() && messageText.startsWith(prefix) ? prefix.length() : -1;
             this.user = message.getFrom();
 
         }
@@ -97,30 +130,106 @@ public class MessageContext {
     }
 
     /**
-     * Разбивает текст сообщения на аргументы, начиная с 1 слова после команды.
+     * Возвращает команду из текста сообщения (без префикса и суффикса {@code @ИмяБота}).
+     * Команда, адресованная другому боту ({@code /ban@OtherBot}), не распознаётся.
      *
-     * @param text полный текст сообщения
-     * @return список аргументов или пустой список, если нет аргументов
+     * @return команда в нижнем регистре или пустая строка, если команда не найдена
      */
-    private List<String> parseArgs(String text) {
-        if (text == null || text.isEmpty() || !text.startsWith(prefix)) {
-            return Collections.emptyList();
+    public String getCommand() {
+        String result = command;
+        if (result == null) {
+            result = commandStart < 0 ? "" : parseCommand(messageText, commandStart, botUsername);
+            command = result;
         }
-        String[] split = text.substring(prefix.length()).trim().split("\\s+");
-        return split.length > 1 ? Arrays.asList(split).subList(1, split.length) : Collections.emptyList();
+        return result;
     }
 
     /**
-     * Возвращает команду из текста сообщения (без префикса).
+     * Возвращает аргументы команды — слова после команды, разделённые пробельными символами.
      *
-     * @return команда в нижнем регистре или пустая строка, если команда не найдена
+     * @return неизменяемый список аргументов или пустой список, если аргументов нет
      */
-    public String getCommand() {
-        if (!isCallback && messageText != null && !messageText.isEmpty() && messageText.startsWith(prefix)) {
-            String command = messageText.substring(prefix.length()).split("\\s+")[0];
-            return command.toLowerCase();
+    public List<String> getMessageArgs() {
+        List<String> result = messageArgs;
+        if (result == null) {
+            result = commandStart < 0 ? Collections.emptyList() : parseArgs(messageText, commandStart);
+            messageArgs = result;
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает маску содержимого сообщения (текст, фото, видео и т.д.), вычисленную один раз.
+     *
+     * @return маска {@link ContentMask}, 0 если сообщения нет
+     */
+    public int getContentMask() {
+        int result = contentMask;
+        if (result < 0) {
+            result = ContentMask.of(message);
+            contentMask = result;
         }
-        return "";
+        return result;
+    }
+
+    /**
+     * Выделяет команду: от позиции после префикса до первого пробельного символа,
+     * отбрасывая суффикс {@code @ИмяБота}. Если суффикс не совпадает с {@code botUsername}
+     * (без учёта регистра), команда адресована другому боту и возвращается пустая строка.
+     */
+    private static String parseCommand(String text, int start, String botUsername) {
+        int end = start;
+        int mention = -1;
+        while (end < text.length() && !isSpace(text.charAt(end))) {
+            if (mention < 0 && text.charAt(end) == '@') {
+                mention = end;
+            }
+            end++;
+        }
+        if (mention >= 0 && botUsername != null
+                && (end - mention - 1 != botUsername.length()
+                || !text.regionMatches(true, mention + 1, botUsername, 0, botUsername.length()))) {
+            return "";
+        }
+        return text.substring(start, mention < 0 ? end : mention).toLowerCase();
+    }
+
+    /**
+     * Разбивает текст на аргументы за один проход, начиная со второго слова после префикса.
+     * Строки аргументов создаются только при обращении к ним.
+     */
+    private static List<String> parseArgs(String text, int start) {
+        int end = text.length();
+        // Как String.trim(): края обрезаются по символам <= ' '
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        // Пропускаем саму команду
+        int i = start;
+        while (i < end && !isSpace(text.charAt(i))) i++;
+
+        int[] bounds = null;
+        int count = 0;
+        while (i < end) {
+            while (i < end && isSpace(text.charAt(i))) i++;
+            int from = i;
+            while (i < end && !isSpace(text.charAt(i))) i++;
+            if (i > from) {
+                if (bounds == null) {
+                    bounds = new int[8];
+                } else if (bounds.length == count * 2) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[count * 2] = from;
+                bounds[count * 2 + 1] = i;
+                count++;
+            }
+        }
+        return count == 0 ? Collections.emptyList() : new Slices(text, bounds, count);
+    }
+
+    /** Пробельные символы в смысле регулярного выражения {@code \s}. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
     }
 
     /**
@@ -142,4 +251,34 @@ public class MessageContext {
         return isCallback ? callbackData.getAction() : null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Неизменяемый список аргументов поверх исходного текста: хранит только границы слов
+     * и создаёт строку при первом обращении к элементу.
+     */
+    private static final class Slices extends AbstractList<String> implements RandomAccess {
+        private final String text;
+        private final int[] bounds;
+        private final String[] values;
+
+        private Slices(String text, int[] bounds, int count) {
+            this.text = text;
+            this.bounds = bounds;
+            this.values = new String[count];
+        }
+
+        @Override
+        public String get(int index) {
+            String value = values[index];
+            if (value == null) {
+                value = text.substring(bounds[index * 2], bounds[index * 2 + 1]);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
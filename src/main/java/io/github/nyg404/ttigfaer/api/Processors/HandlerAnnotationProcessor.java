@@ -1,6 +1,9 @@
 package io.github.nyg404.ttigfaer.api.Processors;
 
 import io.github.nyg404.ttigfaer.api.Annotations.Handler;
+import io.github.nyg404.ttigfaer.api.Annotations.TAsync;
+import io.github.nyg404.ttigfaer.api.Annotations.TimeBot;
+import io.github.nyg404.ttigfaer.api.Interface.HandlerIndex;
 import io.github.nyg404.ttigfaer.core.Enum.HandlerType;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -10,14 +13,35 @@ import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 @SupportedAnnotationTypes("io.github.nyg404.ttigfaer.api.Annotations.Handler")
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 public class HandlerAnnotationProcessor extends AbstractProcessor {
+    /** Имя генерируемого класса индекса обработчиков. */
+    static final String INDEX_CLASS = "TtigfaerHandlerIndex";
+    /** Сколько обработчиков описывается в одном методе индекса (ограничение размера метода в JVM). */
+    private static final int CHUNK = 64;
+
+    private boolean indexWritten;
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        List<String> entries = new ArrayList<>();
+        String indexPackage = null;
+
         for (Element element : roundEnv.getElementsAnnotatedWith(Handler.class)) {
             if (element.getKind() != ElementKind.METHOD) {
                 error(element, "Аннотация @Handler может быть применена только к методам.");
@@ -43,10 +67,162 @@ public class HandlerAnnotationProcessor extends AbstractProcessor {
             if(!handlerType.equals(HandlerType.ON_MESSAGE) && filters.length > 0){
                 error(element, "Атрибут 'filters' допустим только для HandlerType.ON_MESSAGE");
             }
+
+            TypeElement owner = (TypeElement) element.getEnclosingElement();
+            String packageName = processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().toString();
+            if (indexPackage == null || packageName.compareTo(indexPackage) < 0) {
+                indexPackage = packageName;
+            }
+            entries.add(describe(owner, (ExecutableElement) element, handler));
         }
+
+        if (entries.isEmpty()) {
+            return true;
+        }
+        if (indexWritten) {
+            // Обработчики из сгенерированного кода найдёт рефлексивное сканирование
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Обработчики из последующих раундов компиляции не попали в " + INDEX_CLASS + ", они будут найдены рефлексией.");
+            return true;
+        }
+        writeIndex(indexPackage, entries);
+        indexWritten = true;
         return true;
     }
 
+    /**
+     * Формирует выражение-построитель {@code HandlerDescriptor} для метода.
+     */
+    private String describe(TypeElement owner, ExecutableElement method, Handler handler) {
+        List<String> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(binaryName(parameter.asType()));
+        }
+        TimeBot timeBot = method.getAnnotation(TimeBot.class);
+
+        return "HandlerDescriptor.builder()"
+                + "\n                .handlerClass(" + literal(processingEnv.getElementUtils().getBinaryName(owner).toString()) + ")"
+                + "\n                .method(" + literal(method.getSimpleName().toString()) + ")"
+                + "\n                .parameterTypes(" + array(parameterTypes.toArray(new String[0])) + ")"
+                + "\n                .type(HandlerType." + handler.value().name() + ")"
+                + "\n                .commands(" + array(handler.commands()) + ")"
+                + "\n                .callBack(" + literal(handler.callBack()) + ")"
+                + "\n                .filters(" + array(handler.filters()) + ")"
+                + "\n                .priority(HandlerPriority." + handler.priority().name() + ")"
+                + "\n                .async(" + (method.getAnnotation(TAsync.class) != null) + ")"
+                + "\n                .limit(" + (timeBot != null ? timeBot.limit() : 0) + ")"
+                + "\n                .limitWindows(" + (timeBot != null ? timeBot.limitWindows() : 0) + ")"
+                + "\n                .delay(" + (timeBot != null ? timeBot.delay() : 0) + ")"
+                + "\n                .supersede(" + (timeBot != null && timeBot.supersede()) + ")"
+                + (timeBot == null ? "" :
+                        "\n                .overflow(OverflowPolicy." + timeBot.overflow().name() + ")"
+                        + "\n                .maxQueue(" + timeBot.maxQueue() + ")"
+                        + "\n                .limitMessage(" + literal(timeBot.message()) + ")"
+                        + "\n                .scope(LimitScope." + timeBot.scope().name() + ")")
+                + "\n                .build()";
+    }
+
+    /**
+     * Записывает исходный код индекса и регистрирует его для {@link java.util.ServiceLoader}.
+     */
+    private void writeIndex(String packageName, List<String> entries) {
+        String className = packageName.isEmpty() ? INDEX_CLASS : packageName + "." + INDEX_CLASS;
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import io.github.nyg404.ttigfaer.api.Interface.HandlerIndex;\n")
+                .append("import io.github.nyg404.ttigfaer.core.Enum.HandlerPriority;\n")
+                .append("import io.github.nyg404.ttigfaer.core.Enum.HandlerType;\n")
+                .append("import io.github.nyg404.ttigfaer.core.Enum.LimitScope;\n")
+                .append("import io.github.nyg404.ttigfaer.core.Enum.OverflowPolicy;\n")
+                .append("import io.github.nyg404.ttigfaer.core.Model.HandlerDescriptor;\n\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.List;\n\n")
+                // Только ASCII: файл пишется в кодировке компилятора пользователя
+                .append("/**\n * Generated by HandlerAnnotationProcessor. Do not edit.\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(INDEX_CLASS).append(" implements HandlerIndex {\n\n")
+                .append("    @Override\n")
+                .append("    public List<HandlerDescriptor> handlers() {\n")
+                .append("        List<HandlerDescriptor> handlers = new ArrayList<>(").append(entries.size()).append(");\n");
+        int chunks = (entries.size() + CHUNK - 1) / CHUNK;
+        for (int i = 0; i < chunks; i++) {
+            source.append("        add").append(i).append("(handlers);\n");
+        }
+        source.append("        return handlers;\n    }\n");
+        for (int i = 0; i < chunks; i++) {
+            source.append("\n    private static void add").append(i).append("(List<HandlerDescriptor> handlers) {\n");
+            for (String entry : entries.subList(i * CHUNK, Math.min(entries.size(), (i + 1) * CHUNK))) {
+                source.append("        handlers.add(").append(entry).append(");\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("}\n");
+
+        try {
+            try (Writer writer = processingEnv.getFiler().createSourceFile(className).openWriter()) {
+                writer.write(source.toString());
+            }
+            FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + HandlerIndex.class.getName());
+            try (Writer writer = services.openWriter()) {
+                writer.write(className + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Не удалось записать индекс обработчиков: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Бинарное имя типа, пригодное для {@code ClassUtils.forName}.
+     */
+    private String binaryName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased instanceof ArrayType arrayType) {
+            return binaryName(arrayType.getComponentType()) + "[]";
+        }
+        if (erased instanceof DeclaredType declaredType) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) declaredType.asElement()).toString();
+        }
+        return erased.toString();
+    }
+
+    private static String array(String[] values) {
+        StringBuilder sb = new StringBuilder("new String[]{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(literal(values[i]));
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Строковый литерал Java; символы вне ASCII экранируются, чтобы не зависеть от кодировки компилятора.
+     */
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
     private void error(Element element, String message) {
         processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
     }
@@ -1,16 +1,27 @@
 package io.github.nyg404.ttigfaer.core.Commands;
 
 import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Enum.HandlerPriority;
 import io.github.nyg404.ttigfaer.core.Enum.MessageFilter;
 import io.github.nyg404.ttigfaer.core.Manager.RateLimitManager;
+import io.github.nyg404.ttigfaer.core.Utils.AdmissionControl;
 import io.github.nyg404.ttigfaer.core.Utils.ArgumentRegistry;
+import io.github.nyg404.ttigfaer.core.Utils.ContentMask;
+import io.github.nyg404.ttigfaer.core.Utils.PriorityExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
 import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Класс, отвечающий за выполнение команд.
@@ -26,11 +37,23 @@ public class CommandExecutor {
     private final Executor asyncExecutor;
     private final int limit;
     private final int limitWindows;
-    private final RateLimitManager rateLimitManager;
+    /** Ограничитель частоты из общего {@link RateLimitManager} или null, если лимита нет. */
+    private final RateLimitManager.Limiter rateLimiter;
     private final int delay;
+    /** Новый вызов пользователя в чате отменяет его ожидающий отложенный вызов. */
+    private final boolean supersede;
+    /** Общий таймер, по которому отложенные вызовы передаются в {@link #asyncExecutor}. */
+    private final TimingWheel timingWheel;
+    /** Ожидающие отложенные вызовы по ключу «чат + пользователь»; заполняется только при {@link #supersede}. */
+    @Getter(AccessLevel.NONE)
+    private final ConcurrentMap<Long, DelayedCall> pendingDelays = new ConcurrentHashMap<>();
     private final ArgumentRegistry argumentRegistry;
     private final EnumSet<MessageFilter> filters;
-
+    /** Фильтры, свёрнутые в маску {@link ContentMask}; 0 — без фильтров. */
+    private final int filterMask;
+    /** Приоритет асинхронного выполнения (уже с учётом типа обработчика). */
+    private final HandlerPriority priority;
+    private final HandlerInvoker invoker;
 
     /**
      * Конструктор CommandExecutor.
@@ -42,9 +65,15 @@ public class CommandExecutor {
      * @param limit лимит вызовов команды
      * @param limitWindows временное окно для лимита (в миллисекундах)
      * @param delay задержка перед выполнением команды (в секундах)
+     * @param priority приоритет асинхронного выполнения
+     * @param rateLimiter ограничитель частоты из {@link RateLimitManager} или null
+     * @param supersede отменять ожидающий отложенный вызов при новом вызове того же пользователя в чате
+     * @param timingWheel общий таймер для задержек
      */
     public CommandExecutor(Object bean, Method method, boolean isAsync, Executor asyncExecutor,
-                           int limit, int limitWindows, int delay, ArgumentRegistry argumentRegistry, EnumSet<MessageFilter> filters) {
+                           int limit, int limitWindows, int delay, ArgumentRegistry argumentRegistry, EnumSet<MessageFilter> filters,
+                           HandlerPriority priority, RateLimitManager.Limiter rateLimiter,
+                           boolean supersede, TimingWheel timingWheel) {
         this.bean = bean;
         this.method = method;
         this.isAsync = isAsync;
@@ -52,9 +81,14 @@ public class CommandExecutor {
         this.limit = limit;
         this.limitWindows = limitWindows;
         this.delay = delay;
+        this.supersede = supersede;
+        this.timingWheel = timingWheel;
         this.filters = filters;
-        this.rateLimitManager = new RateLimitManager(limit, limitWindows, asyncExecutor);
+        this.filterMask = ContentMask.of(filters);
+        this.priority = priority;
+        this.rateLimiter = rateLimiter;
         this.argumentRegistry = argumentRegistry;
+        this.invoker = HandlerInvoker.compile(bean, method, argumentRegistry);
     }
 
     /**
@@ -63,80 +97,146 @@ public class CommandExecutor {
      * @param ctx контекст сообщения и команды
      */
     public void invoke(MessageContext ctx) {
+        invoke(ctx, null);
+    }
+
+    /**
+     * Выполнить команду с заданным контекстом, удерживая билет допуска до завершения вызова.
+     *
+     * <p>Вызов с {@code @TimeBot(delay)} не занимает поток на время ожидания: он ставится на
+     * {@link TimingWheel} и передаётся в {@link #asyncExecutor}, когда подойдёт срок.</p>
+     *
+     * @param ctx    контекст сообщения и команды
+     * @param ticket билет {@link AdmissionControl} или null
+     */
+    public void invoke(MessageContext ctx, AdmissionControl.Ticket ticket) {
         Runnable task = () -> {
             try {
-                if (delay > 0) {
-                    Thread.sleep(delay * 1000L);
-                }
-
-                Class<?>[] paramTypes = method.getParameterTypes();
-                Object[] args = new Object[paramTypes.length];
-
-                for (int i = 0; i < paramTypes.length; i++) {
-                    if (paramTypes[i].isAssignableFrom(MessageContext.class)) {
-                        args[i] = ctx;
-                    } else {
-                        args[i] = argumentRegistry.getRaw(paramTypes[i]);
-                        if (args[i] == null) {
-                            throw new IllegalArgumentException("Не найден аргумент типа: " + paramTypes[i].getSimpleName());
-                        }
-                    }
-                }
-
-                method.invoke(bean, args);
-
-            } catch (Exception e) {
+                invoker.invoke(ctx);
+
+            } catch (Throwable e) {
                 log.error("Ошибка при {}вызове: {}", isAsync ? "асинхронном " : "",
                         ctx.getAction() != null ? ctx.getAction() : ctx.getCommand(), e);
+            } finally {
+                if (ticket != null) ticket.release();
             }
         };
 
-        if (isAsync) {
-            if (limit > 0) {
-                rateLimitManager.submit(ctx.getChatId(), () -> asyncExecutor.execute(task));
-            } else {
-                asyncExecutor.execute(task);
-            }
+        if (ticket != null) ticket.retain();
+        // Отложенный лимитом вызов всегда передаётся в asyncExecutor, отброшенный — освобождает билет
+        if (rateLimiter != null && !rateLimiter.acquire(ctx, () -> start(task, ctx, ticket, true),
+                () -> { if (ticket != null) ticket.release(); })) {
+            return;
+        }
+        start(task, ctx, ticket, isAsync);
+    }
+
+    /**
+     * Запускает вызов сразу или по таймеру, если задана задержка.
+     *
+     * @param async передать задачу в {@link #asyncExecutor}, а не выполнять в текущем потоке
+     */
+    private void start(Runnable task, MessageContext ctx, AdmissionControl.Ticket ticket, boolean async) {
+        if (delay > 0) {
+            scheduleDelayed(task, ctx, ticket);
+        } else if (async) {
+            executeAsync(task, ctx, ticket);
         } else {
-            if (limit > 0) {
-                rateLimitManager.submit(ctx.getChatId(), task);
+            task.run();
+        }
+    }
+
+    /**
+     * Ставит вызов на таймер. Поток таймера только передаёт задачу в исполнитель,
+     * поэтому отложенные вызовы всегда выполняются асинхронно.
+     */
+    private void scheduleDelayed(Runnable task, MessageContext ctx, AdmissionControl.Ticket ticket) {
+        if (!supersede) {
+            timingWheel.schedule(() -> executeAsync(task, ctx, ticket), delay, TimeUnit.SECONDS);
+            return;
+        }
+        long chatId = ctx.getChatId() != null ? ctx.getChatId() : 0L;
+        long userId = ctx.getUserId() != null ? ctx.getUserId() : 0L;
+        long key = (chatId * 0x9E3779B97F4A7C15L) ^ userId;
+
+        DelayedCall call = new DelayedCall(ticket);
+        DelayedCall previous = pendingDelays.put(key, call);
+        call.timeout = timingWheel.schedule(() -> {
+            pendingDelays.remove(key, call);
+            if (call.fire()) executeAsync(task, ctx, ticket);
+        }, delay, TimeUnit.SECONDS);
+        if (previous != null && previous.cancel()) {
+            log.debug("Отложенный вызов {} отменён новым вызовом",
+                    ctx.getAction() != null ? ctx.getAction() : ctx.getCommand());
+        }
+    }
+
+    /**
+     * @return количество ожидающих отложенных вызовов, которые можно отменить
+     */
+    public int pendingDelays() {
+        return pendingDelays.size();
+    }
+
+    private void executeAsync(Runnable task, MessageContext ctx, AdmissionControl.Ticket ticket) {
+        try {
+            if (asyncExecutor instanceof PriorityExecutor priorityExecutor) {
+                priorityExecutor.execute(task, priority);
             } else {
-                task.run();
+                asyncExecutor.execute(task);
             }
+        } catch (RejectedExecutionException e) {
+            if (ticket != null) ticket.reject();
+            log.error("Очередь асинхронных задач переполнена, вызов пропущен: {}",
+                    ctx.getAction() != null ? ctx.getAction() : ctx.getCommand());
         }
     }
 
+    /**
+     * Проверяет, подходит ли сообщение под фильтры обработчика.
+     *
+     * @param ctx контекст сообщения
+     * @return true, если фильтров нет или совпал хотя бы один
+     */
     public boolean matchesFilters(MessageContext ctx) {
-        if (filters.isEmpty()) return true; // Если фильтров нет, то подходит всё
-
-        for (MessageFilter filter : filters) {
-            switch (filter) {
-                case Text -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasText()) return true;
-                }
-                case Photo -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasPhoto()) return true;
-                }
-                case Video -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasVideo()) return true;
-                }
-                case Voice -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasVoice()) return true;
-                }
-                case Document -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasDocument()) return true;
-                }
-                case Animation -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().hasAnimation()) return true;
-                }
-                case Sticker -> {
-                    if(ctx.getMessage() != null && ctx.getMessage().hasSticker()) return true;
-                }
-                case GroupMedia -> {
-                    if (ctx.getMessage() != null && ctx.getMessage().isGroupMessage()) return true;
-                }
+        return matches(ctx.getContentMask());
+    }
+
+    /**
+     * Проверяет маску содержимого сообщения на совпадение с фильтрами обработчика.
+     *
+     * @param contentMask маска {@link ContentMask}
+     * @return true, если фильтров нет или совпал хотя бы один
+     */
+    public boolean matches(int contentMask) {
+        return filterMask == 0 || (contentMask & filterMask) != 0;
+    }
+
+    /**
+     * Отложенный вызов, который можно отменить. Выполнится либо {@link #fire()}, либо
+     * {@link #cancel()} — тот, кто первым сменит состояние.
+     */
+    private static final class DelayedCall {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AdmissionControl.Ticket ticket;
+        private volatile TimingWheel.Timeout timeout;
+
+        private DelayedCall(AdmissionControl.Ticket ticket) {
+            this.ticket = ticket;
+        }
+
+        private boolean fire() {
+            return done.compareAndSet(false, true);
+        }
+
+        private boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
             }
+            TimingWheel.Timeout t = timeout;
+            if (t != null) t.cancel();
+            if (ticket != null) ticket.release();
+            return true;
         }
-        return false;
     }
 }
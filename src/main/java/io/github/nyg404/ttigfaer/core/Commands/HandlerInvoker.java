@@ -0,0 +1,99 @@
+package io.github.nyg404.ttigfaer.core.Commands;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Utils.ArgumentRegistry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Заранее скомпилированный вызов метода-обработчика.
+ *
+ * <p>При регистрации метод превращается в {@link MethodHandle} вида {@code (MessageContext) -> void}:
+ * бин привязывается к обработчику, а для каждого параметра заранее выбирается способ получения
+ * значения — сам контекст или аргумент из {@link ArgumentRegistry}. На каждом обновлении остаётся
+ * только вызов {@code invokeExact}, без рефлексии и без выделения массива аргументов.</p>
+ */
+public final class HandlerInvoker {
+    private static final MethodHandle REQUIRE_ARGUMENT;
+
+    static {
+        try {
+            REQUIRE_ARGUMENT = MethodHandles.lookup().findStatic(HandlerInvoker.class, "requireArgument",
+                    MethodType.methodType(Object.class, ArgumentRegistry.class, Class.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle handle;
+
+    private HandlerInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Компилирует вызов метода обработчика.
+     *
+     * @param bean             объект, у которого вызывается метод
+     * @param method           метод обработчика (должен быть доступен, см. {@link Method#setAccessible})
+     * @param argumentRegistry реестр аргументов для параметров, отличных от {@link MessageContext}
+     * @return готовый к вызову {@link HandlerInvoker}
+     * @throws IllegalStateException если метод не удалось преобразовать в {@link MethodHandle}
+     */
+    public static HandlerInvoker compile(Object bean, Method method, ArgumentRegistry argumentRegistry) {
+        MethodHandle target;
+        try {
+            target = MethodHandles.lookup().unreflect(method).bindTo(bean);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к методу обработчика: " + method, e);
+        }
+
+        Class<?>[] paramTypes = method.getParameterTypes();
+        MethodHandle[] resolvers = new MethodHandle[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            MethodHandle resolver;
+            if (paramTypes[i].isAssignableFrom(MessageContext.class)) {
+                resolver = MethodHandles.identity(MessageContext.class);
+            } else {
+                resolver = MethodHandles.dropArguments(
+                        MethodHandles.insertArguments(REQUIRE_ARGUMENT, 0, argumentRegistry, paramTypes[i]),
+                        0, MessageContext.class);
+            }
+            resolvers[i] = resolver.asType(MethodType.methodType(paramTypes[i], MessageContext.class));
+        }
+
+        MethodHandle combined;
+        if (paramTypes.length == 0) {
+            combined = MethodHandles.dropArguments(target, 0, MessageContext.class);
+        } else {
+            // (MessageContext, ..., MessageContext) -> R, затем один контекст раздаётся во все позиции
+            combined = MethodHandles.permuteArguments(
+                    MethodHandles.filterArguments(target, 0, resolvers),
+                    MethodType.methodType(target.type().returnType(), MessageContext.class),
+                    new int[paramTypes.length]);
+        }
+        return new HandlerInvoker(combined.asType(MethodType.methodType(void.class, MessageContext.class)));
+    }
+
+    /**
+     * Вызывает обработчик с заданным контекстом.
+     *
+     * @param ctx контекст сообщения
+     * @throws Throwable исключение, выброшенное обработчиком
+     */
+    public void invoke(MessageContext ctx) throws Throwable {
+        handle.invokeExact(ctx);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object requireArgument(ArgumentRegistry argumentRegistry, Class<?> type) {
+        Object value = argumentRegistry.getRaw(type);
+        if (value == null) {
+            throw new IllegalArgumentException("Не найден аргумент типа: " + type.getSimpleName());
+        }
+        return value;
+    }
+}
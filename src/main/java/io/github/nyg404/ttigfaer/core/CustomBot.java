@@ -8,14 +8,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.telegram.telegrambots.longpolling.util.LongPollingSingleThreadUpdateConsumer;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Абстрактный базовый класс для кастомного Telegram бота.
- * Реализует интерфейс {@link LongPollingSingleThreadUpdateConsumer} для обработки обновлений.
+ * Реализует интерфейс {@link LongPollingSingleThreadUpdateConsumer} для обработки обновлений:
+ * пачка из {@code getUpdates} передаётся в {@link CommandManager} целиком.
  *
  * <p>Отвечает за получение обновлений из Telegram и их передачу в {@link CommandManager}
  * через контекст {@link MessageContext}.</p>
  *
- * <p>Все исключения при обработке логируются.</p>
+ * <p>Все исключения при обработке логируются. Порядок и параллельность обработки
+ * определяются режимом {@code ttigfaer.dispatch.mode}.</p>
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -33,10 +38,40 @@ public abstract class CustomBot implements LongPollingSingleThreadUpdateConsumer
     @Override
     public void consume(Update update) {
         try {
-            MessageContext ctx = new MessageContext(update, botSettings.getPrefix());
+            MessageContext ctx = new MessageContext(update, botSettings.getPrefix(), botSettings.getUsername());
             commandManager.dispatch(ctx);
         } catch (Exception e) {
             log.error("Ошибка при обработке обновления", e);
         }
     }
+
+    /**
+     * Обрабатывает пачку обновлений, полученную за один запрос {@code getUpdates}.
+     * Как и в реализации по умолчанию, пачка передаётся в {@link #updatesProcessorExecutor},
+     * чтобы обработчики не задерживали следующий {@code getUpdates}. Там контексты создаются
+     * сразу для всей пачки и передаются в {@link CommandManager#dispatchAll}.
+     *
+     * @param updates обновления из Telegram в порядке получения
+     */
+    @Override
+    public void consume(List<Update> updates) {
+        updatesProcessorExecutor.execute(() -> dispatchAll(updates));
+    }
+
+    private void dispatchAll(List<Update> updates) {
+        List<MessageContext> contexts = new ArrayList<>(updates.size());
+        for (Update update : updates) {
+            try {
+                contexts.add(new MessageContext(update, botSettings.getPrefix(), botSettings.getUsername()));
+            } catch (Exception e) {
+                log.error("Ошибка при обработке обновления", e);
+            }
+        }
+        if (contexts.isEmpty()) return;
+        try {
+            commandManager.dispatchAll(contexts);
+        } catch (Exception e) {
+            log.error("Ошибка при обработке пачки обновлений", e);
+        }
+    }
 }
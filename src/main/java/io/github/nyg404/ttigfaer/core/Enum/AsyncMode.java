@@ -0,0 +1,16 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Режимы асинхронного исполнителя.
+ */
+public enum AsyncMode {
+    /**
+     * Пул потоков фиксированного размера с очередью задач.
+     */
+    POOL,
+
+    /**
+     * Виртуальный поток на каждую задачу, параллельность ограничивается семафором.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,31 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Причина, по которой сообщение рассылки не доставлено получателю.
+ */
+public enum BroadcastFailure {
+    /**
+     * Пользователь заблокировал бота (403). Получателя стоит убрать из списка.
+     */
+    BLOCKED,
+
+    /**
+     * Аккаунт пользователя удалён (403). Получателя стоит убрать из списка.
+     */
+    DEACTIVATED,
+
+    /**
+     * Чат не найден или бот из него удалён (400/403).
+     */
+    CHAT_NOT_FOUND,
+
+    /**
+     * Flood control (429) не прошёл и после всех повторов.
+     */
+    FLOOD,
+
+    /**
+     * Любая другая ошибка.
+     */
+    OTHER
+}
@@ -0,0 +1,17 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Режимы диспетчеризации входящих обновлений.
+ */
+public enum DispatchMode {
+    /**
+     * Все обновления обрабатываются последовательно в потоке получения обновлений.
+     */
+    SINGLE_THREAD,
+
+    /**
+     * Обновления раскладываются по очередям чатов (по {@code chatId}).
+     * Внутри одного чата порядок сохраняется, разные чаты обрабатываются параллельно.
+     */
+    CHAT_ORDERED
+}
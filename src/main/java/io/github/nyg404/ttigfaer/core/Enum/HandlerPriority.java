@@ -0,0 +1,39 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Классы приоритета выполнения обработчиков.
+ *
+ * <p>Приоритет определяет очередность асинхронных вызовов ({@code @TAsync} и вызовов с {@code @TimeBot}),
+ * когда исполнитель занят. По умолчанию он берётся из {@link HandlerType#getDefaultPriority()}.</p>
+ */
+public enum HandlerPriority {
+    /**
+     * Интерактивные обработчики, ответа которых ждёт пользователь.
+     */
+    HIGH,
+
+    /**
+     * Обычные обработчики.
+     */
+    NORMAL,
+
+    /**
+     * Фоновые обработчики (логирование, счётчики и т.п.), использующие свободную мощность.
+     */
+    LOW,
+
+    /**
+     * Приоритет по типу обработчика.
+     */
+    DEFAULT;
+
+    /**
+     * Возвращает приоритет с учётом значения по умолчанию для типа обработчика.
+     *
+     * @param type тип обработчика
+     * @return {@link #HIGH}, {@link #NORMAL} или {@link #LOW}
+     */
+    public HandlerPriority resolve(HandlerType type) {
+        return this == DEFAULT ? type.getDefaultPriority() : this;
+    }
+}
@@ -7,21 +7,33 @@ public enum HandlerType {
     /**
      * Обработчик регистрации команды (например, /start, /help).
      */
-    REGISTER_COMMAND,
+    REGISTER_COMMAND(HandlerPriority.HIGH),
 
     /**
      * Обработчик, который реагирует на любые сообщения (текст, фото, документ и т.д.).
      */
-    ON_MESSAGE,
+    ON_MESSAGE(HandlerPriority.LOW),
 
     /**
      * Обработчик, который реагирует на ответы на сообщения, которые были адресованы ему.
      */
-    RESPOND_TO_BOT_MESSAGE,
+    RESPOND_TO_BOT_MESSAGE(HandlerPriority.NORMAL),
 
     /**
      * Обработчик, который реагирует на callBack запросы.
      */
-    ON_CALLBACK_QUERY;
+    ON_CALLBACK_QUERY(HandlerPriority.HIGH);
 
+    private final HandlerPriority defaultPriority;
+
+    HandlerType(HandlerPriority defaultPriority) {
+        this.defaultPriority = defaultPriority;
+    }
+
+    /**
+     * @return приоритет обработчиков этого типа, если он не указан в {@code @Handler#priority()}
+     */
+    public HandlerPriority getDefaultPriority() {
+        return defaultPriority;
+    }
 }
@@ -0,0 +1,16 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Протоколы соединений с Telegram Bot API.
+ */
+public enum HttpProtocol {
+    /**
+     * HTTP/2 с откатом на HTTP/1.1: запросы мультиплексируются в общих соединениях.
+     */
+    HTTP_2,
+
+    /**
+     * Только HTTP/1.1: один запрос на соединение, параллельность ограничена пулом.
+     */
+    HTTP_1_1
+}
@@ -0,0 +1,26 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Область, в пределах которой считается лимит {@code @TimeBot}.
+ */
+public enum LimitScope {
+    /**
+     * Отдельный лимит для каждого чата.
+     */
+    CHAT,
+
+    /**
+     * Отдельный лимит для каждого пользователя во всех чатах.
+     */
+    USER,
+
+    /**
+     * Отдельный лимит для каждого пользователя в каждом чате.
+     */
+    USER_IN_CHAT,
+
+    /**
+     * Один лимит на обработчик для всех.
+     */
+    GLOBAL
+}
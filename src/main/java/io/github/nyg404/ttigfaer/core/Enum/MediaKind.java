@@ -0,0 +1,15 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Тип медиа в Telegram. {@code file_id}, полученный для одного типа, нельзя отправить как другой,
+ * поэтому тип входит в ключ кэша загруженных файлов.
+ */
+public enum MediaKind {
+    PHOTO,
+    VIDEO,
+    ANIMATION,
+    DOCUMENT,
+    AUDIO,
+    VOICE,
+    STICKER
+}
@@ -36,5 +36,15 @@ public enum MessageFilter {
     /**
      * Обрабатывает груповые сообщения.
      */
-    GroupMedia,
+    GroupMedia;
+
+    /**
+     * Бит фильтра в маске содержимого сообщения
+     * ({@link io.github.nyg404.ttigfaer.core.Utils.ContentMask}).
+     *
+     * @return маска из одного бита
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
 }
@@ -0,0 +1,27 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Что делать с вызовом, превысившим лимит {@code @TimeBot}.
+ */
+public enum OverflowPolicy {
+    /**
+     * Поставить в очередь и выполнить, когда лимит позволит. Длина очереди ограничена
+     * {@code @TimeBot#maxQueue()}, вызовы сверх неё отбрасываются.
+     */
+    QUEUE,
+
+    /**
+     * Молча отбросить вызов.
+     */
+    DROP,
+
+    /**
+     * Отбросить вызов и ответить пользователю сообщением {@code @TimeBot#message()}.
+     */
+    DROP_WITH_REPLY,
+
+    /**
+     * Хранить только последний отложенный вызов: новый заменяет ещё не выполненный.
+     */
+    COALESCE
+}
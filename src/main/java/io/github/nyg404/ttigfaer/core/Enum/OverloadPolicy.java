@@ -0,0 +1,23 @@
+package io.github.nyg404.ttigfaer.core.Enum;
+
+/**
+ * Поведение стадии допуска обновлений при заполненной ёмкости
+ * ({@code ttigfaer.dispatch.capacity}).
+ */
+public enum OverloadPolicy {
+    /**
+     * Вытесняются самые старые ещё не начатые обычные сообщения.
+     * Команды и callback'и допускаются всегда, даже сверх ёмкости.
+     */
+    DROP_OLDEST_CHATTER,
+
+    /**
+     * Поток получения обновлений ждёт, пока освободится место.
+     */
+    BLOCK,
+
+    /**
+     * Новое обновление отбрасывается; на команды и callback'и бот отвечает сообщением о занятости.
+     */
+    REPLY_BUSY
+}
@@ -4,17 +4,26 @@ import io.github.nyg404.ttigfaer.api.Annotations.Handler;
 import io.github.nyg404.ttigfaer.api.Annotations.TAsync;
 import io.github.nyg404.ttigfaer.api.Annotations.TimeBot;
 import io.github.nyg404.ttigfaer.api.Interface.CommandHandler;
+import io.github.nyg404.ttigfaer.api.Interface.HandlerIndex;
 import io.github.nyg404.ttigfaer.api.Message.MessageContext;
 import io.github.nyg404.ttigfaer.core.Commands.CommandExecutor;
 import io.github.nyg404.ttigfaer.core.Enum.HandlerType;
+import io.github.nyg404.ttigfaer.core.Enum.LimitScope;
 import io.github.nyg404.ttigfaer.core.Enum.MessageFilter;
+import io.github.nyg404.ttigfaer.core.Enum.OverflowPolicy;
+import io.github.nyg404.ttigfaer.core.Model.HandlerDescriptor;
+import io.github.nyg404.ttigfaer.core.Utils.AdmissionControl;
 import io.github.nyg404.ttigfaer.core.Utils.ArgumentRegistry;
+import io.github.nyg404.ttigfaer.core.Utils.ChatMailboxExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.ContentMask;
+import io.github.nyg404.ttigfaer.core.Utils.PriorityExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.support.AopUtils;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
 import java.util.*;
@@ -42,76 +51,233 @@ import java.util.concurrent.Executor;
 @Component
 @Slf4j
 public class CommandManager {
+    /** Значение {@link TimeBot#maxQueue()} по умолчанию. */
+    private static final int DEFAULT_MAX_QUEUE = 100;
+    /** Значение {@link TimeBot#message()} по умолчанию. */
+    private static final String DEFAULT_LIMIT_MESSAGE = "Слишком часто, попробуйте позже.";
 
     /** Карта обработчиков по типу и ключу (команда, callback и др.) */
     @Getter
     private final Map<HandlerType, Map<String, CommandExecutor>> handlersByType = new HashMap<>();
 
+    /**
+     * Таблицы выбора обработчиков без ключа: для каждого типа — массив по маске фильтров
+     * ({@link ContentMask#FILTER_BITS}), в ячейке которого лежат подходящие обработчики.
+     * Строятся один раз после регистрации.
+     */
+    private final Map<HandlerType, CommandExecutor[][]> dispatchTables = new EnumMap<>(HandlerType.class);
+
     private final List<CommandHandler> handlers;
     private final Executor asyncExecutor;
     private final ArgumentRegistry argumentRegistry;
+    private final ChatMailboxExecutor chatMailboxExecutor;
+    private final AdmissionControl admissionControl;
+    private final RateLimitManager rateLimitManager;
+    private final TimingWheel timingWheel;
 
     /**
      * Конструктор для внедрения зависимостей.
      *
      * @param handlers       список обработчиков команд
-     * @param asyncExecutor  Executor для асинхронного выполнения
+     * @param asyncExecutor  исполнитель с приоритетами для асинхронного выполнения
      * @param argumentRegistry Реестр аргументов для маппинга параметров методов
+     * @param chatMailboxExecutor исполнитель очередей чатов для диспетчеризации обновлений
+     * @param admissionControl стадия допуска, ограничивающая число обновлений в обработке
+     * @param rateLimitManager общий менеджер ограничения частоты для {@link TimeBot}
+     * @param timingWheel общий таймер для задержек {@link TimeBot#delay()}
      */
-    public CommandManager(List<CommandHandler> handlers, @Qualifier("asyncExecutor") Executor asyncExecutor, ArgumentRegistry argumentRegistry) {
+    public CommandManager(List<CommandHandler> handlers, PriorityExecutor asyncExecutor,
+                          ArgumentRegistry argumentRegistry, ChatMailboxExecutor chatMailboxExecutor,
+                          AdmissionControl admissionControl, RateLimitManager rateLimitManager,
+                          TimingWheel timingWheel) {
         this.handlers = handlers;
         this.asyncExecutor = asyncExecutor;
         this.argumentRegistry = argumentRegistry;
+        this.chatMailboxExecutor = chatMailboxExecutor;
+        this.admissionControl = admissionControl;
+        this.rateLimitManager = rateLimitManager;
+        this.timingWheel = timingWheel;
     }
 
     /**
      * Инициализация менеджера: сканирование обработчиков, регистрация методов.
      * Вызывается после создания бина Spring (через {@link PostConstruct}).
+     *
+     * <p>Если при компиляции был сгенерирован {@link HandlerIndex}, методы берутся из него.
+     * Классы, которых нет в индексе, сканируются рефлексией.</p>
      */
     @PostConstruct
     public void init() {
         log.info("Инициализация CommandManager: {} обработчиков найдено", handlers.size());
+        Map<String, List<HandlerDescriptor>> index = loadHandlerIndex();
         for (CommandHandler handler : handlers) {
             Class<?> targetClass = AopUtils.getTargetClass(handler);
+            List<HandlerDescriptor> indexed = index.get(targetClass.getName());
+            if (indexed != null && registerIndexed(handler, targetClass, indexed)) {
+                log.info("Загружено из индекса: {}", targetClass.getSimpleName());
+                continue;
+            }
             log.info("Сканирование: {}", targetClass.getSimpleName());
             for (Method method : targetClass.getDeclaredMethods()) {
                 if (!method.isAnnotationPresent(Handler.class)) continue;
+                register(handler, targetClass, method, describe(targetClass, method));
+            }
+        }
+        buildDispatchTables();
+        log.info("Регистрация завершена. Обработчики: {}", handlersByType.keySet());
+    }
+
+    /**
+     * Строит таблицы выбора для типов, обработчики которых вызываются по фильтрам, а не по ключу.
+     * Порядок обработчиков в ячейке совпадает с порядком обхода {@link #handlersByType}.
+     */
+    private void buildDispatchTables() {
+        for (HandlerType type : List.of(HandlerType.ON_MESSAGE, HandlerType.RESPOND_TO_BOT_MESSAGE)) {
+            Map<String, CommandExecutor> map = handlersByType.get(type);
+            if (map == null || map.isEmpty()) continue;
 
-                Handler annotation = method.getAnnotation(Handler.class);
-                HandlerType type = annotation.value();
-                boolean isAsync = method.isAnnotationPresent(TAsync.class);
+            CommandExecutor[][] table = new CommandExecutor[ContentMask.FILTER_BITS + 1][];
+            List<CommandExecutor> matched = new ArrayList<>(map.size());
+            for (int mask = 0; mask <= ContentMask.FILTER_BITS; mask++) {
+                matched.clear();
+                for (CommandExecutor executor : map.values()) {
+                    if (executor.matches(mask)) matched.add(executor);
+                }
+                table[mask] = matched.toArray(new CommandExecutor[0]);
+            }
+            dispatchTables.put(type, table);
+        }
+    }
 
-                int limit = 0, limitWindows = 0, delay = 0;
-                if (method.isAnnotationPresent(TimeBot.class)) {
-                    TimeBot tb = method.getAnnotation(TimeBot.class);
-                    limit = tb.limit();
-                    limitWindows = tb.limitWindows();
-                    delay = tb.delay();
+    /**
+     * Загружает сгенерированные индексы обработчиков через {@link ServiceLoader}.
+     *
+     * @return описания обработчиков, сгруппированные по имени класса
+     */
+    private Map<String, List<HandlerDescriptor>> loadHandlerIndex() {
+        Map<String, List<HandlerDescriptor>> index = new HashMap<>();
+        try {
+            for (HandlerIndex handlerIndex : ServiceLoader.load(HandlerIndex.class, getClass().getClassLoader())) {
+                for (HandlerDescriptor descriptor : handlerIndex.handlers()) {
+                    index.computeIfAbsent(descriptor.getHandlerClass(), k -> new ArrayList<>()).add(descriptor);
                 }
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("Не удалось загрузить индекс обработчиков, используется сканирование: {}", e.getMessage());
+            index.clear();
+        }
+        return index;
+    }
 
-                EnumSet<MessageFilter> filters = EnumSet.noneOf(MessageFilter.class);
-                if (type == HandlerType.ON_MESSAGE) {
-                    for (String filterName : annotation.filters()) {
-                        try {
-                            filters.add(MessageFilter.valueOf(filterName));
-                        } catch (IllegalArgumentException e) {
-                            log.warn("Неизвестный фильтр: {}", filterName);
-                        }
-                    }
+    /**
+     * Регистрирует методы класса по описаниям из индекса.
+     * Если хотя бы один метод не найден (индекс устарел), ничего не регистрирует.
+     *
+     * @return true, если все методы из индекса зарегистрированы
+     */
+    private boolean registerIndexed(CommandHandler handler, Class<?> targetClass, List<HandlerDescriptor> descriptors) {
+        List<Method> methods = new ArrayList<>(descriptors.size());
+        try {
+            for (HandlerDescriptor descriptor : descriptors) {
+                Class<?>[] parameterTypes = new Class<?>[descriptor.getParameterTypes().length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = ClassUtils.forName(descriptor.getParameterTypes()[i], targetClass.getClassLoader());
                 }
+                methods.add(targetClass.getDeclaredMethod(descriptor.getMethod(), parameterTypes));
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Индекс обработчиков устарел для {}: {}", targetClass.getSimpleName(), e.getMessage());
+            return false;
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            register(handler, targetClass, methods.get(i), descriptors.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Строит описание обработчика по аннотациям метода.
+     *
+     * @param targetClass класс-обработчик
+     * @param method      метод с {@link Handler}
+     * @return описание обработчика
+     */
+    private HandlerDescriptor describe(Class<?> targetClass, Method method) {
+        Handler annotation = method.getAnnotation(Handler.class);
+        TimeBot tb = method.getAnnotation(TimeBot.class);
+        return HandlerDescriptor.builder()
+                .handlerClass(targetClass.getName())
+                .method(method.getName())
+                .parameterTypes(Arrays.stream(method.getParameterTypes()).map(Class::getTypeName).toArray(String[]::new))
+                .type(annotation.value())
+                .commands(annotation.commands())
+                .callBack(annotation.callBack())
+                .filters(annotation.filters())
+                .priority(annotation.priority())
+                .async(method.isAnnotationPresent(TAsync.class))
+                .limit(tb != null ? tb.limit() : 0)
+                .limitWindows(tb != null ? tb.limitWindows() : 0)
+                .delay(tb != null ? tb.delay() : 0)
+                .supersede(tb != null && tb.supersede())
+                .overflow(tb != null ? tb.overflow() : null)
+                .maxQueue(tb != null ? tb.maxQueue() : 0)
+                .limitMessage(tb != null ? tb.message() : null)
+                .scope(tb != null ? tb.scope() : null)
+                .build();
+    }
 
-                if (!method.canAccess(handler)) method.setAccessible(true);
-                CommandExecutor executor = new CommandExecutor(handler, method, isAsync, asyncExecutor, limit, limitWindows, delay, argumentRegistry, filters);
-                handlersByType.computeIfAbsent(type, k -> new HashMap<>());
+    /**
+     * Создаёт {@link CommandExecutor} для метода и регистрирует его по типу обработчика.
+     *
+     * @param handler     бин-обработчик
+     * @param targetClass класс-обработчик
+     * @param method      метод-обработчик
+     * @param descriptor  описание обработчика
+     */
+    private void register(CommandHandler handler, Class<?> targetClass, Method method, HandlerDescriptor descriptor) {
+        HandlerType type = descriptor.getType();
 
-                switch (type) {
-                    case REGISTER_COMMAND -> registerCommand(annotation.commands(), method, targetClass, executor);
-                    case ON_CALLBACK_QUERY -> registerCallback(annotation.callBack(), method, targetClass, executor);
-                    default -> registerGeneric(type, targetClass, method, executor);
+        EnumSet<MessageFilter> filters = EnumSet.noneOf(MessageFilter.class);
+        if (type == HandlerType.ON_MESSAGE) {
+            for (String filterName : descriptor.getFilters()) {
+                try {
+                    filters.add(MessageFilter.valueOf(filterName));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Неизвестный фильтр: {}", filterName);
                 }
             }
         }
-        log.info("Регистрация завершена. Обработчики: {}", handlersByType.keySet());
+
+        if (!method.canAccess(handler)) method.setAccessible(true);
+        CommandExecutor executor = new CommandExecutor(handler, method, descriptor.isAsync(), asyncExecutor,
+                descriptor.getLimit(), descriptor.getLimitWindows(), descriptor.getDelay(), argumentRegistry, filters,
+                descriptor.getPriority() != null ? descriptor.getPriority().resolve(type) : type.getDefaultPriority(),
+                limiter(descriptor), descriptor.isSupersede(), timingWheel);
+        handlersByType.computeIfAbsent(type, k -> new HashMap<>());
+
+        switch (type) {
+            case REGISTER_COMMAND -> registerCommand(descriptor.getCommands(), method, targetClass, executor);
+            case ON_CALLBACK_QUERY -> registerCallback(descriptor.getCallBack(), method, targetClass, executor);
+            default -> registerGeneric(type, targetClass, method, executor);
+        }
+    }
+
+    /**
+     * Создаёт ограничитель частоты по параметрам {@code @TimeBot}.
+     * Индексы, собранные до появления политик переполнения, получают значения по умолчанию.
+     *
+     * @param descriptor описание обработчика
+     * @return ограничитель или null, если лимита нет
+     */
+    private RateLimitManager.Limiter limiter(HandlerDescriptor descriptor) {
+        if (descriptor.getLimit() <= 0) {
+            return null;
+        }
+        return rateLimitManager.limiter(descriptor.getLimit(), descriptor.getLimitWindows(),
+                descriptor.getOverflow() != null ? descriptor.getOverflow() : OverflowPolicy.QUEUE,
+                descriptor.getMaxQueue() > 0 ? descriptor.getMaxQueue() : DEFAULT_MAX_QUEUE,
+                descriptor.getLimitMessage() != null ? descriptor.getLimitMessage() : DEFAULT_LIMIT_MESSAGE,
+                descriptor.getScope() != null ? descriptor.getScope() : LimitScope.CHAT);
     }
 
     /**
@@ -171,48 +337,102 @@ public class CommandManager {
 
     /**
      * Основной метод для вызова обработчиков в зависимости от контекста сообщения.
+     * Обновление проходит стадию допуска ({@link AdmissionControl}) и ставится в очередь своего чата,
+     * поэтому порядок внутри чата сохраняется.
      *
      * @param ctx контекст входящего сообщения
      */
     public void dispatch(MessageContext ctx) {
+        AdmissionControl.Ticket ticket = admissionControl.admit(ctx);
+        if (ticket == null) return;
+        chatMailboxExecutor.execute(chatKey(ctx), () -> process(ctx, ticket));
+    }
+
+    /**
+     * Пакетная диспетчеризация: обновления группируются по чатам, и каждая группа
+     * ставится в очередь своего чата одним обращением. Порядок внутри чата сохраняется.
+     *
+     * @param contexts контексты в порядке получения
+     */
+    public void dispatchAll(List<MessageContext> contexts) {
+        if (contexts.size() == 1) {
+            dispatch(contexts.get(0));
+            return;
+        }
+        Map<Long, List<Runnable>> byChat = new LinkedHashMap<>();
+        for (MessageContext ctx : contexts) {
+            if (admissionControl.isFull()) {
+                // Уже допущенные обновления должны попасть в очереди, иначе они не освободят место
+                enqueueAll(byChat);
+            }
+            AdmissionControl.Ticket ticket = admissionControl.admit(ctx);
+            if (ticket == null) continue;
+            byChat.computeIfAbsent(chatKey(ctx), k -> new ArrayList<>()).add(() -> process(ctx, ticket));
+        }
+        enqueueAll(byChat);
+    }
+
+    private void enqueueAll(Map<Long, List<Runnable>> byChat) {
+        for (Map.Entry<Long, List<Runnable>> entry : byChat.entrySet()) {
+            chatMailboxExecutor.executeAll(entry.getKey(), entry.getValue());
+        }
+        byChat.clear();
+    }
+
+    /**
+     * Обрабатывает допущенное обновление, если оно не было вытеснено, и освобождает билет.
+     */
+    private void process(MessageContext ctx, AdmissionControl.Ticket ticket) {
+        if (!ticket.start()) return;
+        try {
+            route(ctx, ticket);
+        } finally {
+            ticket.release();
+        }
+    }
+
+    /**
+     * Ключ очереди для контекста: ID чата или 0, если чат неизвестен.
+     *
+     * @param ctx контекст сообщения
+     * @return ключ очереди
+     */
+    private long chatKey(MessageContext ctx) {
+        return ctx.getChatId() != null ? ctx.getChatId() : 0L;
+    }
+
+    /**
+     * Вызывает обработчики, подходящие для контекста сообщения.
+     *
+     * @param ctx    контекст входящего сообщения
+     * @param ticket билет допуска обновления
+     */
+    private void route(MessageContext ctx, AdmissionControl.Ticket ticket) {
         if (ctx.getMessage() != null) {
             if (ctx.getMessage().getReplyToMessage() != null && ctx.getMessage().getReplyToMessage().getFrom() != null && ctx.getMessage().getReplyToMessage().getFrom().getIsBot()) {
-                invokeHandlers(HandlerType.RESPOND_TO_BOT_MESSAGE, ctx);
+                invokeHandlers(HandlerType.RESPOND_TO_BOT_MESSAGE, ctx, ticket);
             }
-            if (hasMedia(ctx)) {
-                invokeHandlers(HandlerType.ON_MESSAGE, ctx);
+            if ((ctx.getContentMask() & ContentMask.MEDIA) != 0) {
+                invokeHandlers(HandlerType.ON_MESSAGE, ctx, ticket);
             }
         }
 
 
         if (ctx.getCommand() != null && !ctx.getCommand().isEmpty()) {
             CommandExecutor exec = getExecutor(HandlerType.REGISTER_COMMAND, ctx.getCommand());
-            if (exec != null) exec.invoke(ctx);
+            if (exec != null) exec.invoke(ctx, ticket);
         }
 
         if (ctx.isCallback()) {
             CommandExecutor exec = getExecutor(HandlerType.ON_CALLBACK_QUERY, ctx.getAction());
             if (exec != null) {
-                exec.invoke(ctx);
+                exec.invoke(ctx, ticket);
             } else {
                 log.warn("Нет обработчика для callback: {}", ctx.getAction());
             }
         }
     }
 
-    /**
-     * Проверяет, содержит ли сообщение медиа или другие особые элементы.
-     *
-     * @param ctx контекст сообщения
-     * @return true, если есть медиа или другие элементы
-     */
-    private boolean hasMedia(MessageContext ctx) {
-        return ctx.getMessage().hasAudio() || ctx.getMessage().hasDocument() || ctx.getMessage().hasPhoto()
-                || ctx.getMessage().hasText() || ctx.getMessage().hasAnimation() || ctx.getMessage().hasDice()
-                || ctx.getMessage().hasVideo() || ctx.getMessage().hasVoice() || ctx.getMessage().hasLocation()
-                || ctx.getMessage().hasSticker();
-    }
-
     /**
      * Получает зарегистрированный {@link CommandExecutor} по типу и ключу.
      *
@@ -227,24 +447,23 @@ public class CommandManager {
 
     /**
      * Вызывает все обработчики указанного типа, подходящие по фильтрам.
+     * Подходящие обработчики берутся из таблицы по маске содержимого, без перебора фильтров.
      *
-     * @param type тип обработчика
-     * @param ctx  контекст сообщения
+     * @param type   тип обработчика
+     * @param ctx    контекст сообщения
+     * @param ticket билет допуска обновления
      */
-    private void invokeHandlers(HandlerType type, MessageContext ctx) {
-        Map<String, CommandExecutor> map = handlersByType.get(type);
-        if (map == null) return;
+    private void invokeHandlers(HandlerType type, MessageContext ctx, AdmissionControl.Ticket ticket) {
+        CommandExecutor[][] table = dispatchTables.get(type);
+        if (table == null) return;
 
-        for (Map.Entry<String, CommandExecutor> entry : map.entrySet()) {
-            CommandExecutor executor = entry.getValue();
-            if (executor.matchesFilters(ctx)) {
-                try {
-                    executor.invoke(ctx);
-                } catch (Exception e) {
-                    log.error("Ошибка в обработчике {}: {}", entry.getKey(), e.getMessage(), e);
-                }
+        for (CommandExecutor executor : table[ctx.getContentMask() & ContentMask.FILTER_BITS]) {
+            try {
+                executor.invoke(ctx, ticket);
+            } catch (Exception e) {
+                log.error("Ошибка в обработчике {}#{}: {}", executor.getBean().getClass().getSimpleName(),
+                        executor.getMethod().getName(), e.getMessage(), e);
             }
         }
     }
 }
-
@@ -1,98 +1,304 @@
 package io.github.nyg404.ttigfaer.core.Manager;
 
-import java.util.Deque;
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Enum.LimitScope;
+import io.github.nyg404.ttigfaer.core.Enum.OverflowPolicy;
+import io.github.nyg404.ttigfaer.core.Utils.LongLongMap;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import io.github.nyg404.ttigfaer.core.Utils.UserNotifier;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Менеджер для ограничения частоты выполнения задач (Rate Limiting) по каждому chatId.
+ * Общий для всего фреймворка менеджер ограничения частоты выполнения задач (Rate Limiting).
+ *
+ * <p>Для каждого обработчика с {@code @TimeBot} создаётся {@link Limiter} на основе GCRA
+ * (Generic Cell Rate Algorithm): на каждый ключ хранится одно число — теоретическое время
+ * следующего вызова (TAT) — в примитивной таблице {@link LongLongMap}. Это эквивалентно маркерному
+ * ведру на {@code limit} вызовов за окно, но занимает одинаковую память при любом {@code limit},
+ * а проверка разрешённого вызова ничего не выделяет.</p>
  *
- * <p>Позволяет ограничивать количество выполняемых задач в заданный временной интервал (окно).
- * Задачи ставятся в очередь и выполняются асинхронно с учётом ограничения.</p>
+ * <p>Ключ лимита определяется {@link LimitScope} (чат, пользователь, пользователь в чате или общий).
+ * Вызовы сверх лимита обрабатываются по {@link OverflowPolicy}: отложенные вызовы ставятся в очередь
+ * ключа и запускаются по одному таймеру {@link TimingWheel} на ключ с очередью. Ключи, у которых
+ * TAT уже в прошлом (лимит полностью восстановлен), периодически удаляются фоновой очисткой.
+ * Её таймер стоит, только пока есть хоть один ключ, поэтому без нагрузки колесо простаивает.</p>
  */
+@Slf4j
 public class RateLimitManager {
-    private final int limit; // Максимальное количество вызовов в окне
-    private final int windowSeconds; // Размер окна в секундах
-    private final Map<Long, Deque<Long>> userCallTimestamps = new ConcurrentHashMap<>();
-    private final Map<Long, BlockingQueue<Runnable>> taskQueues = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private final Executor asyncExecutor;
+    /** Количество независимо блокируемых сегментов в каждом ограничителе. */
+    private static final int STRIPES = 16;
+    /** Период фоновой очистки простаивающих ключей, секунды. */
+    private static final long EVICTION_INTERVAL_SECONDS = 60;
+
+    private final TimingWheel timingWheel;
+    private final UserNotifier userNotifier;
+    private final List<Limiter> limiters = new CopyOnWriteArrayList<>();
+    /** Поставлен ли таймер очистки. */
+    private final AtomicBoolean evictionArmed = new AtomicBoolean();
+
+    /**
+     * @param timingWheel  общий таймер фреймворка
+     * @param userNotifier отправитель ответов для {@link OverflowPolicy#DROP_WITH_REPLY}
+     */
+    public RateLimitManager(TimingWheel timingWheel, UserNotifier userNotifier) {
+        this.timingWheel = timingWheel;
+        this.userNotifier = userNotifier;
+    }
 
     /**
-     * Конструктор менеджера ограничения частоты.
+     * Создаёт ограничитель для одного обработчика.
      *
-     * @param limit максимальное число вызовов за окно времени
+     * @param limit         максимальное число вызовов за окно
      * @param windowSeconds длительность окна в секундах
-     * @param asyncExecutor исполнитель для асинхронного выполнения задач
+     * @param overflow      политика для вызовов сверх лимита
+     * @param maxQueue      максимальная длина очереди для {@link OverflowPolicy#QUEUE}
+     * @param message       ответ пользователю для {@link OverflowPolicy#DROP_WITH_REPLY}
+     * @param scope         область действия лимита
+     * @return ограничитель с собственным состоянием по ключам
      */
-    public RateLimitManager(int limit, int windowSeconds, Executor asyncExecutor) {
-        this.limit = limit;
-        this.windowSeconds = windowSeconds;
-        this.asyncExecutor = asyncExecutor;
+    public Limiter limiter(int limit, int windowSeconds, OverflowPolicy overflow, int maxQueue,
+                           String message, LimitScope scope) {
+        Limiter limiter = new Limiter(limit, windowSeconds, overflow, maxQueue, message, scope);
+        limiters.add(limiter);
+        return limiter;
     }
 
     /**
-     * Добавляет задачу в очередь на выполнение с учётом ограничения частоты для данного chatId.
+     * Удаляет простаивающие ключи во всех ограничителях.
      *
-     * @param chatId идентификатор чата, для которого применяется ограничение
-     * @param task задача для выполнения
+     * @return количество удалённых ключей
      */
-    public void submit(long chatId, Runnable task) {
-        taskQueues.computeIfAbsent(chatId, k -> new LinkedBlockingQueue<>());
-        BlockingQueue<Runnable> queue = taskQueues.get(chatId);
-
-        synchronized (queue) {
-            queue.offer(task);
-            processQueue(chatId, queue);
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Limiter limiter : limiters) {
+            evicted += limiter.evictIdle(now);
         }
+        return evicted;
     }
 
     /**
-     * Обрабатывает очередь задач для chatId, выполняя задачи, если ограничение не превышено.
-     * Если лимит достигнут, планирует повторную попытку через необходимую задержку.
-     *
-     * @param chatId идентификатор чата
-     * @param queue очередь задач для данного chatId
+     * Ставит таймер очистки, если он ещё не стоит. Вызывается при записи ключа.
      */
-    private void processQueue(long chatId, BlockingQueue<Runnable> queue) {
-        Deque<Long> calls = userCallTimestamps.computeIfAbsent(chatId, k -> new ConcurrentLinkedDeque<>());
-        long now = System.currentTimeMillis();
-        long cutoff = now - windowSeconds * 1000L;
-
-        synchronized (calls) {
-            // Удаляем устаревшие отметки времени (вне окна)
-            while (!calls.isEmpty() && calls.peekFirst() < cutoff) {
-                calls.pollFirst();
+    private void armEviction() {
+        if (evictionArmed.get() || !evictionArmed.compareAndSet(false, true)) return;
+        timingWheel.schedule(this::onEviction, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void onEviction() {
+        try {
+            int evicted = evictIdle();
+            if (evicted > 0) {
+                log.debug("Очистка лимитов: удалено {} простаивающих ключей", evicted);
+            }
+        } finally {
+            // Сначала снимаем отметку: ключ, записанный после проверки ниже, сам поставит таймер
+            evictionArmed.set(false);
+            if (limiters.stream().anyMatch(limiter -> limiter.activeChats() > 0)) {
+                armEviction();
             }
+        }
+    }
+
+    /**
+     * Ограничитель частоты одного обработчика.
+     */
+    public final class Limiter {
+        /** Интервал между вызовами при равномерной нагрузке, нс. */
+        private final long interval;
+        /** Допустимое опережение TAT: позволяет выполнить {@code limit} вызовов подряд. */
+        private final long tolerance;
+        private final OverflowPolicy overflow;
+        private final int maxQueue;
+        private final String message;
+        private final LimitScope scope;
+        private final Stripe[] stripes = new Stripe[STRIPES];
 
-            if (calls.size() >= limit) {
-                // Лимит достигнут — планируем запуск после окончания окна
-                long oldestCallTimestamp = calls.peekFirst();
-                long waitTimeMillis = (oldestCallTimestamp + windowSeconds * 1000L) - now;
-                if (waitTimeMillis < 0) waitTimeMillis = 0;
+        private Limiter(int limit, int windowSeconds, OverflowPolicy overflow, int maxQueue,
+                        String message, LimitScope scope) {
+            this.overflow = overflow;
+            this.maxQueue = overflow == OverflowPolicy.COALESCE ? 1 : Math.max(maxQueue, 1);
+            this.message = message;
+            this.scope = scope;
+            this.interval = Math.max(1, TimeUnit.SECONDS.toNanos(Math.max(windowSeconds, 1)) / limit);
+            this.tolerance = interval * (limit - 1);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
 
-                scheduler.schedule(() -> {
-                    synchronized (queue) {
-                        processQueue(chatId, queue);
+        /**
+         * Пытается получить разрешение на вызов.
+         *
+         * <p>Если лимит не исчерпан и очередь ключа пуста, возвращает true — вызывающий выполняет
+         * задачу сам. Иначе вызов обрабатывается по {@link OverflowPolicy}: {@code deferred} ставится
+         * в очередь и будет выполнен в потоке {@link TimingWheel}, когда вызов станет допустимым
+         * (поэтому он должен быть короткой передачей работы в исполнитель), либо вызов отбрасывается
+         * и выполняется {@code discard}.</p>
+         *
+         * @param ctx      контекст обновления, по которому вычисляется ключ лимита
+         * @param deferred задача на случай, если вызов придётся отложить
+         * @param discard  действие на случай, если вызов отброшен (сразу или вытеснен из очереди)
+         * @return true, если вызов разрешён сейчас
+         */
+        public boolean acquire(MessageContext ctx, Runnable deferred, Runnable discard) {
+            long key = key(ctx);
+            Stripe stripe = stripe(key);
+            Runnable dropped = null;
+            boolean reply = false;
+            synchronized (stripe) {
+                ArrayDeque<Pending> queue = stripe.queued.isEmpty() ? null : stripe.queued.get(key);
+                if (queue == null) {
+                    long wait = tryAcquire(stripe, key, System.nanoTime());
+                    if (wait == 0) {
+                        return true;
+                    }
+                    if (overflow == OverflowPolicy.QUEUE || overflow == OverflowPolicy.COALESCE) {
+                        queue = new ArrayDeque<>();
+                        queue.addLast(new Pending(deferred, discard));
+                        stripe.queued.put(key, queue);
+                        schedule(stripe, key, wait);
+                        return false;
                     }
-                }, waitTimeMillis, TimeUnit.MILLISECONDS);
-                return;
+                    dropped = discard;
+                    reply = overflow == OverflowPolicy.DROP_WITH_REPLY;
+                } else if (overflow == OverflowPolicy.COALESCE) {
+                    dropped = queue.pollFirst().discard;
+                    queue.addLast(new Pending(deferred, discard));
+                } else if (queue.size() < maxQueue) {
+                    queue.addLast(new Pending(deferred, discard));
+                } else {
+                    dropped = discard;
+                }
+            }
+            // Вне блокировки: отбрасывание и ответ могут быть небыстрыми
+            runSafely(dropped, key);
+            if (reply) {
+                userNotifier.reply(ctx, message);
             }
+            return false;
+        }
 
-            // Лимит не превышен — выполняем следующую задачу
-            Runnable nextTask = queue.poll();
-            if (nextTask != null) {
-                calls.addLast(now);
+        /**
+         * @return количество ключей, для которых хранится состояние
+         */
+        public int activeChats() {
+            int total = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    total += stripe.tat.size();
+                }
+            }
+            return total;
+        }
 
-                asyncExecutor.execute(nextTask);
+        /**
+         * GCRA: разрешает вызов и сдвигает TAT либо возвращает время ожидания.
+         * Вызывается под монитором сегмента.
+         *
+         * @return 0, если вызов разрешён, иначе наносекунды до разрешения
+         */
+        private long tryAcquire(Stripe stripe, long key, long now) {
+            long tat = stripe.tat.get(key, now);
+            if (tat - now < 0) tat = now;
+            long wait = tat - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            stripe.tat.put(key, tat + interval);
+            armEviction();
+            return 0;
+        }
 
-                // Планируем обработку очереди через небольшую задержку (100 мс)
-                scheduler.schedule(() -> {
-                    synchronized (queue) {
-                        processQueue(chatId, queue);
+        private void onTimer(Stripe stripe, long key) {
+            synchronized (stripe) {
+                ArrayDeque<Pending> queue = stripe.queued.get(key);
+                if (queue == null) return;
+                while (!queue.isEmpty()) {
+                    long wait = tryAcquire(stripe, key, System.nanoTime());
+                    if (wait > 0) {
+                        schedule(stripe, key, wait);
+                        return;
                     }
-                }, 100, TimeUnit.MILLISECONDS);
+                    runSafely(queue.pollFirst().task, key);
+                }
+                stripe.queued.remove(key);
+            }
+        }
+
+        /**
+         * Ключ лимита для обновления согласно {@link LimitScope}.
+         */
+        private long key(MessageContext ctx) {
+            long chatId = ctx.getChatId() != null ? ctx.getChatId() : 0L;
+            long userId = ctx.getUserId() != null ? ctx.getUserId() : 0L;
+            long key = switch (scope) {
+                case CHAT -> chatId;
+                case USER -> userId;
+                // Разные пользователи одного чата дают разные ключи
+                case USER_IN_CHAT -> (chatId * 0x9E3779B97F4A7C15L) ^ userId;
+                case GLOBAL -> 0L;
+            };
+            return key == Long.MIN_VALUE ? Long.MAX_VALUE : key;
+        }
+
+        private void schedule(Stripe stripe, long key, long waitNanos) {
+            timingWheel.schedule(() -> onTimer(stripe, key), waitNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private int evictIdle(long now) {
+            int evicted = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    // TAT в прошлом — лимит полностью восстановлен, ключ не отличается от отсутствующего
+                    evicted += stripe.tat.removeIf((key, tat) -> tat - now <= 0);
+                }
             }
+            return evicted;
+        }
+
+        private Stripe stripe(long key) {
+            return stripes[(int) (key ^ (key >>> 32)) & (STRIPES - 1)];
+        }
+    }
+
+    private static void runSafely(Runnable task, long key) {
+        if (task == null) return;
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Ошибка при обработке вызова сверх лимита (ключ {})", key, e);
+        }
+    }
+
+    /**
+     * Сегмент ограничителя. Все поля защищены монитором объекта.
+     */
+    private static final class Stripe {
+        /** TAT по ключу лимита. */
+        private final LongLongMap tat = new LongLongMap();
+        /** Очереди отложенных вызовов; существуют только пока в них есть задачи. */
+        private final Map<Long, ArrayDeque<Pending>> queued = new HashMap<>();
+    }
+
+    /**
+     * Отложенный вызов и действие на случай его вытеснения.
+     */
+    private static final class Pending {
+        private final Runnable task;
+        private final Runnable discard;
+
+        private Pending(Runnable task, Runnable discard) {
+            this.task = task;
+            this.discard = discard;
         }
     }
 }
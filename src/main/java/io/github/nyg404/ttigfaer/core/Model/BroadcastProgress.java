@@ -0,0 +1,40 @@
+package io.github.nyg404.ttigfaer.core.Model;
+
+import io.github.nyg404.ttigfaer.core.Enum.BroadcastFailure;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Состояние рассылки на момент запроса.
+ */
+@Getter
+@Builder
+public class BroadcastProgress {
+    /** Имя рассылки. */
+    private final String name;
+    /** Всего получателей или -1, если неизвестно. */
+    private final long total;
+    /** Сколько получателей обработано (с учётом прошлых запусков). */
+    private final long processed;
+    /** Сколько сообщений доставлено. */
+    private final long sent;
+    /** Недоставленные сообщения по причинам. */
+    private final Map<BroadcastFailure, Long> failures;
+    /** Средняя скорость текущего запуска, сообщений в секунду. */
+    private final double perSecond;
+    /** Оценка оставшегося времени или null, если она невозможна. */
+    private final Duration eta;
+    /** Рассылка завершена или отменена. */
+    private final boolean finished;
+
+    @Override
+    public String toString() {
+        String of = total >= 0 ? String.valueOf(total) : "?";
+        String left = eta != null ? ", осталось ~" + eta.toMinutes() + " мин" : "";
+        return String.format("%s: %d/%s, доставлено %d, ошибки %s, %.1f/с%s",
+                name, processed, of, sent, failures, perSecond, left);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.nyg404.ttigfaer.core.Model;
+
+import io.github.nyg404.ttigfaer.core.Enum.HandlerPriority;
+import io.github.nyg404.ttigfaer.core.Enum.HandlerType;
+import io.github.nyg404.ttigfaer.core.Enum.LimitScope;
+import io.github.nyg404.ttigfaer.core.Enum.OverflowPolicy;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Описание метода-обработчика: где он находится и с какими параметрами аннотаций зарегистрирован.
+ *
+ * <p>Создаётся либо сгенерированным на этапе компиляции индексом
+ * ({@link io.github.nyg404.ttigfaer.api.Interface.HandlerIndex}), либо рефлексивным сканированием.</p>
+ */
+@Data
+@Builder
+public class HandlerDescriptor {
+
+    /** Бинарное имя класса-обработчика. */
+    private String handlerClass;
+
+    /** Имя метода-обработчика. */
+    private String method;
+
+    /** Бинарные имена типов параметров метода. */
+    private String[] parameterTypes;
+
+    /** Тип обработчика из {@code @Handler}. */
+    private HandlerType type;
+
+    /** Команды из {@code @Handler#commands()}. */
+    private String[] commands;
+
+    /** Ключ callback из {@code @Handler#callBack()}. */
+    private String callBack;
+
+    /** Фильтры из {@code @Handler#filters()}. */
+    private String[] filters;
+
+    /** Приоритет из {@code @Handler#priority()}. */
+    private HandlerPriority priority;
+
+    /** Есть ли у метода {@code @TAsync}. */
+    private boolean async;
+
+    /** {@code @TimeBot#limit()} или 0. */
+    private int limit;
+
+    /** {@code @TimeBot#limitWindows()} или 0. */
+    private int limitWindows;
+
+    /** {@code @TimeBot#delay()} или 0. */
+    private int delay;
+
+    /** {@code @TimeBot#supersede()} или false. */
+    private boolean supersede;
+
+    /** {@code @TimeBot#overflow()} или null, если аннотации нет. */
+    private OverflowPolicy overflow;
+
+    /** {@code @TimeBot#maxQueue()} или 0, если аннотации нет. */
+    private int maxQueue;
+
+    /** {@code @TimeBot#message()} или null, если аннотации нет. */
+    private String limitMessage;
+
+    /** {@code @TimeBot#scope()} или null, если аннотации нет. */
+    private LimitScope scope;
+}
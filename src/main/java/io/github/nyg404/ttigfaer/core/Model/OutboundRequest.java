@@ -0,0 +1,124 @@
+package io.github.nyg404.ttigfaer.core.Model;
+
+import lombok.Getter;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendAnimation;
+import org.telegram.telegrambots.meta.api.methods.send.SendAudio;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaBotMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
+import org.telegram.telegrambots.meta.api.methods.send.SendVideo;
+import org.telegram.telegrambots.meta.api.methods.send.SendVideoNote;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageMedia;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaAnimation;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaAudio;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaDocument;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaVideo;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Исходящий запрос к Telegram Bot API, проходящий через {@code OutboundPipeline}.
+ *
+ * <p>Содержит чат-адресат (для лимитов), сам метод Bot API (для журналов и метрик)
+ * и асинхронный вызов клиента, который выполняет последняя стадия конвейера.</p>
+ *
+ * @param <T> тип результата запроса
+ */
+@Getter
+public class OutboundRequest<T> {
+    /** Чат-адресат или {@code OutboundScheduler.NO_CHAT}. */
+    private final long chatId;
+    /** Метод Bot API. */
+    private final PartialBotApiMethod<?> method;
+    private final Call<T> call;
+    /**
+     * Можно ли выполнить запрос повторно. Файлы из потока читаются клиентом при каждом выполнении,
+     * поэтому повтор такого запроса отправил бы пустой файл.
+     */
+    private final boolean repeatable;
+
+    /**
+     * @param chatId чат-адресат или {@code OutboundScheduler.NO_CHAT}
+     * @param method метод Bot API
+     * @param call   асинхронный вызов клиента, например {@code () -> client.executeAsync(method)}
+     */
+    public OutboundRequest(long chatId, PartialBotApiMethod<?> method, Call<T> call) {
+        this.chatId = chatId;
+        this.method = method;
+        this.call = call;
+        this.repeatable = isRepeatable(method);
+    }
+
+    /**
+     * @return имя метода Bot API, например {@code sendMessage}
+     */
+    public String getMethodName() {
+        return method.getMethod();
+    }
+
+    /**
+     * Выполняет вызов клиента. Исключение при подготовке запроса возвращается как завершённый с ошибкой результат.
+     *
+     * @return результат запроса
+     */
+    public CompletableFuture<T> start() {
+        try {
+            return call.call();
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @param method метод Bot API
+     * @return в запросе нет файлов, загружаемых из потока
+     */
+    private static boolean isRepeatable(PartialBotApiMethod<?> method) {
+        if (method instanceof SendMediaBotMethod<?> send) {
+            InputFile thumbnail = switch (send) {
+                case SendVideo video -> video.getThumbnail();
+                case SendAudio audio -> audio.getThumbnail();
+                case SendDocument document -> document.getThumbnail();
+                case SendAnimation animation -> animation.getThumbnail();
+                case SendVideoNote videoNote -> videoNote.getThumbnail();
+                default -> null;
+            };
+            return !isStream(send.getFile()) && !isStream(thumbnail);
+        }
+        if (method instanceof SendMediaGroup group) {
+            return group.getMedias() == null || group.getMedias().stream().allMatch(OutboundRequest::isRepeatable);
+        }
+        if (method instanceof EditMessageMedia edit) {
+            return edit.getMedia() == null || isRepeatable(edit.getMedia());
+        }
+        return true;
+    }
+
+    private static boolean isRepeatable(InputMedia media) {
+        if (media.isNewMedia() && media.getNewMediaFile() == null) return false;
+        InputFile thumbnail = switch (media) {
+            case InputMediaVideo video -> video.getThumbnail();
+            case InputMediaAudio audio -> audio.getThumbnail();
+            case InputMediaDocument document -> document.getThumbnail();
+            case InputMediaAnimation animation -> animation.getThumbnail();
+            default -> null;
+        };
+        return !isStream(thumbnail);
+    }
+
+    private static boolean isStream(InputFile file) {
+        return file != null && file.isNew() && file.getNewMediaFile() == null;
+    }
+
+    /**
+     * Асинхронный вызов {@code TelegramClient}.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        CompletableFuture<T> call() throws TelegramApiException;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.nyg404.ttigfaer.core.Properties;
 
+import io.github.nyg404.ttigfaer.core.Enum.AsyncMode;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -13,19 +14,29 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class AsyncProperties {
 
     /**
-     * Минимальное количество потоков в пуле.
+     * Режим исполнителя: пул потоков или виртуальные потоки.
+     */
+    @NotNull(message = "Режим исполнителя не может быть пустым.")
+    private AsyncMode mode = AsyncMode.POOL;
+
+    /**
+     * Минимальное количество потоков в пуле. Столько же вызовов обработчиков выполняется одновременно:
+     * остальные ждут в очередях приоритетов, а не в очереди пула, чтобы не перемешивать приоритеты.
      */
     @Min(value = 1, message = "Минимальное количество пулов равняется 1")
     private int corePoolSize = 4;
 
     /**
-     * Максимальное количество потоков в пуле.
+     * Максимальное количество потоков в пуле. На вызовы обработчиков не влияет (см. {@link #corePoolSize}):
+     * потоки сверх {@code core-pool-size} создаются только для прочих задач {@code asyncExecutor}
+     * (модерация, подготовка файлов), когда заполнена очередь пула.
      */
     @Min(value = 1, message = "Максимально минимальное общее количество пулов равняется 1")
     private int maxPoolSize = 10;
 
     /**
-     * Вместимость очереди задач.
+     * Вместимость очереди задач пула. Вызовы обработчиков ждут в очередях приоритетов
+     * ({@link #priorityQueueCapacity}), а в этой очереди — только прочие задачи {@code asyncExecutor}.
      */
     private int queueCapacity = 50;
 
@@ -34,4 +45,24 @@ public class AsyncProperties {
      */
     @NotNull(message = "Префикс не может быть пустым.")
     private String threadNamePrefix = "Async-";
+
+    /**
+     * Максимальное количество одновременно выполняемых задач в режиме {@link AsyncMode#VIRTUAL}.
+     */
+    @Min(value = 1, message = "Минимальное количество одновременных задач равняется 1")
+    private int maxConcurrency = 256;
+
+    /**
+     * Время ожидания (мс), после которого задача обработчика с низким приоритетом
+     * выполняется вне очереди, чтобы не голодать.
+     */
+    @Min(value = 1, message = "Время ожидания должно быть положительным")
+    private long priorityAgingMillis = 1000;
+
+    /**
+     * Сколько вызовов обработчиков может ждать в очереди одного приоритета.
+     * Вызовы сверх этого отклоняются, а их обновления освобождают место в очереди допуска.
+     */
+    @Min(value = 1, message = "Вместимость очереди приоритета должна быть не меньше 1")
+    private int priorityQueueCapacity = 10_000;
 }
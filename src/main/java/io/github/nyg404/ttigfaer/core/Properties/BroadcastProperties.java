@@ -0,0 +1,40 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки массовых рассылок ({@code BroadcastManager}), загружаемые из {@code ttigfaer.broadcast.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.broadcast")
+public class BroadcastProperties {
+
+    /**
+     * Скорость рассылки, сообщений в секунду. Должна быть ниже общего лимита
+     * {@code ttigfaer.outbound.global-per-second}, чтобы ответы пользователям не ждали рассылку.
+     */
+    @Min(value = 1, message = "Скорость рассылки должна быть не меньше 1")
+    private int perSecond = 25;
+
+    /**
+     * Сколько сообщений рассылки может одновременно ожидать ответа Telegram.
+     * Ограничивает память и число сообщений, которые будут отправлены повторно после сбоя.
+     */
+    @Min(value = 1, message = "Окно рассылки должно быть не меньше 1")
+    private int maxInFlight = 64;
+
+    /**
+     * Как часто сохранять прогресс рассылки на диск, секунды.
+     */
+    @Min(value = 1, message = "Интервал сохранения должен быть не меньше 1 секунды")
+    private int checkpointIntervalSeconds = 5;
+
+    /**
+     * Каталог для файлов прогресса ({@code <имя>.checkpoint}) и недоставленных получателей ({@code <имя>.failed}).
+     */
+    @NotNull(message = "Каталог рассылок не может быть пустым.")
+    private String directory = "broadcasts";
+}
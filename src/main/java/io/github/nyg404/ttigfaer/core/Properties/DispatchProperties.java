@@ -0,0 +1,54 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import io.github.nyg404.ttigfaer.core.Enum.DispatchMode;
+import io.github.nyg404.ttigfaer.core.Enum.OverloadPolicy;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки диспетчеризации обновлений, загружаемые из {@code ttigfaer.dispatch.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.dispatch")
+public class DispatchProperties {
+
+    /**
+     * Режим диспетчеризации обновлений.
+     */
+    @NotNull(message = "Режим диспетчеризации не может быть пустым.")
+    private DispatchMode mode = DispatchMode.SINGLE_THREAD;
+
+    /**
+     * Количество линий (потоков) для режима {@link DispatchMode#CHAT_ORDERED}.
+     * 0 — по количеству ядер процессора.
+     */
+    @Min(value = 0, message = "Количество линий не может быть отрицательным")
+    private int lanes = 0;
+
+    /**
+     * Префикс имен потоков линий.
+     */
+    @NotNull(message = "Префикс не может быть пустым.")
+    private String threadNamePrefix = "Lane-";
+
+    /**
+     * Сколько обновлений может одновременно находиться в обработке (в очередях чатов,
+     * в обработчиках, в том числе {@code @TAsync}). 0 — без ограничения.
+     */
+    @Min(value = 0, message = "Ёмкость не может быть отрицательной")
+    private int capacity = 1000;
+
+    /**
+     * Что делать с обновлением, когда ёмкость исчерпана.
+     */
+    @NotNull(message = "Политика перегрузки не может быть пустой.")
+    private OverloadPolicy overloadPolicy = OverloadPolicy.DROP_OLDEST_CHATTER;
+
+    /**
+     * Ответ пользователю для политики {@link OverloadPolicy#REPLY_BUSY}.
+     */
+    @NotNull(message = "Сообщение о занятости не может быть пустым.")
+    private String busyMessage = "Бот перегружен, попробуйте позже.";
+}
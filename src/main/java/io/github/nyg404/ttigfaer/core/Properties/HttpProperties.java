@@ -0,0 +1,65 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import io.github.nyg404.ttigfaer.core.Enum.HttpProtocol;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки HTTP-клиента Telegram, загружаемые из {@code ttigfaer.http.*}.
+ * По умолчанию OkHttp выполняет не больше 5 запросов к одному хосту — меньше, чем позволяют лимиты Telegram.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.http")
+public class HttpProperties {
+
+    /**
+     * Наибольшее количество одновременных запросов клиента.
+     */
+    @Min(value = 1, message = "Количество запросов должно быть не меньше 1")
+    private int maxRequests = 64;
+
+    /**
+     * Наибольшее количество одновременных запросов к одному хосту ({@code api.telegram.org}).
+     * Должно быть не меньше {@code ttigfaer.outbound.concurrency}.
+     */
+    @Min(value = 1, message = "Количество запросов к хосту должно быть не меньше 1")
+    private int maxRequestsPerHost = 64;
+
+    /**
+     * Сколько простаивающих соединений держать открытыми.
+     */
+    @Min(value = 0, message = "Размер пула не может быть отрицательным")
+    private int maxIdleConnections = 16;
+
+    /**
+     * Через сколько секунд простоя соединение закрывается.
+     */
+    @Min(value = 1, message = "Время жизни соединения должно быть не меньше 1 секунды")
+    private long keepAliveSeconds = 300;
+
+    /**
+     * Таймаут установки соединения, мс.
+     */
+    @Min(value = 1, message = "Таймаут должен быть не меньше 1 мс")
+    private long connectTimeoutMillis = 10_000;
+
+    /**
+     * Таймаут чтения ответа, мс.
+     */
+    @Min(value = 1, message = "Таймаут должен быть не меньше 1 мс")
+    private long readTimeoutMillis = 30_000;
+
+    /**
+     * Таймаут отправки запроса (загрузки файлов), мс.
+     */
+    @Min(value = 1, message = "Таймаут должен быть не меньше 1 мс")
+    private long writeTimeoutMillis = 60_000;
+
+    /**
+     * Протокол соединений.
+     */
+    @NotNull(message = "Протокол не может быть пустым.")
+    private HttpProtocol protocol = HttpProtocol.HTTP_2;
+}
@@ -0,0 +1,38 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки журнала исходящих запросов ({@code OutboundJournal}), загружаемые из {@code ttigfaer.journal.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.journal")
+public class JournalProperties {
+
+    /**
+     * Записывать исходящие запросы в журнал и повторять неподтверждённые после перезапуска.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог сегментов журнала.
+     */
+    @NotNull(message = "Каталог журнала не может быть пустым.")
+    private String directory = "journal";
+
+    /**
+     * Размер сегмента журнала, байт. Заполненный сегмент заменяется новым, в который переносятся
+     * только неподтверждённые запросы.
+     */
+    @Min(value = 65536, message = "Сегмент журнала должен быть не меньше 64 КБ")
+    private int segmentBytes = 16 * 1024 * 1024;
+
+    /**
+     * Запросы старше этого срока после перезапуска не повторяются, минут.
+     */
+    @Min(value = 1, message = "Срок повтора должен быть не меньше 1 минуты")
+    private long replayMaxAgeMinutes = 60;
+}
@@ -0,0 +1,49 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки кэша загруженных файлов ({@code MediaFileCache}), загружаемые из {@code ttigfaer.media-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.media-cache")
+public class MediaCacheProperties {
+
+    /**
+     * Подменять повторно отправляемые файлы на {@code file_id} первой загрузки.
+     * Выключено по умолчанию: кэш пишет файл {@link #file} в рабочий каталог приложения.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Файл, в котором кэш хранится между перезапусками.
+     */
+    @NotNull(message = "Файл кэша не может быть пустым.")
+    private String file = "media-cache.tsv";
+
+    /**
+     * Сколько файлов помнить. При переполнении забываются давно не использованные.
+     */
+    @Min(value = 1, message = "Размер кэша должен быть не меньше 1")
+    private int maxEntries = 10_000;
+
+    /**
+     * Наибольший размер файла из потока, который хешируется при копировании во временный файл, байт.
+     * Потоки больше отправляются как есть, без кэширования.
+     */
+    @Min(value = 0, message = "Размер буфера не может быть отрицательным")
+    private int maxStreamBytes = 20 * 1024 * 1024;
+
+    /**
+     * Каталог статических файлов, которые загружаются при старте, чтобы первая отправка уже шла по {@code file_id}.
+     */
+    private String preloadDirectory;
+
+    /**
+     * Чат (например, служебный канал), в который загружаются файлы из {@link #preloadDirectory}.
+     */
+    private long preloadChatId;
+}
@@ -0,0 +1,81 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки исходящих запросов к Telegram, загружаемые из {@code ttigfaer.outbound.*}.
+ * Значения по умолчанию соответствуют лимитам Bot API.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.outbound")
+public class OutboundProperties {
+
+    /**
+     * Соблюдать лимиты Telegram. Если false, запросы выполняются без ожидания.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Общий лимит запросов бота в секунду.
+     */
+    @Min(value = 1, message = "Общий лимит должен быть не меньше 1")
+    private int globalPerSecond = 30;
+
+    /**
+     * Лимит сообщений в секунду для одного личного чата.
+     */
+    @Min(value = 1, message = "Лимит личного чата должен быть не меньше 1")
+    private int privatePerSecond = 1;
+
+    /**
+     * Лимит сообщений в минуту для одной группы или канала.
+     */
+    @Min(value = 1, message = "Лимит группы должен быть не меньше 1")
+    private int groupPerMinute = 20;
+
+    /**
+     * Сколько раз повторять запрос, получивший 429 (flood control), прежде чем вернуть ошибку.
+     */
+    @Min(value = 0, message = "Количество повторов не может быть отрицательным")
+    private int maxRetries = 5;
+
+    /**
+     * Сколько раз повторять запрос после временной ошибки сети или шлюза (502/503/504).
+     */
+    @Min(value = 0, message = "Количество повторов не может быть отрицательным")
+    private int transientRetries = 2;
+
+    /**
+     * Пауза перед первым повтором временной ошибки, мс. Каждый следующий повтор ждёт вдвое дольше.
+     */
+    @Min(value = 1, message = "Пауза повтора должна быть не меньше 1 мс")
+    private long retryBackoffMillis = 500;
+
+    /**
+     * Минимальный интервал между правками одного сообщения через {@code EditCoalescer}, мс.
+     * Промежуточные правки за это время объединяются в одну.
+     */
+    @Min(value = 0, message = "Интервал правок не может быть отрицательным")
+    private long editIntervalMillis = 1000;
+
+    /**
+     * Сколько {@code DeleteBatcher} копит удаления одного чата перед отправкой одним запросом, мс.
+     */
+    @Min(value = 0, message = "Окно удалений не может быть отрицательным")
+    private long deleteWindowMillis = 200;
+
+    /**
+     * Сколько запросов в один чат может одновременно ожидать ответа Telegram.
+     * 1 — сообщения в чат приходят строго в порядке отправки; больше — быстрее, но без гарантии порядка.
+     */
+    @Min(value = 1, message = "Окно чата должно быть не меньше 1")
+    private int chatInFlight = 1;
+
+    /**
+     * Сколько запросов может одновременно ожидать ответа Telegram.
+     */
+    @Min(value = 1, message = "Количество одновременных запросов должно быть не меньше 1")
+    private int concurrency = 8;
+}
@@ -0,0 +1,78 @@
+package io.github.nyg404.ttigfaer.core.Properties;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки приёма обновлений через webhook, загружаемые из {@code ttigfaer.webhook.*}.
+ * Если webhook выключен, бот получает обновления через long polling.
+ */
+@Data
+@ConfigurationProperties(prefix = "ttigfaer.webhook")
+public class WebhookProperties {
+
+    /**
+     * Включает webhook вместо long polling.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Публичный адрес, по которому Telegram доступен бот (например, {@code https://bot.example.com}).
+     * К нему добавляется {@link #path}. Если не указан, webhook в Telegram не регистрируется —
+     * это удобно для локальной отладки и при регистрации вручную.
+     */
+    private String url;
+
+    /**
+     * Путь, на который принимаются обновления.
+     */
+    @NotNull(message = "Путь webhook не может быть пустым.")
+    private String path = "/telegram";
+
+    /**
+     * Адрес, на котором слушает встроенный HTTP-сервер.
+     */
+    @NotNull(message = "Адрес webhook не может быть пустым.")
+    private String host = "0.0.0.0";
+
+    /**
+     * Порт встроенного HTTP-сервера.
+     */
+    @Min(value = 1, message = "Порт должен быть от 1 до 65535")
+    @Max(value = 65535, message = "Порт должен быть от 1 до 65535")
+    private int port = 8443;
+
+    /**
+     * Секрет, который Telegram передаёт в заголовке {@code X-Telegram-Bot-Api-Secret-Token}.
+     * Запросы без него отклоняются. Пустое значение отключает проверку.
+     */
+    private String secretToken;
+
+    /**
+     * Количество потоков, принимающих HTTP-запросы.
+     */
+    @Min(value = 1, message = "Минимальное количество потоков равняется 1")
+    private int threads = 4;
+
+    /**
+     * Сколько принятых обновлений может ждать передачи боту. Сверх этого сервер отвечает {@code 503},
+     * и Telegram повторяет доставку позже.
+     */
+    @Min(value = 1, message = "Размер очереди webhook должен быть не меньше 1")
+    private int queueCapacity = 1_000;
+
+    /**
+     * Максимальное количество одновременных соединений Telegram (1–100).
+     */
+    @Min(value = 1, message = "Количество соединений должно быть от 1 до 100")
+    @Max(value = 100, message = "Количество соединений должно быть от 1 до 100")
+    private int maxConnections = 40;
+
+    /**
+     * Сбросить накопившиеся обновления при регистрации webhook.
+     */
+    private boolean dropPendingUpdates = false;
+}
@@ -1,16 +1,23 @@
 package io.github.nyg404.ttigfaer.core;
 
+import io.github.nyg404.ttigfaer.core.Properties.WebhookProperties;
 import io.github.nyg404.ttigfaer.core.config.BotSettings;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.telegram.telegrambots.longpolling.TelegramBotsLongPollingApplication;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.IOException;
 /**
  * Конфигурация Spring для регистрации кастомного Telegram бота.
  * Создаёт и регистрирует бота в TelegramBotsLongPollingApplication,
  * используя настройки из BotSettings и бин CustomBot.
+ * При {@code ttigfaer.webhook.enabled=true} вместо long polling запускается {@link WebhookServer}.
  */
 @Slf4j
 @Configuration
@@ -25,6 +32,7 @@ public class RegisterCustomBot {
      * @throws TelegramApiException если произошла ошибка при регистрации бота
      */
     @Bean
+    @ConditionalOnProperty(prefix = "ttigfaer.webhook", name = "enabled", havingValue = "false", matchIfMissing = true)
     public TelegramBotsLongPollingApplication application(
             BotSettings botSettings,
             ObjectProvider<CustomBot> bots
@@ -39,4 +47,46 @@ public class RegisterCustomBot {
         }
         return application;
     }
+
+    /**
+     * Запускает встроенный HTTP-сервер для приёма обновлений и, если указан
+     * {@code ttigfaer.webhook.url}, регистрирует webhook в Telegram.
+     *
+     * @param webhookProperties настройки webhook
+     * @param telegramClient    клиент Telegram API для вызова {@code setWebhook}
+     * @param bots              провайдер кастомных ботов (CustomBot)
+     * @return запущенный {@link WebhookServer} или null, если бот не найден
+     * @throws IOException          если не удалось открыть порт
+     * @throws TelegramApiException если Telegram отклонил регистрацию webhook
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "ttigfaer.webhook", name = "enabled", havingValue = "true")
+    public WebhookServer webhookServer(
+            WebhookProperties webhookProperties,
+            TelegramClient telegramClient,
+            ObjectProvider<CustomBot> bots
+    ) throws IOException, TelegramApiException {
+        CustomBot customBot = bots.getIfAvailable();
+        if (customBot == null) {
+            log.error("Бот не был запущен, не найден класс CustomBot");
+            return null;
+        }
+        WebhookServer server = new WebhookServer(webhookProperties, customBot);
+        server.start();
+
+        String url = webhookProperties.getUrl();
+        if (url != null && !url.isBlank()) {
+            String fullUrl = url.replaceAll("/+$", "") + webhookProperties.getPath();
+            telegramClient.execute(SetWebhook.builder()
+                    .url(fullUrl)
+                    .secretToken(webhookProperties.getSecretToken())
+                    .maxConnections(webhookProperties.getMaxConnections())
+                    .dropPendingUpdates(webhookProperties.isDropPendingUpdates())
+                    .build());
+            log.info("Webhook зарегистрирован: {}", fullUrl);
+        } else {
+            log.info("ttigfaer.webhook.url не указан, webhook в Telegram не регистрируется");
+        }
+        return server;
+    }
 }
@@ -0,0 +1,233 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Enum.OverloadPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Стадия допуска обновлений перед диспетчеризацией.
+ *
+ * <p>Каждое допущенное обновление получает {@link Ticket}, который удерживается, пока обновление
+ * ждёт в очереди чата и пока выполняются его обработчики (включая {@code @TAsync}).
+ * Число удерживаемых билетов — глубина очереди; она ограничена ёмкостью, а при переполнении
+ * применяется {@link OverloadPolicy}.</p>
+ */
+@Slf4j
+public class AdmissionControl {
+
+    private static final int PENDING = 0;
+    private static final int STARTED = 1;
+    private static final int SHED = 2;
+
+    private final int capacity;
+    private final OverloadPolicy policy;
+    private final Consumer<MessageContext> busyReply;
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    /** Допущенные, но ещё не начатые обычные сообщения в порядке поступления. */
+    private final Deque<Ticket> chatter = new ArrayDeque<>();
+
+    /**
+     * @param capacity  ёмкость, 0 — без ограничения
+     * @param policy    политика при переполнении
+     * @param busyReply ответ о занятости для {@link OverloadPolicy#REPLY_BUSY}
+     */
+    public AdmissionControl(int capacity, OverloadPolicy policy, Consumer<MessageContext> busyReply) {
+        this.capacity = capacity;
+        this.policy = policy;
+        this.busyReply = busyReply;
+    }
+
+    /**
+     * Пытается допустить обновление к обработке.
+     *
+     * @param ctx контекст обновления
+     * @return билет или null, если обновление отброшено
+     */
+    public Ticket admit(MessageContext ctx) {
+        if (capacity <= 0) {
+            return Ticket.UNBOUNDED;
+        }
+        boolean priority = ctx.isCallback() || !ctx.getCommand().isEmpty();
+        if (tryAcquire()) {
+            return track(new Ticket(this), priority);
+        }
+
+        switch (policy) {
+            case DROP_OLDEST_CHATTER -> {
+                if (evictOldestChatter() || priority) {
+                    depth.incrementAndGet();
+                    return track(new Ticket(this), priority);
+                }
+            }
+            case BLOCK -> {
+                if (awaitCapacity()) {
+                    return track(new Ticket(this), priority);
+                }
+            }
+            case REPLY_BUSY -> {
+                if (priority) {
+                    try {
+                        busyReply.accept(ctx);
+                    } catch (Exception e) {
+                        log.warn("Не удалось отправить ответ о занятости в чат {}", ctx.getChatId(), e);
+                    }
+                }
+            }
+        }
+        shed.increment();
+        return null;
+    }
+
+    /**
+     * @return true, если ёмкость исчерпана и следующее обновление попадёт под политику перегрузки
+     */
+    public boolean isFull() {
+        return capacity > 0 && depth.get() >= capacity;
+    }
+
+    /**
+     * @return текущее число обновлений в обработке
+     */
+    public int depth() {
+        return depth.get();
+    }
+
+    /**
+     * @return число отброшенных обновлений (не допущенных или вытесненных)
+     */
+    public long shedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * @return число асинхронных вызовов обработчиков, отклонённых переполненной очередью
+     * {@code PriorityExecutor} (или самим {@code asyncExecutor})
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) return false;
+        } while (!depth.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private Ticket track(Ticket ticket, boolean priority) {
+        if (!priority && policy == OverloadPolicy.DROP_OLDEST_CHATTER) {
+            synchronized (chatter) {
+                // Начатые билеты из головы больше не нужны
+                while (!chatter.isEmpty() && chatter.peekFirst().state.get() != PENDING) {
+                    chatter.pollFirst();
+                }
+                // Голова может долго ждать (её чат занят долгим обработчиком), и тогда начатые билеты
+                // за ней копятся. Ждущих билетов не больше ёмкости, поэтому очередь вдвое больше
+                // ёмкости чистится целиком — линейный проход не чаще раза на capacity билетов
+                if (chatter.size() >= 2 * capacity) {
+                    chatter.removeIf(pending -> pending.state.get() != PENDING);
+                }
+                chatter.addLast(ticket);
+            }
+        }
+        return ticket;
+    }
+
+    private boolean evictOldestChatter() {
+        synchronized (chatter) {
+            Ticket oldest;
+            while ((oldest = chatter.pollFirst()) != null) {
+                if (oldest.state.compareAndSet(PENDING, SHED)) {
+                    depth.decrementAndGet();
+                    shed.increment();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean awaitCapacity() {
+        synchronized (this) {
+            while (!tryAcquire()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void complete() {
+        depth.decrementAndGet();
+        if (policy == OverloadPolicy.BLOCK) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Билет допущенного обновления. Освобождается, когда отпущены все его ссылки:
+     * сама диспетчеризация и каждый отложенный вызов обработчика.
+     */
+    public static final class Ticket {
+        /** Билет для режима без ограничения ёмкости. */
+        static final Ticket UNBOUNDED = new Ticket(null);
+
+        private final AdmissionControl owner;
+        private final AtomicInteger refs = new AtomicInteger(1);
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Ticket(AdmissionControl owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Отмечает начало обработки.
+         *
+         * @return false, если обновление уже вытеснено и обрабатывать его не нужно
+         */
+        public boolean start() {
+            return owner == null || state.compareAndSet(PENDING, STARTED);
+        }
+
+        /**
+         * Добавляет ссылку для отложенного вызова обработчика.
+         */
+        public void retain() {
+            if (owner != null) refs.incrementAndGet();
+        }
+
+        /**
+         * Отпускает ссылку; после последней место в очереди освобождается.
+         */
+        public void release() {
+            if (owner != null && refs.decrementAndGet() == 0) {
+                owner.complete();
+            }
+        }
+
+        /**
+         * Отпускает ссылку отложенного вызова, который не был принят исполнителем.
+         */
+        public void reject() {
+            if (owner != null) owner.rejected.increment();
+            release();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель задач с очередью (mailbox) на каждый чат.
+ *
+ * <p>Задачи одного чата выполняются строго по очереди, задачи разных чатов —
+ * параллельно на общем наборе линий (потоков). Очередь чата живёт только пока в ней есть задачи.</p>
+ *
+ * <p>Если линии не заданы ({@code lanes == null}), задачи выполняются сразу в вызывающем потоке.</p>
+ */
+@Slf4j
+public class ChatMailboxExecutor {
+
+    /** Сколько задач чата выполняется подряд, прежде чем линия уступит другим чатам. */
+    private static final int DRAIN_BATCH = 32;
+
+    private final ExecutorService lanes;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * @param lanes пул линий или null для выполнения в вызывающем потоке
+     */
+    public ChatMailboxExecutor(ExecutorService lanes) {
+        this.lanes = lanes;
+    }
+
+    /**
+     * Ставит задачу в очередь чата.
+     *
+     * @param chatId ID чата
+     * @param task   задача
+     */
+    public void execute(long chatId, Runnable task) {
+        if (lanes == null) {
+            runSafely(chatId, task);
+            return;
+        }
+        mailboxes.compute(chatId, (id, box) -> {
+            if (box == null) box = new Mailbox(id);
+            box.queue.add(task);
+            box.schedule();
+            return box;
+        });
+    }
+
+    /**
+     * Ставит несколько задач в очередь чата за одно обращение к очереди.
+     *
+     * @param chatId ID чата
+     * @param tasks  задачи в порядке выполнения
+     */
+    public void executeAll(long chatId, List<Runnable> tasks) {
+        if (tasks.isEmpty()) return;
+        if (lanes == null) {
+            for (Runnable task : tasks) {
+                runSafely(chatId, task);
+            }
+            return;
+        }
+        mailboxes.compute(chatId, (id, box) -> {
+            if (box == null) box = new Mailbox(id);
+            box.queue.addAll(tasks);
+            box.schedule();
+            return box;
+        });
+    }
+
+    /**
+     * @return количество чатов, у которых есть невыполненные задачи
+     */
+    public int activeChats() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Останавливает линии, дожидаясь выполнения поставленных задач.
+     */
+    public void shutdown() {
+        if (lanes == null) return;
+        lanes.shutdown();
+        try {
+            if (!lanes.awaitTermination(30, TimeUnit.SECONDS)) {
+                lanes.shutdownNow();
+                log.warn("Принудительное завершение линий диспетчеризации");
+            }
+        } catch (InterruptedException e) {
+            lanes.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runSafely(long chatId, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Ошибка при обработке задачи чата {}", chatId, e);
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        private final long chatId;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        /** Изменяется только внутри {@code mailboxes.compute}. */
+        private boolean scheduled;
+
+        private Mailbox(long chatId) {
+            this.chatId = chatId;
+        }
+
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                lanes.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Runnable task = queue.poll();
+                if (task == null) break;
+                runSafely(chatId, task);
+            }
+            mailboxes.compute(chatId, (id, box) -> {
+                scheduled = false;
+                if (queue.isEmpty()) return null;
+                schedule();
+                return this;
+            });
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.core.Enum.MessageFilter;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+import java.util.Set;
+
+/**
+ * Классификация содержимого сообщения в битовую маску.
+ *
+ * <p>Младшие биты совпадают с {@link MessageFilter#mask()}, поэтому набор фильтров обработчика
+ * проверяется одной операцией {@code &}. Старшие биты описывают содержимое, для которого
+ * фильтров нет, но которое учитывается при выборе обработчиков {@code ON_MESSAGE}.</p>
+ */
+public final class ContentMask {
+    /** Биты, соответствующие {@link MessageFilter}. */
+    public static final int FILTER_BITS = (1 << MessageFilter.values().length) - 1;
+
+    public static final int AUDIO = 1 << 16;
+    public static final int DICE = 1 << 17;
+    public static final int LOCATION = 1 << 18;
+
+    /** Содержимое, при котором вызываются обработчики {@code ON_MESSAGE}. */
+    public static final int MEDIA = MessageFilter.Text.mask() | MessageFilter.Photo.mask() | MessageFilter.Video.mask()
+            | MessageFilter.Voice.mask() | MessageFilter.Document.mask() | MessageFilter.Animation.mask()
+            | MessageFilter.Sticker.mask() | AUDIO | DICE | LOCATION;
+
+    private ContentMask() {
+    }
+
+    /**
+     * Вычисляет маску содержимого сообщения.
+     *
+     * @param message сообщение или null
+     * @return маска содержимого, 0 для null
+     */
+    public static int of(Message message) {
+        if (message == null) return 0;
+        int mask = 0;
+        if (message.hasText()) mask |= MessageFilter.Text.mask();
+        if (message.hasPhoto()) mask |= MessageFilter.Photo.mask();
+        if (message.hasVideo()) mask |= MessageFilter.Video.mask();
+        if (message.hasVoice()) mask |= MessageFilter.Voice.mask();
+        if (message.hasDocument()) mask |= MessageFilter.Document.mask();
+        if (message.hasAnimation()) mask |= MessageFilter.Animation.mask();
+        if (message.hasSticker()) mask |= MessageFilter.Sticker.mask();
+        if (message.isGroupMessage()) mask |= MessageFilter.GroupMedia.mask();
+        if (message.hasAudio()) mask |= AUDIO;
+        if (message.hasDice()) mask |= DICE;
+        if (message.hasLocation()) mask |= LOCATION;
+        return mask;
+    }
+
+    /**
+     * Сворачивает набор фильтров в маску.
+     *
+     * @param filters фильтры обработчика
+     * @return маска фильтров, 0 если фильтров нет
+     */
+    public static int of(Set<MessageFilter> filters) {
+        int mask = 0;
+        for (MessageFilter filter : filters) {
+            mask |= filter.mask();
+        }
+        return mask;
+    }
+}
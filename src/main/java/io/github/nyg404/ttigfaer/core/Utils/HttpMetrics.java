@@ -0,0 +1,64 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Состояние общего HTTP-клиента Telegram: запросы в работе и в очереди диспетчера,
+ * соединения в пуле. Очередь диспетчера растёт, когда {@code ttigfaer.http.max-requests-per-host}
+ * меньше, чем запросов одновременно отправляет конвейер.
+ */
+public class HttpMetrics {
+    private final Dispatcher dispatcher;
+    private final ConnectionPool connectionPool;
+
+    /**
+     * @param client HTTP-клиент Telegram
+     */
+    public HttpMetrics(OkHttpClient client) {
+        this.dispatcher = client.dispatcher();
+        this.connectionPool = client.connectionPool();
+    }
+
+    /** @return выполняющихся запросов */
+    public int getRunningCalls() {
+        return dispatcher.runningCallsCount();
+    }
+
+    /** @return запросов, ожидающих в очереди диспетчера */
+    public int getQueuedCalls() {
+        return dispatcher.queuedCallsCount();
+    }
+
+    /** @return соединений в пуле */
+    public int getConnections() {
+        return connectionPool.connectionCount();
+    }
+
+    /** @return простаивающих соединений в пуле */
+    public int getIdleConnections() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * @return все показатели по именам
+     */
+    public Map<String, Integer> snapshot() {
+        Map<String, Integer> snapshot = new TreeMap<>();
+        snapshot.put("runningCalls", getRunningCalls());
+        snapshot.put("queuedCalls", getQueuedCalls());
+        snapshot.put("connections", getConnections());
+        snapshot.put("idleConnections", getIdleConnections());
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("running=%d, queued=%d, connections=%d, idle=%d",
+                getRunningCalls(), getQueuedCalls(), getConnections(), getIdleConnections());
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица {@code long -> long} с открытой адресацией (линейное пробирование) без упаковки
+ * ключей и значений. На одну запись приходится два элемента массива; операции чтения и обновления
+ * существующего ключа ничего не выделяют.
+ *
+ * <p>Не потокобезопасна — доступ синхронизирует владелец.</p>
+ */
+public final class LongLongMap {
+    /** Ключ пустой ячейки; идентификаторы Telegram не бывают равны {@link Long#MIN_VALUE}. */
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public LongLongMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @param key          ключ
+     * @param defaultValue значение, если ключа нет
+     * @return значение для ключа или {@code defaultValue}
+     */
+    public long get(long key, long defaultValue) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return defaultValue;
+        }
+    }
+
+    /**
+     * Записывает значение для ключа.
+     *
+     * @param key   ключ, не равный {@link Long#MIN_VALUE}
+     * @param value значение
+     */
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Ключ Long.MIN_VALUE не поддерживается");
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return количество записей
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет записи, подходящие под условие, и уменьшает таблицу, если она стала слишком разреженной.
+     *
+     * @param predicate условие удаления
+     * @return количество удалённых записей
+     */
+    public int removeIf(EntryPredicate predicate) {
+        int removed = 0;
+        for (int i = 0; i < keys.length; ) {
+            long k = keys[i];
+            if (k != EMPTY && predicate.test(k, values[i])) {
+                // После сдвига в ячейку i мог попасть другой ключ — проверяем её снова
+                removeAt(i);
+                removed++;
+            } else {
+                i++;
+            }
+        }
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            rehash(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(size, 1) * 4 - 1) << 1));
+        }
+        return removed;
+    }
+
+    /**
+     * Условие для {@link #removeIf(EntryPredicate)}.
+     */
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    /** Удаление со сдвигом последующих записей кластера (без маркеров удаления). */
+    private void removeAt(int slot) {
+        int gap = slot;
+        for (int i = (slot + 1) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int ideal = slot(k);
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int j = slot(k);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
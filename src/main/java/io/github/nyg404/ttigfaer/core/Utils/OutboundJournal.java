@@ -0,0 +1,370 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Стадия {@link OutboundPipeline}, записывающая исходящие запросы в журнал на диске, чтобы
+ * они не терялись при перезапуске или падении приложения.
+ *
+ * <p>Запрос дописывается в отображённый в память сегмент до отправки, а по завершении (успешном
+ * или с ошибкой) дописывается отметка о выполнении. При старте сегменты читаются, и запросы без
+ * отметки, не старше {@code ttigfaer.journal.replay-max-age-minutes}, повторяются через конвейер
+ * ({@link #replay}). Каждая запись несёт свой номер: копии одной записи повторяются один раз,
+ * а повторённый запрос не записывается в журнал заново. Доставка — «хотя бы один раз»: запрос,
+ * выполненный прямо перед падением, может уйти повторно.</p>
+ *
+ * <p>Заполненный сегмент заменяется новым, куда переносятся только неподтверждённые запросы,
+ * после чего старый удаляется — на диске остаётся один сегмент. Журналируются только методы без
+ * загрузки файлов; {@code get*} и {@code answer*} не журналируются.</p>
+ */
+@Slf4j
+public class OutboundJournal implements OutboundStage {
+    /** Порядок стадии: снаружи всех встроенных стадий, чтобы запрос попал в журнал до ожидания лимитов. */
+    public static final int ORDER = -200;
+
+    private static final byte REQUEST = 1;
+    private static final byte DONE = 2;
+    private static final String SUFFIX = ".wal";
+    /** Заголовок записи: длина и CRC32 содержимого. */
+    private static final int HEADER = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // Неподтверждённые запросы: номер — содержимое записи, для переноса в новый сегмент
+    private final Map<Long, byte[]> pending = new ConcurrentHashMap<>();
+    // Повторяемые запросы: метод — номер записи, чтобы не журналировать их заново
+    private final Map<PartialBotApiMethod<?>, Long> replaying = Collections.synchronizedMap(new IdentityHashMap<>());
+    private List<Recovered> recovered;
+    private long nextId;
+    private long segmentIndex;
+    private Path segmentPath;
+    private MappedByteBuffer segment;
+
+    /**
+     * Открывает журнал: читает сегменты, оставляет неподтверждённые запросы и начинает новый сегмент.
+     *
+     * @param directory    каталог сегментов
+     * @param segmentBytes размер сегмента, байт
+     * @param maxAge       запросы старше этого срока не повторяются
+     * @throws IOException ошибка чтения или создания сегментов
+     */
+    public OutboundJournal(Path directory, int segmentBytes, Duration maxAge) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments();
+        Map<Long, byte[]> requests = new LinkedHashMap<>();
+        Set<Long> done = new HashSet<>();
+        for (Path path : segments) {
+            read(path, requests, done);
+            segmentIndex = Math.max(segmentIndex, index(path));
+        }
+        requests.keySet().removeAll(done);
+
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        List<Recovered> alive = new ArrayList<>();
+        int stale = 0;
+        for (Map.Entry<Long, byte[]> entry : requests.entrySet()) {
+            Recovered request = Recovered.decode(entry.getKey(), entry.getValue());
+            if (request.createdAt < oldest) {
+                stale++;
+                continue;
+            }
+            alive.add(request);
+            pending.put(entry.getKey(), entry.getValue());
+        }
+        if (stale > 0) {
+            log.warn("Пропущено {} запросов из журнала старше {} мин", stale, maxAge.toMinutes());
+        }
+        alive.sort(Comparator.comparingLong(request -> request.id));
+        this.recovered = alive;
+
+        synchronized (this) {
+            rotate(0);
+        }
+        for (Path path : segments) {
+            Files.deleteIfExists(path);
+        }
+        if (!alive.isEmpty()) {
+            log.info("В журнале {} найдено {} неподтверждённых запросов", directory, alive.size());
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain) {
+        Long id = replaying.remove(request.getMethod());
+        if (id == null) {
+            id = append(request);
+        }
+        CompletableFuture<T> result = chain.proceed(request);
+        if (id != null) {
+            long recordId = id;
+            result.whenComplete((value, error) -> done(recordId));
+        }
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Повторяет неподтверждённые запросы, найденные при открытии журнала. Вызывается один раз после старта.
+     *
+     * @param pipeline конвейер исходящих запросов
+     * @param client   клиент Telegram
+     */
+    @SuppressWarnings("unchecked")
+    public void replay(OutboundPipeline pipeline, TelegramClient client) {
+        List<Recovered> requests;
+        synchronized (this) {
+            requests = recovered;
+            recovered = List.of();
+        }
+        if (requests.isEmpty()) return;
+        log.info("Повтор {} неподтверждённых запросов из журнала", requests.size());
+
+        for (Recovered request : requests) {
+            BotApiMethod<Serializable> method;
+            try {
+                Class<?> type = Class.forName(request.type);
+                if (!BotApiMethod.class.isAssignableFrom(type)) {
+                    throw new IllegalArgumentException("не метод Bot API");
+                }
+                method = (BotApiMethod<Serializable>) objectMapper.readValue(request.json, type);
+            } catch (Exception e) {
+                log.warn("Не удалось восстановить запрос {} из журнала: {}", request.type, e.getMessage());
+                done(request.id);
+                continue;
+            }
+            replaying.put(method, request.id);
+            pipeline.send(request.chatId, method, () -> client.executeAsync(method))
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.warn("Повтор {} в чат {} не удался: {}", method.getMethod(), request.chatId,
+                                    OutboundPipeline.unwrap(error).getMessage());
+                        }
+                    });
+        }
+    }
+
+    /**
+     * @return количество неподтверждённых запросов
+     */
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Сбрасывает сегмент на диск. Сегмент остаётся отображённым: отметки запросов, завершившихся
+     * во время остановки, ещё попадут в файл. Неподтверждённые запросы повторятся при следующем старте.
+     */
+    public synchronized void flush() {
+        segment.force();
+        if (!pending.isEmpty()) {
+            log.info("Журнал сброшен на диск, неподтверждённых запросов: {}", pending.size());
+        }
+    }
+
+    /** @return номер записи или null, если запрос не журналируется */
+    private Long append(OutboundRequest<?> request) {
+        PartialBotApiMethod<?> method = request.getMethod();
+        String name = method.getMethod();
+        if (!(method instanceof BotApiMethod) || name.startsWith("get") || name.startsWith("answer")) {
+            return null;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(method);
+            synchronized (this) {
+                long id = nextId++;
+                byte[] record = Recovered.encode(id, System.currentTimeMillis(), request.getChatId(),
+                        method.getClass().getName(), json);
+                write(record);
+                pending.put(id, record);
+                return id;
+            }
+        } catch (IOException e) {
+            log.warn("Запрос {} не записан в журнал: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void done(long id) {
+        if (pending.remove(id) == null) return;
+        ByteBuffer record = ByteBuffer.allocate(9).put(DONE).putLong(id);
+        synchronized (this) {
+            try {
+                write(record.array());
+            } catch (IOException e) {
+                log.warn("Отметка о выполнении не записана в журнал: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Дописывает запись в сегмент; вызывается под монитором журнала. */
+    private void write(byte[] record) throws IOException {
+        if (segment.remaining() < HEADER + record.length) {
+            segment.force();
+            rotate(record.length);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        int position = segment.position();
+        // Длина пишется последней: при падении посреди записи читатель увидит 0 и остановится
+        segment.putInt(position + 4, (int) crc.getValue());
+        segment.put(position + HEADER, record);
+        segment.putInt(position, record.length);
+        segment.position(position + HEADER + record.length);
+    }
+
+    /**
+     * Начинает новый сегмент, переносит в него неподтверждённые запросы и удаляет предыдущий.
+     * Вызывается под монитором журнала.
+     *
+     * @param reserve сколько места оставить для следующей записи, байт
+     */
+    private void rotate(int reserve) throws IOException {
+        long carried = HEADER + reserve;
+        for (byte[] record : pending.values()) {
+            carried += HEADER + record.length;
+        }
+        Path previous = segmentPath;
+        segmentIndex++;
+        segmentPath = directory.resolve(String.format("%020d%s", segmentIndex, SUFFIX));
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, carried * 2));
+        }
+        for (Map.Entry<Long, byte[]> entry : pending.entrySet()) {
+            write(entry.getValue());
+            nextId = Math.max(nextId, entry.getKey() + 1);
+        }
+        segment.force();
+        if (previous != null) {
+            Files.deleteIfExists(previous);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long index(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Читает записи сегмента до первой пустой или повреждённой. */
+    private static void read(Path path, Map<Long, byte[]> requests, Set<Long> done) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= HEADER) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) break;
+            byte[] record = new byte[length];
+            buffer.get(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Повреждённая запись в сегменте журнала {}, чтение сегмента прервано", path);
+                break;
+            }
+            long id = ByteBuffer.wrap(record, 1, 8).getLong();
+            if (record[0] == REQUEST) {
+                requests.putIfAbsent(id, record);
+            } else if (record[0] == DONE) {
+                done.add(id);
+            }
+        }
+    }
+
+    /**
+     * Запрос из журнала.
+     */
+    private static final class Recovered {
+        private final long id;
+        private final long createdAt;
+        private final long chatId;
+        private final String type;
+        private final byte[] json;
+
+        private Recovered(long id, long createdAt, long chatId, String type, byte[] json) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.chatId = chatId;
+            this.type = type;
+            this.json = json;
+        }
+
+        private static byte[] encode(long id, long createdAt, long chatId, String type, byte[] json) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length + 64);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(REQUEST);
+                out.writeLong(id);
+                out.writeLong(createdAt);
+                out.writeLong(chatId);
+                out.writeUTF(type);
+                out.write(json);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static Recovered decode(long id, byte[] record) {
+            ByteBuffer buffer = ByteBuffer.wrap(record, 9, record.length - 9);
+            long createdAt = buffer.getLong();
+            long chatId = buffer.getLong();
+            byte[] type = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(type);
+            byte[] json = new byte[buffer.remaining()];
+            buffer.get(json);
+            return new Recovered(id, createdAt, chatId, new String(type, StandardCharsets.UTF_8), json);
+        }
+    }
+}
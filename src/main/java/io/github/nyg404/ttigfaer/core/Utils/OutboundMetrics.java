@@ -0,0 +1,97 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Стадия {@link OutboundPipeline}, собирающая статистику по методам Bot API: число запросов,
+ * ошибок и время от постановки в конвейер до результата (с учётом ожидания лимитов и повторов).
+ */
+public class OutboundMetrics implements OutboundStage {
+    /** Порядок стадии: снаружи всех встроенных стадий. */
+    public static final int ORDER = -100;
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain) {
+        Counter counter = counters.computeIfAbsent(request.getMethodName(), k -> new Counter());
+        long start = System.nanoTime();
+        CompletableFuture<T> result = chain.proceed(request);
+        result.whenComplete((value, error) -> counter.record(System.nanoTime() - start, error != null));
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * @return статистика по именам методов Bot API
+     */
+    public Map<String, Stat> snapshot() {
+        Map<String, Stat> snapshot = new TreeMap<>();
+        counters.forEach((method, counter) -> snapshot.put(method, counter.stat()));
+        return snapshot;
+    }
+
+    /**
+     * Статистика одного метода на момент {@link #snapshot()}.
+     */
+    public static final class Stat {
+        private final long requests;
+        private final long failures;
+        private final long totalNanos;
+
+        private Stat(long requests, long failures, long totalNanos) {
+            this.requests = requests;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+        }
+
+        /** @return завершённых запросов */
+        public long getRequests() {
+            return requests;
+        }
+
+        /** @return запросов, завершённых с ошибкой */
+        public long getFailures() {
+            return failures;
+        }
+
+        /** @return среднее время запроса, мс */
+        public double getAverageMillis() {
+            return requests == 0 ? 0 : (double) totalNanos / requests / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d, failures=%d, avg=%.1f ms", requests, failures, getAverageMillis());
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private void record(long nanos, boolean failed) {
+            requests.increment();
+            if (failed) failures.increment();
+            totalNanos.add(nanos);
+        }
+
+        private Stat stat() {
+            return new Stat(requests.sum(), failures.sum(), totalNanos.sum());
+        }
+    }
+}
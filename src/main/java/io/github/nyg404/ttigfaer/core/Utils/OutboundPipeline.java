@@ -0,0 +1,127 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Единый неблокирующий конвейер исходящих запросов к Telegram.
+ *
+ * <p>Запрос проходит через все {@link OutboundStage} по порядку, а последняя стадия вызывает
+ * {@code TelegramClient.executeAsync}. Потоки не удерживаются ни на одной стадии: ожидание
+ * лимитов и повторов идёт по таймеру, сетевой вызов — асинхронный.</p>
+ */
+public class OutboundPipeline {
+
+    private final OutboundStage[] stages;
+    private final Link[] links;
+
+    /**
+     * @param stages стадии конвейера в любом порядке; сортируются по {@link OutboundStage#getOrder()}
+     */
+    public OutboundPipeline(List<? extends OutboundStage> stages) {
+        List<OutboundStage> sorted = new ArrayList<>(stages);
+        AnnotationAwareOrderComparator.sort(sorted);
+        this.stages = sorted.toArray(new OutboundStage[0]);
+        this.links = new Link[this.stages.length + 1];
+        for (int i = 0; i < links.length; i++) {
+            links[i] = new Link(i);
+        }
+    }
+
+    /**
+     * Отправляет запрос через конвейер.
+     *
+     * @param request запрос
+     * @param <T>     тип результата
+     * @return результат запроса
+     */
+    public <T> CompletableFuture<T> send(OutboundRequest<T> request) {
+        return links[0].proceed(request);
+    }
+
+    /**
+     * Отправляет запрос через конвейер.
+     *
+     * @param chatId чат-адресат или {@link OutboundScheduler#NO_CHAT}
+     * @param method метод Bot API
+     * @param call   асинхронный вызов клиента
+     * @param <T>    тип результата
+     * @return результат запроса
+     */
+    public <T> CompletableFuture<T> send(long chatId, PartialBotApiMethod<?> method, OutboundRequest.Call<T> call) {
+        return send(new OutboundRequest<>(chatId, method, call));
+    }
+
+    /**
+     * Отправляет запрос через конвейер и ждёт результата в текущем потоке.
+     *
+     * @param chatId чат-адресат или {@link OutboundScheduler#NO_CHAT}
+     * @param method метод Bot API
+     * @param call   асинхронный вызов клиента
+     * @param <T>    тип результата
+     * @return результат запроса
+     * @throws TelegramApiException ошибка запроса или прерывание ожидания
+     */
+    public <T> T execute(long chatId, PartialBotApiMethod<?> method, OutboundRequest.Call<T> call)
+            throws TelegramApiException {
+        try {
+            return send(chatId, method, call).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Ожидание отправки прервано", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof TelegramApiException apiException) {
+                throw apiException;
+            }
+            throw new TelegramApiException(cause);
+        }
+    }
+
+    /**
+     * Снимает обёртки {@link CompletionException} и {@link ExecutionException}.
+     *
+     * @param error ошибка из {@link CompletableFuture}
+     * @return исходная ошибка
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Звено цепочки: передаёт запрос стадии с номером {@code index} или, после последней стадии, клиенту.
+     */
+    private final class Link implements OutboundStage.Chain {
+        private final int index;
+
+        private Link(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public <T> CompletableFuture<T> proceed(OutboundRequest<T> request) {
+            if (index == stages.length) {
+                return request.start();
+            }
+            try {
+                return stages[index].apply(request, links[index + 1]);
+            } catch (Throwable e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
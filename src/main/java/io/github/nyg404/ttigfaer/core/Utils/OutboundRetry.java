@@ -0,0 +1,88 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стадия {@link OutboundPipeline}, повторяющая запросы после временных ошибок.
+ *
+ * <p>Повторяются только ошибки, после которых запрос заведомо не выполнен: отказ в соединении,
+ * недоступный DNS и ответы 502/503/504 шлюза Telegram. Таймауты чтения не повторяются — сообщение
+ * могло уже дойти, и повтор создал бы дубликат. Запросы с файлами из потока не повторяются вовсе
+ * ({@link OutboundRequest#isRepeatable()}): поток прочитан первой попыткой. 429 обрабатывает
+ * {@link OutboundScheduler}.
+ * Паузы между попытками растут вдвое и отсчитываются на {@link TimingWheel}, не занимая потоков.</p>
+ */
+@Slf4j
+public class OutboundRetry implements OutboundStage {
+    /**
+     * Порядок стадии: внутри {@link OutboundScheduler}. Повтор занимает место запроса в очереди чата,
+     * поэтому следующие сообщения в чат не обгоняют повторяемое.
+     */
+    public static final int ORDER = 300;
+
+    private final TimingWheel timingWheel;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    /**
+     * @param timingWheel   общий таймер фреймворка
+     * @param maxAttempts   сколько раз повторять запрос
+     * @param backoffMillis пауза перед первым повтором, мс
+     */
+    public OutboundRetry(TimingWheel timingWheel, int maxAttempts, long backoffMillis) {
+        this.timingWheel = timingWheel;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(request, chain, result, 0);
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private <T> void attempt(OutboundRequest<T> request, Chain chain, CompletableFuture<T> result, int attempt) {
+        chain.proceed(request).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = OutboundPipeline.unwrap(error);
+            if (attempt >= maxAttempts || !request.isRepeatable() || !isTransient(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delay = backoffMillis << Math.min(attempt, 16);
+            log.warn("Временная ошибка {} в чат {}, повтор через {} мс: {}",
+                    request.getMethodName(), request.getChatId(), delay, cause.getMessage());
+            timingWheel.schedule(() -> attempt(request, chain, result, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof TelegramApiRequestException e && e.getErrorCode() != null) {
+            int code = e.getErrorCode();
+            return code == 502 || code == 503 || code == 504;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
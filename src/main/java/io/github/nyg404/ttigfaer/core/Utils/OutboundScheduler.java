@@ -0,0 +1,515 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Общий планировщик исходящих запросов к Telegram Bot API.
+ *
+ * <p>Стадия {@link OutboundPipeline}: все отправки, правки, удаления и модерация проходят
+ * через неё и запускаются не быстрее лимитов Telegram, а одновременно выполняется не больше
+ * {@code concurrency} запросов:</p>
+ * <ul>
+ *     <li>общий лимит бота — {@code globalPerSecond} запросов в секунду;</li>
+ *     <li>личный чат ({@code chatId > 0}) — {@code privatePerSecond} сообщений в секунду;</li>
+ *     <li>группа или канал ({@code chatId < 0}) — {@code groupPerMinute} сообщений в минуту.</li>
+ * </ul>
+ *
+ * <p>Лимиты чата действуют только на методы, создающие сообщения ({@code send*}, {@code forward*},
+ * {@code copy*}, кроме {@code sendChatAction}); медиа-группа считается за столько сообщений, сколько
+ * в ней элементов. Правки, удаления, ответы на callback и модерация проходят очередь чата по порядку,
+ * но ограничены только общим лимитом.</p>
+ *
+ * <p>Лимиты считаются по GCRA (как в {@code RateLimitManager}) и соблюдаются равномерно, без пачек,
+ * поэтому пропускная способность используется полностью, а flood control не срабатывает. У каждого
+ * чата своя FIFO-очередь, а чаты обслуживаются по кругу: чат с длинной очередью не задерживает
+ * остальных. Чат, исчерпавший свой лимит, ждёт на {@link TimingWheel}, не занимая потоков.
+ * Запросы с {@link #NO_CHAT} (модерация, ответы на callback и т. п.) ограничены только общим лимитом.</p>
+ *
+ * <p>Одновременно в один чат выполняется не больше {@code chatInFlight} запросов. При значении 1
+ * следующий запрос чата начинается только после ответа на предыдущий, поэтому асинхронные
+ * отправки в один чат приходят строго в порядке вызова — и при повторах тоже. Значение больше 1
+ * разрешает конвейерную отправку, когда порядок не важен. Для {@link #NO_CHAT} окно не действует.</p>
+ *
+ * <p>Если Telegram всё же отвечает 429, запрос не теряется: он возвращается в начало очереди своего
+ * чата, а весь чат (не только сообщения) приостанавливается на {@code retry_after}. Исключение — запросы
+ * с файлами из потока ({@link OutboundRequest#isRepeatable()}): поток уже прочитан, поэтому такой запрос
+ * завершается ошибкой 429, а приостанавливается только отправка. Если flood control срабатывает
+ * в {@value #GLOBAL_FLOOD_CHATS} разных чатах подряд (или у запроса нет чата), лимит считается общим
+ * и приостанавливается вся отправка. После каждого 429 интервал затронутого лимита увеличивается и затем постепенно
+ * возвращается к настроенному с каждым успешным запросом.</p>
+ */
+@Slf4j
+public class OutboundScheduler implements OutboundStage {
+    /** Порядок стадии: внутри метрик, снаружи повторов временных ошибок — повтор не уступает очередь чата. */
+    public static final int ORDER = 200;
+    /** Ключ запросов, которые не являются сообщениями в чат и ограничены только общим лимитом. */
+    public static final long NO_CHAT = 0;
+    /** Период очистки состояния простаивающих чатов, секунды. */
+    private static final long EVICTION_INTERVAL_SECONDS = 60;
+    /** Сколько разных чатов должно получить 429 с промежутками меньше {@link #FLOOD_WINDOW_NANOS}, чтобы лимит считался общим. */
+    private static final int GLOBAL_FLOOD_CHATS = 3;
+    private static final long FLOOD_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** Минимальный интервал после 429 для лимитов, у которых настроенного интервала нет. */
+    private static final long MIN_BACKOFF_INTERVAL = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_BACKOFF_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private final TimingWheel timingWheel;
+    private final int concurrency;
+    private final int chatInFlight;
+    private final int maxRetries;
+    private final long baseGlobalInterval;
+    private final long privateInterval;
+    private final long groupInterval;
+
+    /** Состояние чатов с очередью или с ещё не восстановленным лимитом. Защищено {@code this}. */
+    private final Map<Long, ChatQueue> chats = new HashMap<>();
+    /** Чаты, готовые к отправке, в порядке кругового обхода. Защищено {@code this}. */
+    private final ArrayDeque<ChatQueue> ready = new ArrayDeque<>();
+    /** Текущий интервал общего лимита с учётом 429, нс. Защищено {@code this}. */
+    private long globalInterval;
+    /** Теоретическое время следующего запроса по общему лимиту, нс. Защищено {@code this}. */
+    private long globalTat = System.nanoTime();
+    /** Время последнего 429 и чаты текущей серии 429. Защищено {@code this}. */
+    private long lastFloodAt;
+    private final Set<Long> floodChats = new HashSet<>();
+    /** Защищено {@code this}. */
+    private long floods;
+    /** Поставлен ли таймер ожидания общего лимита. Защищено {@code this}. */
+    private boolean globalTimerArmed;
+    /** Защищено {@code this}. */
+    private int inFlight;
+    /** Защищено {@code this}. */
+    private boolean stopped;
+    /** Поставлен ли таймер очистки; он стоит, только пока есть состояние чатов. Защищено {@code this}. */
+    private boolean evictionArmed;
+    /** Счётчик вызовов {@link #pump()}: выбирает запросы только один поток, остальные лишь отмечают работу. */
+    private final AtomicInteger pumpRequests = new AtomicInteger();
+
+    /**
+     * @param timingWheel      общий таймер фреймворка
+     * @param concurrency      сколько запросов может выполняться одновременно
+     * @param chatInFlight     сколько запросов может выполняться одновременно в один чат
+     * @param globalPerSecond  общий лимит запросов в секунду
+     * @param privatePerSecond лимит сообщений в секунду для личного чата
+     * @param groupPerMinute   лимит сообщений в минуту для группы
+     * @param maxRetries       сколько раз повторять запрос после 429
+     */
+    public OutboundScheduler(TimingWheel timingWheel, int concurrency, int chatInFlight,
+                             int globalPerSecond, int privatePerSecond, int groupPerMinute, int maxRetries) {
+        this.timingWheel = timingWheel;
+        this.concurrency = Math.max(concurrency, 1);
+        this.chatInFlight = Math.max(chatInFlight, 1);
+        this.maxRetries = maxRetries;
+        this.baseGlobalInterval = interval(TimeUnit.SECONDS, globalPerSecond);
+        this.globalInterval = baseGlobalInterval;
+        this.privateInterval = interval(TimeUnit.SECONDS, privatePerSecond);
+        this.groupInterval = interval(TimeUnit.MINUTES, groupPerMinute);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain) {
+        return submit(request.getChatId(), request.isRepeatable(), weight(request), () -> chain.proceed(request));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Ставит запрос в очередь чата. Запрос считается сообщением и соблюдает лимит чата.
+     *
+     * @param chatId  чат, в который адресован запрос, или {@link #NO_CHAT}
+     * @param request запуск асинхронного вызова; выполняется, когда позволяют лимиты
+     * @param <T>     тип результата
+     * @return результат запроса; завершается исключением запроса
+     */
+    public <T> CompletableFuture<T> submit(long chatId, Supplier<CompletableFuture<T>> request) {
+        return submit(chatId, true, 1, request);
+    }
+
+    private <T> CompletableFuture<T> submit(long chatId, boolean repeatable, int weight,
+                                            Supplier<CompletableFuture<T>> request) {
+        Job<T> job = new Job<>(request, repeatable, weight);
+        synchronized (this) {
+            if (stopped) {
+                return CompletableFuture.failedFuture(new TelegramApiException("Планировщик отправки остановлен"));
+            }
+            ChatQueue queue = chats.computeIfAbsent(chatId, ChatQueue::new);
+            armEviction();
+            job.queue = queue;
+            queue.jobs.addLast(job);
+            schedule(queue);
+        }
+        pump();
+        return job.future;
+    }
+
+    /**
+     * @return количество запросов, ожидающих отправки
+     */
+    public synchronized int queued() {
+        int total = 0;
+        for (ChatQueue queue : chats.values()) {
+            total += queue.jobs.size();
+        }
+        return total;
+    }
+
+    /**
+     * @return количество выполняющихся запросов
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return сколько раз Telegram ответил 429
+     */
+    public synchronized long floods() {
+        return floods;
+    }
+
+    /**
+     * Останавливает планировщик. Запросы, не успевшие начаться, завершаются с ошибкой.
+     */
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            for (ChatQueue queue : chats.values()) {
+                for (Job<?> job : queue.jobs) {
+                    job.future.completeExceptionally(new TelegramApiException("Планировщик отправки остановлен"));
+                }
+                queue.jobs.clear();
+            }
+            ready.clear();
+        }
+    }
+
+    /**
+     * Запускает запросы, пока позволяют лимиты и {@code concurrency}. Повторный вызов из другого
+     * потока (или из завершения уже выполненного запроса) не выбирает запросы сам, а заставляет
+     * текущий цикл пройти ещё раз — так нет ни гонок, ни глубокой рекурсии.
+     */
+    private void pump() {
+        if (pumpRequests.getAndIncrement() != 0) return;
+        do {
+            Job<?> job;
+            while ((job = take()) != null) {
+                run(job);
+            }
+        } while (pumpRequests.decrementAndGet() != 0);
+    }
+
+    /** Выбирает запрос, который можно запустить сейчас, или возвращает null. */
+    private synchronized Job<?> take() {
+        if (stopped || inFlight >= concurrency || ready.isEmpty()) return null;
+        long now = System.nanoTime();
+        long globalWait = globalTat - now;
+        if (globalWait > 0) {
+            armGlobalTimer(globalWait);
+            return null;
+        }
+        Job<?> job = next(now);
+        if (job == null) return null;
+        globalTat = advance(globalTat, globalInterval, now);
+        inFlight++;
+        return job;
+    }
+
+    /**
+     * Выбирает следующий запрос по кругу из готовых чатов. Приостановленные после 429 чаты и чаты,
+     * у которых первым в очереди стоит сообщение при исчерпанном лимите, уходят на таймер, с заполненным
+     * окном — ждут ответа на свои запросы. Вызывается под {@code this}.
+     */
+    private Job<?> next(long now) {
+        for (int i = ready.size(); i > 0; i--) {
+            ChatQueue queue = ready.pollFirst();
+            if (queue.inFlight >= queue.window) {
+                queue.scheduled = false;
+                continue;
+            }
+            long wait = queue.pausedUntil - now;
+            if (queue.jobs.peekFirst().weight > 0) {
+                wait = Math.max(wait, queue.tat - now);
+            }
+            if (wait > 0) {
+                timingWheel.schedule(() -> wake(queue), wait, TimeUnit.NANOSECONDS);
+                continue;
+            }
+            Job<?> job = queue.jobs.pollFirst();
+            if (job.weight > 0) {
+                queue.tat = advance(queue.tat, queue.interval, now) + queue.interval * (job.weight - 1);
+            }
+            queue.inFlight++;
+            if (queue.jobs.isEmpty() || queue.inFlight >= queue.window) {
+                queue.scheduled = false;
+            } else {
+                ready.addLast(queue);
+            }
+            return job;
+        }
+        return null;
+    }
+
+    /** Ставит чат в круговой обход, если его там ещё нет и окно не заполнено. Вызывается под {@code this}. */
+    private void schedule(ChatQueue queue) {
+        if (!queue.scheduled && queue.inFlight < queue.window) {
+            queue.scheduled = true;
+            ready.addLast(queue);
+        }
+    }
+
+    private void wake(ChatQueue queue) {
+        synchronized (this) {
+            if (queue.jobs.isEmpty()) {
+                queue.scheduled = false;
+                return;
+            }
+            ready.addLast(queue);
+        }
+        pump();
+    }
+
+    /** Вызывается под {@code this}. */
+    private void armGlobalTimer(long waitNanos) {
+        if (globalTimerArmed) return;
+        globalTimerArmed = true;
+        timingWheel.schedule(() -> {
+            synchronized (this) {
+                globalTimerArmed = false;
+            }
+            pump();
+        }, waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void run(Job<T> job) {
+        CompletableFuture<T> sent;
+        try {
+            sent = job.request.get();
+        } catch (Throwable e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((result, error) -> {
+            Throwable cause = error != null ? OutboundPipeline.unwrap(error) : null;
+            Integer retryAfter = cause != null ? retryAfter(cause) : null;
+            boolean retry = retryAfter != null && job.repeatable && job.attempts++ < maxRetries;
+            // Сначала освобождаем окно чата (и при 429 возвращаем запрос в очередь), затем отдаём
+            // результат: продолжение вызывающего кода, отправившее следующий запрос в этот чат, уже
+            // застанет свободное окно, а чужие запросы не обгонят повторяемый.
+            if (retryAfter != null) {
+                onFlood(job, retryAfter, retry);
+            } else {
+                release(job.queue, cause == null);
+            }
+            pump();
+            if (retry) return;
+            if (cause == null) {
+                job.future.complete(result);
+            } else {
+                job.future.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Освобождает место запроса в окне чата и в {@code concurrency}; после успеха плавно
+     * возвращает интервалы к настроенным после 429.
+     */
+    private synchronized void release(ChatQueue queue, boolean success) {
+        inFlight--;
+        queue.inFlight--;
+        if (success) {
+            if (globalInterval != baseGlobalInterval) {
+                globalInterval = recover(globalInterval, baseGlobalInterval);
+            }
+            if (queue.interval != queue.baseInterval) {
+                queue.interval = recover(queue.interval, queue.baseInterval);
+            }
+        }
+        if (!queue.jobs.isEmpty()) {
+            schedule(queue);
+        }
+    }
+
+    /**
+     * @return {@code retry_after} из ответа 429 или null
+     */
+    private static Integer retryAfter(Throwable error) {
+        if (error instanceof TelegramApiRequestException e
+                && Integer.valueOf(429).equals(e.getErrorCode()) && e.getParameters() != null) {
+            return e.getParameters().getRetryAfter();
+        }
+        return null;
+    }
+
+    /**
+     * Освобождает место запроса, при {@code requeue} возвращает его в начало очереди чата (все запросы
+     * чата в очереди младше него) и приостанавливает чат или всю отправку на {@code retryAfter} секунд.
+     */
+    private void onFlood(Job<?> job, int retryAfter, boolean requeue) {
+        ChatQueue queue = job.queue;
+        boolean global;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long resumeAt = now + TimeUnit.SECONDS.toNanos(Math.max(retryAfter, 1));
+            floods++;
+            if (now - lastFloodAt >= FLOOD_WINDOW_NANOS) floodChats.clear();
+            lastFloodAt = now;
+            floodChats.add(queue.chatId);
+            global = queue.chatId == NO_CHAT || floodChats.size() >= GLOBAL_FLOOD_CHATS;
+            if (global) {
+                if (globalTat - resumeAt < 0) globalTat = resumeAt;
+                globalInterval = backoff(globalInterval);
+            } else {
+                if (queue.pausedUntil - resumeAt < 0) queue.pausedUntil = resumeAt;
+                if (queue.tat - resumeAt < 0) queue.tat = resumeAt;
+                queue.interval = backoff(queue.interval);
+            }
+            inFlight--;
+            queue.inFlight--;
+            if (requeue) queue.jobs.addFirst(job);
+            if (!queue.jobs.isEmpty()) schedule(queue);
+        }
+        String target = global ? "вся отправка" : "отправка в чат " + queue.chatId;
+        if (requeue) {
+            log.warn("Flood control: {} приостановлена на {} с (попытка {} из {})",
+                    target, retryAfter, job.attempts, maxRetries);
+        } else {
+            log.warn("Flood control: {} приостановлена на {} с, запрос не повторяется", target, retryAfter);
+        }
+    }
+
+    private static long backoff(long interval) {
+        return Math.min(Math.max(interval + interval / 2, MIN_BACKOFF_INTERVAL), MAX_BACKOFF_INTERVAL);
+    }
+
+    private static long recover(long interval, long base) {
+        long next = interval - Math.max((interval - base) / 8, 1);
+        return Math.max(next, base);
+    }
+
+    /** Вызывается под {@code this}. */
+    private void armEviction() {
+        if (evictionArmed) return;
+        evictionArmed = true;
+        timingWheel.schedule(this::evictIdle, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private synchronized void evictIdle() {
+        evictionArmed = false;
+        long now = System.nanoTime();
+        Iterator<ChatQueue> it = chats.values().iterator();
+        while (it.hasNext()) {
+            ChatQueue queue = it.next();
+            // Пустая очередь и восстановленный лимит — чат не отличается от отсутствующего
+            if (!queue.scheduled && queue.jobs.isEmpty() && queue.inFlight == 0
+                    && queue.tat - now <= 0 && queue.pausedUntil - now <= 0) {
+                it.remove();
+            }
+        }
+        if (!stopped && !chats.isEmpty()) {
+            armEviction();
+        }
+    }
+
+    /**
+     * @param request исходящий запрос
+     * @return сколько сообщений чата создаёт запрос; 0 — запрос не сообщение и лимит чата не соблюдает
+     */
+    private static int weight(OutboundRequest<?> request) {
+        String name = request.getMethodName();
+        if (request.getMethod() instanceof SendMediaGroup group) {
+            return group.getMedias() == null ? 1 : Math.max(group.getMedias().size(), 1);
+        }
+        boolean message = (name.startsWith("send") && !name.equals("sendChatAction"))
+                || name.startsWith("forward")
+                || name.startsWith("copy");
+        return message ? 1 : 0;
+    }
+
+    private long chatInterval(long chatId) {
+        if (chatId > 0) return privateInterval;
+        if (chatId < 0) return groupInterval;
+        return 0;
+    }
+
+    /**
+     * Сдвигает TAT на один запрос. Опоздание меньше интервала (таймер срабатывает с точностью до тика)
+     * не накапливается, иначе средняя скорость была бы ниже лимита.
+     */
+    private static long advance(long tat, long interval, long now) {
+        return (now - tat < interval ? tat : now) + interval;
+    }
+
+    private static long interval(TimeUnit unit, int permits) {
+        return permits > 0 ? unit.toNanos(1) / permits : 0;
+    }
+
+    /**
+     * Очередь и лимит одного чата. Поля защищены монитором планировщика.
+     */
+    private final class ChatQueue {
+        private final ArrayDeque<Job<?>> jobs = new ArrayDeque<>();
+        private final long chatId;
+        /** Настроенный интервал между сообщениями в чат, нс. */
+        private final long baseInterval;
+        /** Текущий интервал с учётом 429, нс. */
+        private long interval;
+        /** Теоретическое время следующего сообщения в чат, нс. */
+        private long tat = System.nanoTime();
+        /** До какого времени чат приостановлен после 429: не отправляется ни один его запрос, нс. */
+        private long pausedUntil = tat;
+        /** Сколько запросов чата может выполняться одновременно. */
+        private final int window;
+        /** Сколько запросов чата выполняется сейчас. */
+        private int inFlight;
+        /** Чат стоит в {@link #ready} или ждёт на таймере. */
+        private boolean scheduled;
+
+        private ChatQueue(long chatId) {
+            this.chatId = chatId;
+            this.baseInterval = chatInterval(chatId);
+            this.interval = baseInterval;
+            this.window = chatId == NO_CHAT ? Integer.MAX_VALUE : chatInFlight;
+        }
+    }
+
+    /**
+     * Запрос и его результат.
+     */
+    private static final class Job<T> {
+        private final Supplier<CompletableFuture<T>> request;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        /** Очередь чата; задаётся при постановке под монитором планировщика. */
+        private ChatQueue queue;
+        /** Запрос можно выполнить повторно после 429. */
+        private final boolean repeatable;
+        /** Сколько сообщений чата создаёт запрос; 0 — лимит чата не соблюдается. */
+        private final int weight;
+        /** Сколько раз запрос уже повторялся после 429. Меняется только выполняющим потоком. */
+        private int attempts;
+
+        private Job(Supplier<CompletableFuture<T>> request, boolean repeatable, int weight) {
+            this.request = request;
+            this.repeatable = repeatable;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.core.Enum.HandlerPriority;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель с классами приоритета поверх общего {@code asyncExecutor}.
+ *
+ * <p>Задачи ждут в очереди своего приоритета и передаются в исполнитель, только когда
+ * в нём есть свободное место ({@code concurrency}), поэтому очередь самого исполнителя
+ * не перемешивает приоритеты. Очереди выбираются взвешенным циклом
+ * ({@link HandlerPriority#HIGH} : {@link HandlerPriority#NORMAL} : {@link HandlerPriority#LOW} = 8 : 3 : 1),
+ * а задача, прождавшая дольше {@code agingMillis}, выполняется вне очереди — так фоновые
+ * обработчики не голодают.</p>
+ *
+ * <p>Очередь каждого приоритета вмещает {@code capacity} задач; сверх этого {@link #execute(Runnable, HandlerPriority)}
+ * бросает {@link RejectedExecutionException}. Если исполнитель отклонил задачу (его заняли чужие задачи),
+ * она возвращается в очередь и передаётся, когда завершится одна из наших задач; если наших задач
+ * в исполнителе нет, она выполняется в вызывающем потоке, как при {@code CallerRunsPolicy}.</p>
+ */
+@Slf4j
+public class PriorityExecutor implements Executor {
+
+    private static final int[] WEIGHTS = {8, 3, 1};
+
+    private final Executor delegate;
+    private final int concurrency;
+    private final int capacity;
+    private final long agingNanos;
+
+    private final ArrayDeque<Entry>[] queues;
+    private final int[] credits = WEIGHTS.clone();
+    /** Защищено {@code this}. */
+    private int inFlight;
+
+    /**
+     * @param delegate    исполнитель, в котором выполняются задачи
+     * @param concurrency сколько задач одновременно передаётся в исполнитель
+     * @param capacity    сколько задач может ждать в очереди одного приоритета
+     * @param agingMillis время ожидания, после которого задача выполняется вне очереди
+     */
+    public PriorityExecutor(Executor delegate, int concurrency, int capacity, long agingMillis) {
+        this.delegate = delegate;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayDeque<Entry>[] queues = new ArrayDeque[WEIGHTS.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.queues = queues;
+    }
+
+    /**
+     * Выполняет задачу с приоритетом {@link HandlerPriority#NORMAL}.
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(task, HandlerPriority.NORMAL);
+    }
+
+    /**
+     * Ставит задачу в очередь своего приоритета.
+     *
+     * @param task     задача
+     * @param priority приоритет; {@link HandlerPriority#DEFAULT} считается {@link HandlerPriority#NORMAL}
+     * @throws RejectedExecutionException очередь приоритета заполнена
+     */
+    public void execute(Runnable task, HandlerPriority priority) {
+        int index = priority == HandlerPriority.DEFAULT ? HandlerPriority.NORMAL.ordinal() : priority.ordinal();
+        synchronized (this) {
+            if (queues[index].size() >= capacity) {
+                throw new RejectedExecutionException("Очередь задач приоритета " + priority + " переполнена");
+            }
+            queues[index].addLast(new Entry(task, index, System.nanoTime()));
+        }
+        pump();
+    }
+
+    /**
+     * @param priority приоритет
+     * @return количество задач, ожидающих в очереди приоритета
+     */
+    public synchronized int queued(HandlerPriority priority) {
+        return queues[priority == HandlerPriority.DEFAULT ? HandlerPriority.NORMAL.ordinal() : priority.ordinal()].size();
+    }
+
+    /**
+     * @return количество задач, переданных в исполнитель и ещё не завершённых
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void pump() {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                if (inFlight >= concurrency) return;
+                entry = next();
+                if (entry == null) return;
+                inFlight++;
+            }
+            try {
+                delegate.execute(() -> run(entry));
+            } catch (RejectedExecutionException e) {
+                // Исполнитель занят чужими задачами. Если среди них есть наши, задача будет передана
+                // после их завершения; иначе её некому передать — выполняем здесь
+                boolean callerRuns;
+                synchronized (this) {
+                    callerRuns = inFlight == 1;
+                    if (!callerRuns) {
+                        inFlight--;
+                        queues[entry.priority].addFirst(entry);
+                    }
+                }
+                if (!callerRuns) return;
+                log.warn("asyncExecutor отклонил задачу, выполняем её в потоке {}", Thread.currentThread().getName());
+                runTask(entry);
+            }
+        }
+    }
+
+    private void run(Entry entry) {
+        runTask(entry);
+        pump();
+    }
+
+    /** Выполняет задачу и освобождает её место; следующую передаёт вызывающий. */
+    private void runTask(Entry entry) {
+        try {
+            entry.task.run();
+        } finally {
+            synchronized (this) {
+                inFlight--;
+            }
+        }
+    }
+
+    /** Вызывается под {@code this}. */
+    private Entry next() {
+        long now = System.nanoTime();
+        Entry oldest = null;
+        for (ArrayDeque<Entry> queue : queues) {
+            Entry head = queue.peekFirst();
+            if (head != null && now - head.enqueuedAt >= agingNanos
+                    && (oldest == null || head.enqueuedAt < oldest.enqueuedAt)) {
+                oldest = head;
+            }
+        }
+        if (oldest != null) {
+            return queues[oldest.priority].pollFirst();
+        }
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < queues.length; i++) {
+                if (credits[i] > 0 && !queues[i].isEmpty()) {
+                    credits[i]--;
+                    return queues[i].pollFirst();
+                }
+            }
+            System.arraycopy(WEIGHTS, 0, credits, 0, WEIGHTS.length);
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private final Runnable task;
+        private final int priority;
+        private final long enqueuedAt;
+
+        private Entry(Runnable task, int priority, long enqueuedAt) {
+            this.task = task;
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
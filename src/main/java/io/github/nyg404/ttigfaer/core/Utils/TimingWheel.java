@@ -0,0 +1,194 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Общий таймер фреймворка на основе хешированного колеса времени.
+ *
+ * <p>Все отложенные действия (лимиты частоты, задержки) обслуживает один поток. Добавление и отмена
+ * таймера — O(1). Пока таймеров нет, поток спит без пробуждений; при наличии таймеров он просыпается
+ * раз в тик, независимо от их количества. Задачи таймеров выполняются в потоке колеса, поэтому
+ * должны быть короткими — как правило, это передача работы в другой исполнитель.</p>
+ *
+ * <p>Поток колеса запускается методом {@link #start()}; таймеры, поставленные до запуска, сработают после него.</p>
+ */
+@Slf4j
+public class TimingWheel {
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout>> buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    /** Таймеры, которые ещё не сработали и не отменены. */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startTime = System.nanoTime();
+    private final String threadName;
+    private volatile Thread worker;
+    private volatile boolean running = true;
+
+    /** Текущий тик; используется только потоком колеса. */
+    private long tick;
+
+    /**
+     * @param tickMillis длительность тика в миллисекундах (точность таймеров)
+     * @param wheelSize  количество ячеек колеса, округляется до степени двойки
+     * @param threadName имя потока колеса
+     */
+    public TimingWheel(long tickMillis, int wheelSize, String threadName) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.threadName = threadName;
+    }
+
+    /**
+     * Запускает поток колеса. Повторный вызов ничего не делает.
+     */
+    public synchronized void start() {
+        if (worker != null) return;
+        Thread thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Планирует выполнение задачи через заданное время.
+     *
+     * @param task  короткая задача, выполняемая в потоке колеса
+     * @param delay задержка
+     * @param unit  единица задержки
+     * @return дескриптор для отмены
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(this, task, System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay)));
+        incoming.add(timeout);
+        Thread thread = worker;
+        if (pending.getAndIncrement() == 0 && thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return timeout;
+    }
+
+    /**
+     * @return количество запланированных и ещё не сработавших таймеров
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Останавливает поток колеса. Несработавшие таймеры отбрасываются.
+     */
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            if (pending.get() == 0) {
+                LockSupport.park(this);
+                // После простоя колесо догоняет текущее время: ячейки между тиками пусты
+                tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+                continue;
+            }
+            long deadline = (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - (System.nanoTime() - startTime)) > 0 && running) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            transferIncoming();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.state.get() != WAITING) continue;
+            long expireTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (expireTick - tick) >> Integer.numberOfTrailingZeros(mask + 1);
+            buckets.get((int) (expireTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.state.get() != WAITING) continue;
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+                continue;
+            }
+            if (timeout.state.compareAndSet(WAITING, EXPIRED)) {
+                pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (Throwable e) {
+                    log.error("Ошибка в задаче таймера", e);
+                }
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * Запланированный таймер.
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable task;
+        /** Время срабатывания относительно запуска колеса, нс. */
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        /** Сколько полных оборотов колеса осталось; используется только потоком колеса. */
+        private long rounds;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Отменяет таймер.
+         *
+         * @return true, если таймер отменён до срабатывания
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                wheel.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return true, если задача таймера уже выполнена
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+}
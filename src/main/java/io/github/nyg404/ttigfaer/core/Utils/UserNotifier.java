@@ -0,0 +1,54 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Служебные ответы фреймворка пользователю (перегрузка, превышение лимита).
+ *
+ * <p>На callback отвечает всплывающим уведомлением, на сообщение — ответом в чат.
+ * Отправка идёт через {@link OutboundPipeline} и не блокирует вызывающий поток.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNotifier {
+    private final TelegramClient telegramClient;
+    private final OutboundPipeline pipeline;
+
+    /**
+     * Отправляет служебный ответ на обновление.
+     *
+     * @param ctx  контекст обновления
+     * @param text текст ответа
+     */
+    public void reply(MessageContext ctx, String text) {
+        CompletableFuture<?> sent;
+        if (ctx.isCallback()) {
+            AnswerCallbackQuery answer = AnswerCallbackQuery.builder()
+                    .callbackQueryId(ctx.getRawUpdate().getCallbackQuery().getId())
+                    .text(text)
+                    .build();
+            sent = pipeline.send(OutboundScheduler.NO_CHAT, answer, () -> telegramClient.executeAsync(answer));
+        } else {
+            SendMessage message = SendMessage.builder()
+                    .chatId(ctx.getChatId())
+                    .replyToMessageId(ctx.getMessageId())
+                    .text(text)
+                    .build();
+            sent = pipeline.send(ctx.getChatId(), message, () -> telegramClient.executeAsync(message));
+        }
+        sent.whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Не удалось отправить ответ в чат {}: {}", ctx.getChatId(), e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель, запускающий каждую задачу в отдельном виртуальном потоке.
+ *
+ * <p>Вместо очереди используется семафор: одновременно выполняется не более
+ * {@code maxConcurrency} задач, остальные ждут разрешения в своих виртуальных потоках,
+ * не занимая потоков ОС. Блокирующие вызовы (например, HTTP-запросы к Telegram)
+ * освобождают поток-носитель на время ожидания.</p>
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    /**
+     * @param threadNamePrefix префикс имён виртуальных потоков
+     * @param maxConcurrency   максимальное число одновременно выполняемых задач
+     */
+    public VirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * @return количество свободных разрешений на выполнение
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.nyg404.ttigfaer.core;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.nyg404.ttigfaer.core.Properties.WebhookProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Встроенный HTTP-сервер для приёма обновлений через webhook.
+ *
+ * <p>Тело POST ставится в ограниченную очередь ({@code ttigfaer.webhook.queue-capacity}) и подтверждается
+ * ответом {@code 200}; разбор в {@link Update} и передача в {@link CustomBot#consume(Update)} — тот же путь,
+ * что и при long polling, — идут уже после ответа. Если очередь заполнена, сервер отвечает {@code 503},
+ * и Telegram повторяет доставку позже, поэтому обновление не теряется. Обновления передаются боту
+ * из одного потока в порядке разбора, поэтому режимы {@code ttigfaer.dispatch.mode} работают так же,
+ * как с long polling.</p>
+ *
+ * <p>Для локальной проверки достаточно отправить сохранённый JSON обновления:
+ * {@code curl -X POST -H 'Content-Type: application/json' --data @update.json http://localhost:8443/telegram}.</p>
+ */
+@Slf4j
+public class WebhookServer {
+    /** Заголовок, в котором Telegram передаёт секрет webhook. */
+    static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final WebhookProperties properties;
+    private final CustomBot customBot;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final byte[] secret;
+
+    private HttpServer server;
+    private ExecutorService acceptors;
+    private ExecutorService processor;
+
+    /**
+     * @param properties настройки webhook
+     * @param customBot  бот, которому передаются обновления
+     */
+    public WebhookServer(WebhookProperties properties, CustomBot customBot) {
+        this.properties = properties;
+        this.customBot = customBot;
+        this.secret = properties.getSecretToken() == null || properties.getSecretToken().isEmpty()
+                ? null
+                : properties.getSecretToken().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Запускает HTTP-сервер.
+     *
+     * @throws IOException если не удалось открыть порт
+     */
+    public void start() throws IOException {
+        acceptors = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("Webhook-"));
+        processor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("Webhook-Dispatch-"));
+        server = HttpServer.create(new InetSocketAddress(properties.getHost(), properties.getPort()), 0);
+        server.createContext(properties.getPath(), this::handle);
+        server.setExecutor(acceptors);
+        server.start();
+        log.info("Webhook слушает {}:{}{}", properties.getHost(), properties.getPort(), properties.getPath());
+    }
+
+    /**
+     * Останавливает сервер и дожидается передачи уже принятых обновлений.
+     */
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        acceptors.shutdown();
+        processor.shutdown();
+        try {
+            if (!processor.awaitTermination(30, TimeUnit.SECONDS)) {
+                processor.shutdownNow();
+                log.warn("Принудительное завершение обработки webhook");
+            }
+        } catch (InterruptedException e) {
+            processor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!properties.getPath().equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (secret != null && !secretMatches(exchange.getRequestHeaders().getFirst(SECRET_HEADER))) {
+                log.warn("Webhook: запрос с неверным секретом от {}", exchange.getRemoteAddress());
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            try {
+                processor.execute(() -> process(body));
+            } catch (RejectedExecutionException e) {
+                // Очередь заполнена (или сервер останавливается): Telegram повторит доставку позже
+                log.warn("Webhook: очередь обновлений заполнена, отвечаем 503");
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            // Подтверждаем сразу после постановки в очередь, чтобы Telegram не ждал обработчиков
+            exchange.sendResponseHeaders(200, -1);
+        }
+    }
+
+    private void process(byte[] body) {
+        Update update;
+        try {
+            update = objectMapper.readValue(body, Update.class);
+        } catch (IOException e) {
+            log.error("Webhook: не удалось разобрать обновление", e);
+            return;
+        }
+        customBot.consume(update);
+    }
+
+    private boolean secretMatches(String header) {
+        return header != null && MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,13 +1,18 @@
 package io.github.nyg404.ttigfaer.core.config;
 
+import io.github.nyg404.ttigfaer.core.Enum.AsyncMode;
 import io.github.nyg404.ttigfaer.core.Properties.AsyncProperties;
+import io.github.nyg404.ttigfaer.core.Utils.PriorityExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.VirtualThreadExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -26,6 +31,7 @@ public class AsyncSettings {
      */
     @Bean(name = "asyncExecutor")
     @ConditionalOnMissingBean(name = "asyncExecutor")
+    @ConditionalOnProperty(prefix = "ttigfaer.async", name = "mode", havingValue = "pool", matchIfMissing = true)
     public ThreadPoolTaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(asyncProperties.getCorePoolSize());
@@ -36,10 +42,49 @@ public class AsyncSettings {
         return executor;
     }
 
+    /**
+     * Создаёт исполнитель на виртуальных потоках для режима {@link AsyncMode#VIRTUAL}.
+     * Обработчики {@code @TAsync}, задачи {@code CommandExecutor} и все {@code *Async}
+     * методы сервисов выполняются в виртуальных потоках.
+     *
+     * @return настроенный {@link VirtualThreadExecutor}
+     */
+    @Bean(name = "asyncExecutor")
+    @ConditionalOnMissingBean(name = "asyncExecutor")
+    @ConditionalOnProperty(prefix = "ttigfaer.async", name = "mode", havingValue = "virtual")
+    public VirtualThreadExecutor virtualTaskExecutor() {
+        return new VirtualThreadExecutor(asyncProperties.getThreadNamePrefix(), asyncProperties.getMaxConcurrency());
+    }
+
     @Bean
     @ConditionalOnMissingBean(ExecutorService.class)
-    public ExecutorService executorService(@Qualifier("asyncExecutor") ThreadPoolTaskExecutor taskExecutor) {
-        return taskExecutor.getThreadPoolExecutor();
+    public ExecutorService executorService(@Qualifier("asyncExecutor") Executor asyncExecutor) {
+        if (asyncExecutor instanceof ThreadPoolTaskExecutor pool) {
+            return pool.getThreadPoolExecutor();
+        }
+        if (asyncExecutor instanceof ExecutorService service) {
+            return service;
+        }
+        throw new IllegalStateException("Бин asyncExecutor должен быть ThreadPoolTaskExecutor или ExecutorService");
     }
 
+    /**
+     * Создаёт исполнитель с приоритетами поверх {@code asyncExecutor} для вызовов обработчиков.
+     * В исполнитель одновременно передаётся столько задач, сколько он выполняет без очереди:
+     * {@code core-pool-size} в режиме {@link AsyncMode#POOL} и {@code max-concurrency} в режиме
+     * {@link AsyncMode#VIRTUAL}. Потоки сверх {@code core-pool-size} и очередь пула остаются
+     * для прочих задач {@code asyncExecutor}.
+     *
+     * @param asyncExecutor общий асинхронный исполнитель
+     * @return настроенный {@link PriorityExecutor}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PriorityExecutor priorityExecutor(@Qualifier("asyncExecutor") Executor asyncExecutor) {
+        int concurrency = asyncProperties.getMode() == AsyncMode.VIRTUAL
+                ? asyncProperties.getMaxConcurrency()
+                : asyncProperties.getCorePoolSize();
+        return new PriorityExecutor(asyncExecutor, concurrency,
+                asyncProperties.getPriorityQueueCapacity(), asyncProperties.getPriorityAgingMillis());
+    }
 }
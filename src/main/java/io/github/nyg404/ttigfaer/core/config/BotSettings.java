@@ -22,4 +22,11 @@ public class BotSettings {
      */
     @NotBlank(message = "Префикс бота не может быть пустым")
     private String prefix;
+
+    /**
+     * Имя бота без {@code @}. Команда с суффиксом {@code /команда@ИмяБота} распознаётся, только если
+     * суффикс совпадает с этим именем, — команды другим ботам в группе игнорируются. Если не задано,
+     * суффикс не проверяется.
+     */
+    private String username;
 }
@@ -0,0 +1,83 @@
+package io.github.nyg404.ttigfaer.core.config;
+
+import io.github.nyg404.ttigfaer.core.Enum.DispatchMode;
+import io.github.nyg404.ttigfaer.core.Enum.OverloadPolicy;
+import io.github.nyg404.ttigfaer.core.Manager.RateLimitManager;
+import io.github.nyg404.ttigfaer.core.Properties.DispatchProperties;
+import io.github.nyg404.ttigfaer.core.Utils.AdmissionControl;
+import io.github.nyg404.ttigfaer.core.Utils.ChatMailboxExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import io.github.nyg404.ttigfaer.core.Utils.UserNotifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Конфигурация диспетчеризации входящих обновлений.
+ * Использует свойства из {@link DispatchProperties}.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class DispatchSettings {
+    private final DispatchProperties dispatchProperties;
+
+    /**
+     * Создаёт исполнитель очередей чатов. В режиме {@link DispatchMode#SINGLE_THREAD}
+     * задачи выполняются в потоке получения обновлений.
+     *
+     * @return настроенный {@link ChatMailboxExecutor}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ChatMailboxExecutor chatMailboxExecutor() {
+        if (dispatchProperties.getMode() != DispatchMode.CHAT_ORDERED) {
+            return new ChatMailboxExecutor(null);
+        }
+        int lanes = dispatchProperties.getLanes() > 0
+                ? dispatchProperties.getLanes()
+                : Runtime.getRuntime().availableProcessors();
+        return new ChatMailboxExecutor(Executors.newFixedThreadPool(lanes,
+                new CustomizableThreadFactory(dispatchProperties.getThreadNamePrefix())));
+    }
+
+    /**
+     * Создаёт общий таймер фреймворка: один поток на все отложенные действия.
+     *
+     * @return запущенный {@link TimingWheel}
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public TimingWheel timingWheel() {
+        return new TimingWheel(10, 512, "Ttigfaer-Timer");
+    }
+
+    /**
+     * Создаёт общий менеджер ограничения частоты для обработчиков с {@code @TimeBot}.
+     *
+     * @param timingWheel  общий таймер
+     * @param userNotifier отправитель ответов для {@code OverflowPolicy.DROP_WITH_REPLY}
+     * @return настроенный {@link RateLimitManager}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitManager rateLimitManager(TimingWheel timingWheel, UserNotifier userNotifier) {
+        return new RateLimitManager(timingWheel, userNotifier);
+    }
+
+    /**
+     * Создаёт стадию допуска обновлений с ёмкостью и политикой перегрузки из {@link DispatchProperties}.
+     *
+     * @param userNotifier отправитель ответа о занятости ({@link OverloadPolicy#REPLY_BUSY})
+     * @return настроенный {@link AdmissionControl}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AdmissionControl admissionControl(UserNotifier userNotifier) {
+        return new AdmissionControl(dispatchProperties.getCapacity(), dispatchProperties.getOverloadPolicy(),
+                ctx -> userNotifier.reply(ctx, dispatchProperties.getBusyMessage()));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.nyg404.ttigfaer.core.config;
+
+import io.github.nyg404.ttigfaer.core.Enum.HttpProtocol;
+import io.github.nyg404.ttigfaer.core.Properties.HttpProperties;
+import io.github.nyg404.ttigfaer.core.Utils.HttpMetrics;
+import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конфигурация общего HTTP-клиента, через который {@code TelegramClient} обращается к Bot API.
+ * Использует свойства из {@link HttpProperties}.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class HttpSettings {
+    private final HttpProperties httpProperties;
+
+    /**
+     * Создаёт HTTP-клиент с настроенными диспетчером, пулом соединений, таймаутами и протоколом.
+     *
+     * @return настроенный {@link OkHttpClient}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OkHttpClient telegramHttpClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(httpProperties.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(httpProperties.getMaxRequestsPerHost());
+
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(httpProperties.getMaxIdleConnections(),
+                        httpProperties.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .connectTimeout(Duration.ofMillis(httpProperties.getConnectTimeoutMillis()))
+                .readTimeout(Duration.ofMillis(httpProperties.getReadTimeoutMillis()))
+                .writeTimeout(Duration.ofMillis(httpProperties.getWriteTimeoutMillis()))
+                .protocols(httpProperties.getProtocol() == HttpProtocol.HTTP_2
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1))
+                .build();
+    }
+
+    /**
+     * Создаёт показатели HTTP-клиента.
+     *
+     * @param telegramHttpClient HTTP-клиент Telegram
+     * @return {@link HttpMetrics}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpMetrics httpMetrics(OkHttpClient telegramHttpClient) {
+        return new HttpMetrics(telegramHttpClient);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.nyg404.ttigfaer.core.config;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Properties.JournalProperties;
+import io.github.nyg404.ttigfaer.core.Properties.OutboundProperties;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundJournal;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundMetrics;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundRetry;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundScheduler;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Конфигурация исходящих запросов к Telegram.
+ * Использует свойства из {@link OutboundProperties}.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class OutboundSettings {
+    private final OutboundProperties outboundProperties;
+
+    /**
+     * Создаёт стадию соблюдения лимитов Telegram.
+     *
+     * @param timingWheel общий таймер
+     * @return настроенный {@link OutboundScheduler}
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public OutboundScheduler outboundScheduler(TimingWheel timingWheel) {
+        boolean enabled = outboundProperties.isEnabled();
+        return new OutboundScheduler(
+                timingWheel,
+                outboundProperties.getConcurrency(),
+                outboundProperties.getChatInFlight(),
+                enabled ? outboundProperties.getGlobalPerSecond() : 0,
+                enabled ? outboundProperties.getPrivatePerSecond() : 0,
+                enabled ? outboundProperties.getGroupPerMinute() : 0,
+                outboundProperties.getMaxRetries());
+    }
+
+    /**
+     * Создаёт стадию повтора временных ошибок.
+     *
+     * @param timingWheel общий таймер
+     * @return настроенный {@link OutboundRetry}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboundRetry outboundRetry(TimingWheel timingWheel) {
+        return new OutboundRetry(timingWheel,
+                outboundProperties.getTransientRetries(),
+                outboundProperties.getRetryBackoffMillis());
+    }
+
+    /**
+     * Создаёт стадию сбора статистики по методам Bot API.
+     *
+     * @return {@link OutboundMetrics}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboundMetrics outboundMetrics() {
+        return new OutboundMetrics();
+    }
+
+    /**
+     * Создаёт журнал исходящих запросов, если включён {@code ttigfaer.journal.enabled}.
+     *
+     * @param journalProperties настройки журнала
+     * @return открытый {@link OutboundJournal}
+     * @throws IOException если каталог журнала недоступен
+     */
+    @Bean(destroyMethod = "flush")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ttigfaer.journal", name = "enabled", havingValue = "true")
+    public OutboundJournal outboundJournal(JournalProperties journalProperties) throws IOException {
+        return new OutboundJournal(
+                Paths.get(journalProperties.getDirectory()),
+                journalProperties.getSegmentBytes(),
+                Duration.ofMinutes(journalProperties.getReplayMaxAgeMinutes()));
+    }
+
+    /**
+     * Повторяет неподтверждённые запросы из журнала после запуска приложения.
+     *
+     * @param journal  журнал исходящих запросов
+     * @param pipeline конвейер исходящих запросов
+     * @param client   клиент Telegram
+     * @return задача повтора
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ttigfaer.journal", name = "enabled", havingValue = "true")
+    public ApplicationRunner outboundJournalReplay(OutboundJournal journal, OutboundPipeline pipeline,
+                                                   TelegramClient client) {
+        return args -> journal.replay(pipeline, client);
+    }
+
+    /**
+     * Собирает конвейер исходящих запросов из всех бинов {@link OutboundStage}, включая пользовательские.
+     *
+     * @param stages стадии конвейера
+     * @return {@link OutboundPipeline}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboundPipeline outboundPipeline(List<OutboundStage> stages) {
+        return new OutboundPipeline(stages);
+    }
+}
@@ -2,9 +2,21 @@ package io.github.nyg404.ttigfaer.core.config;
 
 import io.github.nyg404.ttigfaer.api.Interface.CommandHandler;
 import io.github.nyg404.ttigfaer.core.Manager.CommandManager;
+import io.github.nyg404.ttigfaer.core.Manager.RateLimitManager;
 import io.github.nyg404.ttigfaer.core.Properties.AsyncProperties;
+import io.github.nyg404.ttigfaer.core.Properties.BroadcastProperties;
+import io.github.nyg404.ttigfaer.core.Properties.DispatchProperties;
+import io.github.nyg404.ttigfaer.core.Properties.HttpProperties;
+import io.github.nyg404.ttigfaer.core.Properties.JournalProperties;
+import io.github.nyg404.ttigfaer.core.Properties.MediaCacheProperties;
+import io.github.nyg404.ttigfaer.core.Properties.OutboundProperties;
+import io.github.nyg404.ttigfaer.core.Properties.WebhookProperties;
+import io.github.nyg404.ttigfaer.core.Utils.AdmissionControl;
 import io.github.nyg404.ttigfaer.core.Utils.ArgumentRegistry;
-import org.springframework.beans.factory.annotation.Qualifier;
+import io.github.nyg404.ttigfaer.core.Utils.ChatMailboxExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.PriorityExecutor;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import okhttp3.OkHttpClient;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -16,26 +28,32 @@ import org.telegram.telegrambots.meta.api.objects.chat.ChatFullInfo;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
 import java.util.List;
-import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
-@EnableConfigurationProperties({BotSettings.class, AsyncProperties.class})
+@EnableConfigurationProperties({BotSettings.class, AsyncProperties.class, DispatchProperties.class, WebhookProperties.class,
+        OutboundProperties.class, BroadcastProperties.class, MediaCacheProperties.class,
+        JournalProperties.class, HttpProperties.class})
 @ComponentScan(basePackages = "io.github.nyg404.ttigfaer")
-@Import(AsyncSettings.class)
+@Import({AsyncSettings.class, DispatchSettings.class, HttpSettings.class, OutboundSettings.class})
 public class TtigfaerAutoConfiguration {
 
 
     @Bean
-    public TelegramClient telegramClient(BotSettings botSettings) {
-        return new OkHttpTelegramClient(botSettings.getToken());
+    public TelegramClient telegramClient(BotSettings botSettings, OkHttpClient telegramHttpClient) {
+        return new OkHttpTelegramClient(telegramHttpClient, botSettings.getToken());
     }
 
     @Bean
     public CommandManager commandManager(List<CommandHandler> handlers,
-                                         @Qualifier("asyncExecutor") Executor asyncExecutor,
-                                         ArgumentRegistry argumentRegistry) {
-        return new CommandManager(handlers, asyncExecutor, argumentRegistry);
+                                         PriorityExecutor asyncExecutor,
+                                         ArgumentRegistry argumentRegistry,
+                                         ChatMailboxExecutor chatMailboxExecutor,
+                                         AdmissionControl admissionControl,
+                                         RateLimitManager rateLimitManager,
+                                         TimingWheel timingWheel) {
+        return new CommandManager(handlers, asyncExecutor, argumentRegistry, chatMailboxExecutor, admissionControl,
+                rateLimitManager, timingWheel);
     }
 
     @Bean
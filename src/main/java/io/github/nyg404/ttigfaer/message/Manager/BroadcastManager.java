@@ -0,0 +1,197 @@
+package io.github.nyg404.ttigfaer.message.Manager;
+
+import io.github.nyg404.ttigfaer.core.Properties.BroadcastProperties;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import io.github.nyg404.ttigfaer.message.Options.MessageOptions;
+import io.github.nyg404.ttigfaer.message.Utils.Broadcast;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Сервис массовых рассылок.
+ *
+ * <p>Рассылка ({@link Broadcast}) читает получателей потоком — из файла (один chat id в строке)
+ * или итератора, — отправляет их через {@link MessageManager} со скоростью {@code ttigfaer.broadcast.per-second}
+ * и сохраняет прогресс в каталоге {@code ttigfaer.broadcast.directory}. Повторный запуск с тем же
+ * именем продолжает рассылку после сбоя или перезапуска; завершённая рассылка повторно не отправляется.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BroadcastManager {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final MessageManager messageManager;
+    private final TimingWheel timingWheel;
+    private final BroadcastProperties properties;
+    private final Map<String, Broadcast> active = new ConcurrentHashMap<>();
+
+    /**
+     * Рассылает текстовое сообщение получателям из файла.
+     *
+     * @param name       имя рассылки (латиница, цифры, {@code . _ -})
+     * @param recipients файл с chat id, по одному в строке
+     * @param text       текст сообщения
+     * @return запущенная рассылка
+     * @throws IOException ошибка чтения файлов рассылки
+     */
+    public Broadcast start(String name, Path recipients, String text) throws IOException {
+        return start(name, recipients, text, null);
+    }
+
+    /**
+     * Рассылает текстовое сообщение с опциями получателям из файла.
+     *
+     * @param name       имя рассылки (латиница, цифры, {@code . _ -})
+     * @param recipients файл с chat id, по одному в строке
+     * @param text       текст сообщения
+     * @param options    опции сообщения
+     * @return запущенная рассылка
+     * @throws IOException ошибка чтения файлов рассылки
+     */
+    public Broadcast start(String name, Path recipients, String text, MessageOptions options) throws IOException {
+        return start(name, recipients, chatId -> messageManager.sendMessageAsync(chatId, text, options));
+    }
+
+    /**
+     * Рассылает произвольное сообщение получателям из файла.
+     *
+     * @param name       имя рассылки (латиница, цифры, {@code . _ -})
+     * @param recipients файл с chat id, по одному в строке; пустые и некорректные строки пропускаются
+     * @param sender     отправка одному получателю, например {@code id -> messageManager.sendPhotoAsync(id, photo)}
+     * @return запущенная рассылка
+     * @throws IOException ошибка чтения файлов рассылки
+     */
+    public Broadcast start(String name, Path recipients, LongFunction<CompletableFuture<?>> sender) throws IOException {
+        long total;
+        try (BufferedReader reader = Files.newBufferedReader(recipients, StandardCharsets.UTF_8)) {
+            total = 0;
+            for (Iterator<Long> it = new LineRecipients(reader); it.hasNext(); it.next()) {
+                total++;
+            }
+        }
+        BufferedReader reader = Files.newBufferedReader(recipients, StandardCharsets.UTF_8);
+        Broadcast broadcast;
+        try {
+            broadcast = start(name, new LineRecipients(reader), total, sender);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        broadcast.completion().whenComplete((progress, error) -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть {}: {}", recipients, e.getMessage());
+            }
+        });
+        return broadcast;
+    }
+
+    /**
+     * Рассылает произвольное сообщение получателям из итератора. Для продолжения после сбоя
+     * итератор должен возвращать получателей в том же порядке.
+     *
+     * @param name       имя рассылки (латиница, цифры, {@code . _ -})
+     * @param recipients получатели
+     * @param total      всего получателей или -1, если неизвестно (тогда нет оценки времени)
+     * @param sender     отправка одному получателю
+     * @return запущенная рассылка
+     * @throws IOException ошибка чтения файлов рассылки
+     */
+    public Broadcast start(String name, Iterator<Long> recipients, long total,
+                           LongFunction<CompletableFuture<?>> sender) throws IOException {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Недопустимое имя рассылки: " + name);
+        }
+        Broadcast broadcast = new Broadcast(name, recipients, total, sender, timingWheel,
+                properties.getPerSecond(), properties.getMaxInFlight(), properties.getCheckpointIntervalSeconds(),
+                Paths.get(properties.getDirectory()));
+        if (active.putIfAbsent(name, broadcast) != null) {
+            throw new IllegalStateException("Рассылка " + name + " уже выполняется");
+        }
+        broadcast.completion().whenComplete((progress, error) -> active.remove(name, broadcast));
+        try {
+            broadcast.start();
+        } catch (IOException | RuntimeException e) {
+            active.remove(name, broadcast);
+            throw e;
+        }
+        log.info("Рассылка {} запущена: {} получателей", name, total >= 0 ? total : "?");
+        return broadcast;
+    }
+
+    /**
+     * @param name имя рассылки
+     * @return выполняющаяся рассылка или null
+     */
+    public Broadcast get(String name) {
+        return active.get(name);
+    }
+
+    /**
+     * Останавливает выполняющиеся рассылки с сохранением прогресса.
+     */
+    @PreDestroy
+    public void stop() {
+        active.values().forEach(Broadcast::cancel);
+    }
+
+    /**
+     * Получатели из текстового файла: один chat id в строке.
+     */
+    private static final class LineRecipients implements Iterator<Long> {
+        private final BufferedReader reader;
+        private Long next;
+
+        private LineRecipients(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.strip();
+                    if (line.isEmpty()) continue;
+                    try {
+                        next = Long.parseLong(line);
+                        return true;
+                    } catch (NumberFormatException e) {
+                        log.warn("Пропущена некорректная строка получателя: {}", line);
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Long result = next;
+            next = null;
+            return result;
+        }
+    }
+}
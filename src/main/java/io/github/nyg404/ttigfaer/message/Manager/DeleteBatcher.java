@@ -0,0 +1,170 @@
+package io.github.nyg404.ttigfaer.message.Manager;
+
+import io.github.nyg404.ttigfaer.core.Properties.OutboundProperties;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Собирает удаления сообщений одного чата в запросы {@code deleteMessages}.
+ *
+ * <p>Удаление не отправляется сразу: ID копятся {@code ttigfaer.outbound.delete-window-millis}
+ * после первого из них, затем уходят одним запросом. Набрав 100 ID, пачка отправляется немедленно.
+ * Так очистка ответов бота или флуда спамера превращается из сотен запросов в несколько.</p>
+ *
+ * <p>У каждого ID свой результат. Если Telegram отклонил пачку целиком (например, одно сообщение
+ * нельзя удалить), ID удаляются по одному, и каждый результат показывает свой исход.</p>
+ */
+@Slf4j
+@Service
+public class DeleteBatcher {
+    /** Наибольшее количество сообщений в одном запросе {@code deleteMessages}. */
+    private static final int MAX_BATCH = 100;
+
+    private final MessageManager messageManager;
+    private final TimingWheel timingWheel;
+    private final long windowMillis;
+    private final Map<Long, Batch> batches = new ConcurrentHashMap<>();
+
+    public DeleteBatcher(MessageManager messageManager, TimingWheel timingWheel, OutboundProperties properties) {
+        this.messageManager = messageManager;
+        this.timingWheel = timingWheel;
+        this.windowMillis = properties.getDeleteWindowMillis();
+    }
+
+    /**
+     * Удаляет сообщение в составе ближайшей пачки чата.
+     *
+     * @param chatId    ID чата
+     * @param messageId ID сообщения
+     * @return true, если сообщение удалено (или его уже не было)
+     */
+    public CompletableFuture<Boolean> delete(long chatId, int messageId) {
+        while (true) {
+            Batch batch = batches.computeIfAbsent(chatId, Batch::new);
+            CompletableFuture<Boolean> result;
+            boolean full;
+            synchronized (batch) {
+                if (batch.closed) continue;
+                result = batch.ids.computeIfAbsent(messageId, id -> new CompletableFuture<>());
+                full = batch.ids.size() >= MAX_BATCH;
+                if (full) {
+                    close(batch);
+                } else if (!batch.timerArmed) {
+                    batch.timerArmed = true;
+                    timingWheel.schedule(() -> flush(batch), windowMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (full) send(batch);
+            return result;
+        }
+    }
+
+    /**
+     * Удаляет несколько сообщений чата.
+     *
+     * @param chatId     ID чата
+     * @param messageIds ID сообщений
+     * @return true, если удалены все сообщения
+     */
+    public CompletableFuture<Boolean> delete(long chatId, Collection<Integer> messageIds) {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(messageIds.size());
+        for (int messageId : messageIds) {
+            results.add(delete(chatId, messageId));
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().allMatch(result -> Boolean.TRUE.equals(result.join())));
+    }
+
+    /**
+     * @return количество ID, ожидающих отправки
+     */
+    public int pending() {
+        int pending = 0;
+        for (Batch batch : batches.values()) {
+            synchronized (batch) {
+                pending += batch.ids.size();
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Отправляет накопленные удаления, не дожидаясь окна.
+     */
+    @PreDestroy
+    public void flushAll() {
+        batches.values().forEach(this::flush);
+    }
+
+    private void flush(Batch batch) {
+        synchronized (batch) {
+            if (batch.closed) return;
+            close(batch);
+        }
+        send(batch);
+    }
+
+    /** Закрывает пачку для новых ID; вызывается под монитором пачки. */
+    private void close(Batch batch) {
+        batch.closed = true;
+        batches.remove(batch.chatId, batch);
+    }
+
+    private void send(Batch batch) {
+        if (batch.ids.size() == 1) {
+            batch.ids.forEach((id, result) -> forward(messageManager.deleteMessageAsync(batch.chatId, id), result));
+            return;
+        }
+        messageManager.deleteMessagesAsync(batch.chatId, batch.ids.keySet()).whenComplete((deleted, error) -> {
+            if (error == null) {
+                batch.ids.values().forEach(result -> result.complete(Boolean.TRUE.equals(deleted)));
+                return;
+            }
+            Throwable cause = OutboundPipeline.unwrap(error);
+            if (cause instanceof TelegramApiRequestException e && Integer.valueOf(400).equals(e.getErrorCode())) {
+                log.debug("Пачка удалений в чате {} отклонена, удаляем по одному: {}", batch.chatId, e.getMessage());
+                batch.ids.forEach((id, result) -> forward(messageManager.deleteMessageAsync(batch.chatId, id), result));
+            } else {
+                batch.ids.values().forEach(result -> result.completeExceptionally(cause));
+            }
+        });
+    }
+
+    private static void forward(CompletableFuture<Boolean> source, CompletableFuture<Boolean> target) {
+        source.whenComplete((deleted, error) -> {
+            if (error != null) {
+                target.completeExceptionally(OutboundPipeline.unwrap(error));
+            } else {
+                target.complete(deleted);
+            }
+        });
+    }
+
+    /**
+     * Удаления одного чата, ожидающие отправки. Поля защищены монитором пачки;
+     * после закрытия пачка не меняется.
+     */
+    private static final class Batch {
+        private final long chatId;
+        private final Map<Integer, CompletableFuture<Boolean>> ids = new LinkedHashMap<>();
+        private boolean timerArmed;
+        private boolean closed;
+
+        private Batch(long chatId) {
+            this.chatId = chatId;
+        }
+    }
+}
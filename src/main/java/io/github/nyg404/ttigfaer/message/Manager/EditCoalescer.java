@@ -0,0 +1,217 @@
+package io.github.nyg404.ttigfaer.message.Manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.nyg404.ttigfaer.core.Properties.OutboundProperties;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import io.github.nyg404.ttigfaer.message.Options.EditTextOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Объединяет частые правки одного сообщения (прогресс-бары, потоковый вывод текста).
+ *
+ * <p>Для каждой пары (чат, сообщение) хранится только последнее ожидающее состояние — текст и
+ * {@link EditTextOptions}. Правки уходят в Telegram не чаще одной за {@code ttigfaer.outbound.edit-interval-millis}
+ * и никогда не перекрываются: пока правка выполняется, новые вызовы лишь заменяют ожидающее состояние.
+ * Правка, совпадающая с последним отправленным (или отправляемым) состоянием, не отправляется.</p>
+ *
+ * <p>Все вызовы, чьё состояние было заменено до отправки, получают один и тот же результат — он
+ * завершается, когда в Telegram попадёт итоговое состояние. Так десятки вызовов превращаются
+ * в несколько запросов, а последний текст всегда доходит.</p>
+ */
+@Slf4j
+@Service
+public class EditCoalescer {
+    /** Ответ Telegram на правку, не меняющую сообщение. */
+    private static final String NOT_MODIFIED = "message is not modified";
+
+    private final MessageManager messageManager;
+    private final TimingWheel timingWheel;
+    private final long intervalNanos;
+
+    // Состояние правок: ключ — chatId:messageId. Запись без ожидающей правки нужна только для
+    // пропуска повторов и удаляется после простоя
+    private final Cache<String, Slot> slots = Caffeine.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    public EditCoalescer(MessageManager messageManager, TimingWheel timingWheel, OutboundProperties properties) {
+        this.messageManager = messageManager;
+        this.timingWheel = timingWheel;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getEditIntervalMillis());
+    }
+
+    /**
+     * Изменяет текст сообщения, объединяя частые вызовы.
+     *
+     * @param chatId    ID чата
+     * @param messageId ID сообщения
+     * @param text      новый текст
+     * @return результат правки, в которую вошёл этот вызов
+     */
+    public CompletableFuture<Serializable> editText(long chatId, int messageId, String text) {
+        return editText(chatId, messageId, text, null);
+    }
+
+    /**
+     * Изменяет текст и опции (например, клавиатуру) сообщения, объединяя частые вызовы.
+     *
+     * @param chatId    ID чата
+     * @param messageId ID сообщения
+     * @param text      новый текст
+     * @param options   опции правки
+     * @return результат правки, в которую вошёл этот вызов
+     */
+    public CompletableFuture<Serializable> editText(long chatId, int messageId, String text, EditTextOptions options) {
+        Slot slot = slots.get(chatId + ":" + messageId, k -> new Slot(chatId, messageId));
+        State state = new State(text, options);
+        CompletableFuture<Serializable> result;
+        synchronized (slot) {
+            if (slot.pending == null) {
+                if (state.equals(slot.inFlight != null ? slot.inFlight : slot.sent)) {
+                    return slot.inFlight != null ? slot.inFlightResult : CompletableFuture.completedFuture(slot.sentResult);
+                }
+                slot.pendingResult = new CompletableFuture<>();
+            }
+            slot.pending = state;
+            result = slot.pendingResult;
+        }
+        flush(slot);
+        return result;
+    }
+
+    /**
+     * @return количество сообщений, у которых есть ожидающая или выполняющаяся правка
+     */
+    public long pending() {
+        return slots.asMap().values().stream()
+                .filter(slot -> {
+                    synchronized (slot) {
+                        return slot.pending != null || slot.inFlight != null;
+                    }
+                })
+                .count();
+    }
+
+    /**
+     * Отправляет ожидающее состояние, если правка не выполняется и интервал прошёл; иначе ставит таймер.
+     */
+    private void flush(Slot slot) {
+        State state;
+        CompletableFuture<Serializable> result;
+        synchronized (slot) {
+            if (slot.pending == null || slot.inFlight != null || slot.timerArmed) return;
+            long now = System.nanoTime();
+            long wait = slot.nextAt - now;
+            if (wait > 0) {
+                slot.timerArmed = true;
+                timingWheel.schedule(() -> {
+                    synchronized (slot) {
+                        slot.timerArmed = false;
+                    }
+                    flush(slot);
+                }, wait, TimeUnit.NANOSECONDS);
+                return;
+            }
+            // Последнее состояние могло совпасть с уже отправленным — тогда запрос не нужен
+            if (slot.pending.equals(slot.sent)) {
+                result = slot.pendingResult;
+                slot.pending = null;
+                slot.pendingResult = null;
+                result.complete(slot.sentResult);
+                return;
+            }
+            state = slot.pending;
+            result = slot.pendingResult;
+            slot.inFlight = state;
+            slot.inFlightResult = result;
+            slot.pending = null;
+            slot.pendingResult = null;
+            slot.nextAt = now + intervalNanos;
+        }
+
+        messageManager.editTextAsync(slot.chatId, slot.messageId, state.text, state.options)
+                .whenComplete((value, error) -> {
+                    Throwable cause = error != null ? OutboundPipeline.unwrap(error) : null;
+                    boolean landed = cause == null || isNotModified(cause);
+                    synchronized (slot) {
+                        slot.inFlight = null;
+                        slot.inFlightResult = null;
+                        if (landed) {
+                            slot.sent = state;
+                            slot.sentResult = value;
+                        }
+                    }
+                    flush(slot);
+                    if (landed) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(cause);
+                    }
+                });
+    }
+
+    private static boolean isNotModified(Throwable error) {
+        return error instanceof TelegramApiRequestException e
+                && e.getApiResponse() != null
+                && e.getApiResponse().contains(NOT_MODIFIED);
+    }
+
+    /**
+     * Содержимое правки.
+     */
+    private static final class State {
+        private final String text;
+        private final EditTextOptions options;
+
+        private State(String text, EditTextOptions options) {
+            this.text = text;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof State state)) return false;
+            return Objects.equals(text, state.text) && Objects.equals(options, state.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, options);
+        }
+    }
+
+    /**
+     * Правки одного сообщения. Поля защищены монитором записи.
+     */
+    private static final class Slot {
+        private final long chatId;
+        private final int messageId;
+        /** Последнее состояние, которое точно есть в Telegram. */
+        private State sent;
+        private Serializable sentResult;
+        /** Выполняющаяся правка. */
+        private State inFlight;
+        private CompletableFuture<Serializable> inFlightResult;
+        /** Последнее ещё не отправленное состояние и общий результат всех вызовов, вошедших в него. */
+        private State pending;
+        private CompletableFuture<Serializable> pendingResult;
+        /** Раньше этого времени следующая правка не отправляется, нс. */
+        private long nextAt = System.nanoTime();
+        private boolean timerArmed;
+
+        private Slot(long chatId, int messageId) {
+            this.chatId = chatId;
+            this.messageId = messageId;
+        }
+    }
+}
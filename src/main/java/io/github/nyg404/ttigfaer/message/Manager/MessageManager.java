@@ -3,15 +3,21 @@ package io.github.nyg404.ttigfaer.message.Manager;
 import io.github.nyg404.ttigfaer.api.Interface.async.MessageServiceAsync;
 import io.github.nyg404.ttigfaer.api.Message.MessageContext;
 import io.github.nyg404.ttigfaer.api.Interface.MessageService;
+import io.github.nyg404.ttigfaer.core.Enum.MediaKind;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
 import io.github.nyg404.ttigfaer.message.Options.*;
+import io.github.nyg404.ttigfaer.message.Utils.MediaFileCache;
 import io.github.nyg404.ttigfaer.message.Utils.MessageOptionUtils;
-import jakarta.annotation.PreDestroy;
+import io.github.nyg404.ttigfaer.message.Utils.TextSplitter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.methods.ForwardMessage;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.*;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessages;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageMedia;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.InputFile;
@@ -20,11 +26,15 @@ import org.telegram.telegrambots.meta.api.objects.message.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Сервис для отправки и редактирования сообщений, а также мультимедийного контента
@@ -34,33 +44,40 @@ import java.util.concurrent.TimeUnit;
  * голосовых сообщений, стикеров и анимаций. Также реализует методы пересылки сообщений
  * и редактирования уже отправленных сообщений (текста и медиа).</p>
  *
- * <p>Использует {@link TelegramClient} для выполнения запросов к Telegram API и
- * обрабатывает возможные исключения {@link TelegramApiException} с логированием ошибок.</p>
+ * <p>Каждый метод собирает запрос и передаёт его в {@link OutboundPipeline}, который вызывает
+ * неблокирующий {@link TelegramClient#executeAsync}. Асинхронные методы возвращают
+ * {@link CompletableFuture} с результатом и не занимают потоков, синхронные дожидаются его.
+ * Повторно отправляемые файлы заменяются на {@code file_id} через {@link MediaFileCache}.
+ * Текст длиннее лимита Telegram делится {@link TextSplitter}, а медиа-группа больше 10 элементов —
+ * на несколько групп; части отправляются подряд в очередь чата.
+ * Ошибки {@link TelegramApiException} логируются; синхронные методы в этом случае возвращают {@code null}.</p>
+ *
+ * <p>Синхронный метод ждёт, пока запрос пройдёт очередь чата и лимиты Telegram. Отправка сообщений
+ * соблюдает лимит чата ({@code ttigfaer.outbound.private-per-second}, {@code group-per-minute}),
+ * поэтому несколько синхронных отправок подряд в группу занимают поток обработчика на секунды —
+ * в таких случаях используйте асинхронные методы. Медиа-группа расходует лимит по числу элементов.
+ * Правки и удаления лимитом чата не ограничены, но после 429 ждут {@code retry_after} вместе с чатом.</p>
  */
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class MessageManager implements MessageService, MessageServiceAsync {
+    private static final int MAX_MEDIA_GROUP = 10;
+
     private final TelegramClient client;
-    private final ExecutorService executorService;
-
-//    @Override
-//    public void sendMessage(MessageContext context, String text) {
-//        sendMessage(context.getChatId(), text, null);
-//    }
-//
-//    @Override
-//    public void sendMessage(MessageContext context, String text, MessageOptions options) {
-//        sendMessage(context.getChatId(), text, options);
-//    }
+    private final OutboundPipeline pipeline;
+    private final MediaFileCache mediaCache;
+    private final ExecutorService executorService; // Хеширование и копирование файлов для MediaFileCache
+
     /**
      * Отправляет текстовое сообщение в указанный чат.
      * @param chatId ID чата
      * @param text текст сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendMessage(long chatId, String text) {
-        sendMessage(chatId, text, null);
+    public Message sendMessage(long chatId, String text) {
+        return sendMessage(chatId, text, null);
     }
 
     /**
@@ -68,32 +85,45 @@ public class MessageManager implements MessageService, MessageServiceAsync {
      * @param chatId ID чата
      * @param text текст сообщения
      * @param options дополнительные опции для сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendMessage(long chatId, String text, MessageOptions options) {
-        SendMessage.SendMessageBuilder builder = SendMessage.builder()
-                .chatId(String.valueOf(chatId))
-                .text(text);
+    public Message sendMessage(long chatId, String text, MessageOptions options) {
+        return await(sendMessageAsync(chatId, text, options));
+    }
 
-        MessageOptionUtils.applyMessageOptions(builder, options);
+    /**
+     * Отправляет текст любой длины, разделив его на несколько сообщений.
+     * @param chatId ID чата
+     * @param text текст сообщения
+     * @return отправленные сообщения или null в случае ошибки
+     */
+    @Override
+    public List<Message> sendLongMessage(long chatId, String text) {
+        return sendLongMessage(chatId, text, null);
+    }
 
-        try {
-            client.execute(builder.build());
-            log.info("Сообщение отправлено в чат {}", chatId);
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке сообщения в чат {}: {}", chatId, e.getMessage(), e);
-        }
+    /**
+     * Отправляет текст любой длины с опциями, разделив его на несколько сообщений.
+     * @param chatId ID чата
+     * @param text текст сообщения
+     * @param options дополнительные опции для сообщения
+     * @return отправленные сообщения или null в случае ошибки
+     */
+    @Override
+    public List<Message> sendLongMessage(long chatId, String text, MessageOptions options) {
+        return await(sendLongMessageAsync(chatId, text, options));
     }
 
     /**
      * Отправляет ответное сообщение (reply) в чат из контекста.
      * @param context контекст сообщения
      * @param text текст ответа
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendReplayMessage(MessageContext context, String text) {
-        sendReplayMessage(context, text, null);
+    public Message sendReplayMessage(MessageContext context, String text) {
+        return sendReplayMessage(context, text, null);
     }
 
     /**
@@ -102,21 +132,11 @@ public class MessageManager implements MessageService, MessageServiceAsync {
      * @param context Контекст сообщения
      * @param text    Текст ответа
      * @param options Опции сообщения.
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendReplayMessage(MessageContext context, String text, MessageOptions options) {
-        SendMessage.SendMessageBuilder builder = SendMessage.builder()
-                .chatId(context.getChatId())
-                .replyToMessageId(context.getReplyToMessageId());
-        MessageOptionUtils.applyMessageOptions(builder, options);
-
-        try {
-            client.execute(builder.build());
-            log.info("Сообщение отправлено в чат {}", context.getChatId());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке сообщения в чат {}: {}", context.getChatId(), e.getMessage(), e);
-        }
+    public Message sendReplayMessage(MessageContext context, String text, MessageOptions options) {
+        return await(sendReplayMessageAsync(context, text, options));
     }
 
     /**
@@ -128,38 +148,18 @@ public class MessageManager implements MessageService, MessageServiceAsync {
      */
     @Override
     public Message sendForwardMessage(MessageContext context, long targetChatId, Message message) {
-        ForwardMessage forwardMessage = ForwardMessage.builder()
-                .chatId(String.valueOf(targetChatId))
-                .fromChatId(String.valueOf(message.getChatId()))
-                .messageId(message.getMessageId())
-                .build();
-
-        try {
-            return client.execute(forwardMessage);
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при пересылке сообщения: {}", e.getMessage(), e);
-            return null;
-        }
+        return await(sendForwardMessageAsync(context, targetChatId, message));
     }
 
-//    @Override
-//    public void sendAudio(MessageContext ctx, InputFile file) {
-//        sendAudio(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendAudio(MessageContext ctx, InputFile file, AudioOptions options) {
-//        sendAudio(ctx.getChatId(), file, options);
-//    }
-
     /**
      * Отправляет аудиофайл в указанный чат.
      * @param chatId ID чата
      * @param file аудиофайл
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendAudio(long chatId, InputFile file) {
-        sendAudio(chatId, file, null);
+    public Message sendAudio(long chatId, InputFile file) {
+        return sendAudio(chatId, file, null);
     }
 
     /**
@@ -167,927 +167,846 @@ public class MessageManager implements MessageService, MessageServiceAsync {
      * @param chatId ID чата
      * @param file аудиофайл
      * @param options дополнительные опции для аудио
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendAudio(long chatId, InputFile file, AudioOptions options) {
-        SendAudio.SendAudioBuilder builder = SendAudio.builder()
-                .chatId(String.valueOf(chatId))
-                .audio(file);
-
-        MessageOptionUtils.applyAudioOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке аудио в чат {}: {}", chatId, e.getMessage(), e);
-        }
+    public Message sendAudio(long chatId, InputFile file, AudioOptions options) {
+        return await(sendAudioAsync(chatId, file, options));
     }
 
-//    @Override
-//    public void sendPhoto(MessageContext ctx, InputFile file) {
-//        sendPhoto(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendPhoto(MessageContext ctx, InputFile file, PhotoOptions options) {
-//        sendPhoto(ctx.getChatId(), file, options);
-//    }
-
     /**
      * Отправляет фотографию в указанный чат.
      * @param chatId ID чата
-     * @param file файл фотографии
+     * @param file фото
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendPhoto(long chatId, InputFile file) {
-        sendPhoto(chatId, file, null);
+    public Message sendPhoto(long chatId, InputFile file) {
+        return sendPhoto(chatId, file, null);
     }
 
     /**
      * Отправляет фотографию в указанный чат с опциями.
      * @param chatId ID чата
-     * @param file файл фотографии
-     * @param options дополнительные опции для фотографии
+     * @param file фото
+     * @param options дополнительные опции для фото
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendPhoto(long chatId, InputFile file, PhotoOptions options) {
-        SendPhoto.SendPhotoBuilder builder = SendPhoto.builder()
-                .chatId(chatId)
-                .photo(file);
-
-        MessageOptionUtils.applyPhotoOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка отправки фотографии: {}", e.getMessage(), e);
-        }
+    public Message sendPhoto(long chatId, InputFile file, PhotoOptions options) {
+        return await(sendPhotoAsync(chatId, file, options));
     }
 
-//    @Override
-//    public void sendAnimation(MessageContext ctx, InputFile file) {
-//        sendAnimation(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendAnimation(MessageContext ctx, InputFile file, AnimationOptions options) {
-//        sendAnimation(ctx.getChatId(), file, options);
-//    }
-
     /**
      * Отправляет анимацию в указанный чат.
      * @param chatId ID чата
-     * @param file файл анимации
+     * @param file анимация
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendAnimation(long chatId, InputFile file) {
-        sendAnimation(chatId, file, null);
+    public Message sendAnimation(long chatId, InputFile file) {
+        return sendAnimation(chatId, file, null);
     }
 
     /**
      * Отправляет анимацию в указанный чат с опциями.
      * @param chatId ID чата
-     * @param file файл анимации
+     * @param file анимация
      * @param options дополнительные опции для анимации
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendAnimation(long chatId, InputFile file, AnimationOptions options) {
-        SendAnimation.SendAnimationBuilder builder = SendAnimation.builder()
-                .chatId(chatId)
-                .animation(file);
-
-        MessageOptionUtils.applyAnimationOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке анимации: {}", e.getMessage(), e);
-        }
+    public Message sendAnimation(long chatId, InputFile file, AnimationOptions options) {
+        return await(sendAnimationAsync(chatId, file, options));
     }
 
-//    @Override
-//    public void sendVideo(MessageContext ctx, InputFile file) {
-//        sendVideo(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendVideo(MessageContext ctx, InputFile file, VideoOptions options) {
-//        sendVideo(ctx.getChatId(), file, options);
-//    }
-
     /**
      * Отправляет видео в указанный чат.
      * @param chatId ID чата
-     * @param file видеофайл
+     * @param file видео
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendVideo(long chatId, InputFile file) {
-        sendVideo(chatId, file, null);
+    public Message sendVideo(long chatId, InputFile file) {
+        return sendVideo(chatId, file, null);
     }
 
     /**
      * Отправляет видео в указанный чат с опциями.
      * @param chatId ID чата
-     * @param file видеофайл
+     * @param file видео
      * @param options дополнительные опции для видео
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendVideo(long chatId, InputFile file, VideoOptions options) {
-        SendVideo.SendVideoBuilder builder = SendVideo.builder()
-                .chatId(chatId)
-                .video(file);
-
-        MessageOptionUtils.applyVideoOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке видео: {}", e.getMessage(), e);
-        }
+    public Message sendVideo(long chatId, InputFile file, VideoOptions options) {
+        return await(sendVideoAsync(chatId, file, options));
     }
 
-//    @Override
-//    public void sendDocument(MessageContext ctx, InputFile file) {
-//        sendDocument(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendDocument(MessageContext ctx, InputFile file, DocumentOptions options) {
-//        sendDocument(ctx.getChatId(), file, options);
-//    }
-
     /**
      * Отправляет документ в указанный чат.
      * @param chatId ID чата
-     * @param file файл документа
+     * @param file документ
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendDocument(long chatId, InputFile file) {
-        sendDocument(chatId, file, null);
+    public Message sendDocument(long chatId, InputFile file) {
+        return sendDocument(chatId, file, null);
     }
 
     /**
      * Отправляет документ в указанный чат с опциями.
      * @param chatId ID чата
-     * @param file файл документа
+     * @param file документ
      * @param options дополнительные опции для документа
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendDocument(long chatId, InputFile file, DocumentOptions options) {
-        SendDocument.SendDocumentBuilder builder = SendDocument.builder()
-                .chatId(chatId)
-                .document(file);
-
-        MessageOptionUtils.applyDocumentOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке документа: {}", e.getMessage(), e);
-        }
+    public Message sendDocument(long chatId, InputFile file, DocumentOptions options) {
+        return await(sendDocumentAsync(chatId, file, options));
     }
 
-//    @Override
-//    public void sendVoice(MessageContext ctx, InputFile file) {
-//        sendVoice(ctx.getChatId(), file, null);
-//    }
-//
-//    @Override
-//    public void sendVoice(MessageContext ctx, InputFile file, VoiceOptions options) {
-//        sendVoice(ctx.getChatId(), file, options);
-//    }
     /**
      * Отправляет голосовое сообщение в указанный чат.
      * @param chatId ID чата
-     * @param file аудиофайл голосового сообщения
+     * @param file голосовое сообщение
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendVoice(long chatId, InputFile file) {
-        sendVoice(chatId, file, null);
+    public Message sendVoice(long chatId, InputFile file) {
+        return sendVoice(chatId, file, null);
     }
 
     /**
      * Отправляет голосовое сообщение в указанный чат с опциями.
      * @param chatId ID чата
-     * @param file аудиофайл голосового сообщения
+     * @param file голосовое сообщение
      * @param options дополнительные опции для голосового сообщения
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendVoice(long chatId, InputFile file, VoiceOptions options) {
-        SendVoice.SendVoiceBuilder builder = SendVoice.builder()
-                .chatId(String.valueOf(chatId))
-                .voice(file);
-
-        MessageOptionUtils.applyVoiceOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке голосового сообщения в чат {}: {}", chatId, e.getMessage(), e);
-        }
+    public Message sendVoice(long chatId, InputFile file, VoiceOptions options) {
+        return await(sendVoiceAsync(chatId, file, options));
     }
 
-
-    // Location
-//    @Override
-//    public void sendLocation(MessageContext ctx, double latitude, double longitude) {
-//        sendLocation(ctx.getChatId(), latitude, longitude);
-//    }
-//
-//    @Override
-//    public void sendLocation(long chatId, double latitude, double longitude) {
-//        SendLocation sendLocation = SendLocation.builder()
-//                .chatId(String.valueOf(chatId))
-//                .latitude(latitude)
-//                .longitude(longitude)
-//                .build();
-//
-//        try {
-//            client.execute(sendLocation);
-//        } catch (TelegramApiException e) {
-//            log.error("Ошибка при отправке геолокации в чат {}: {}", chatId, e.getMessage(), e);
-//        }
-//    }
-
-//    @Override
-//    public void sendStiker(MessageContext ctx, InputFile file) {
-//        sendStiker(ctx.getChatId(), file);
-//    }
-
-    /**
-     * Отправляет в чат стикер.
-     * @param chatId Id чата
-     * @param file file
+    /**
+     * Отправляет стикер в указанный чат.
+     * @param chatId ID чата
+     * @param file стикер
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    public void sendSticker(long chatId, InputFile file){
-        sendSticker(chatId, file, null);
+    public Message sendSticker(long chatId, InputFile file) {
+        return sendSticker(chatId, file, null);
     }
 
     /**
-     * Отправляет в чат стикер с опциями.
-     * @param chatId Id чата
-     * @param file file
-     * @param options опции
+     * Отправляет стикер в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file стикер
+     * @param options дополнительные опции для стикера
+     * @return отправленное сообщение или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendSticker(long chatId, InputFile file, StickerOptions options) {
-        SendSticker.SendStickerBuilder builder = SendSticker.builder()
-                .chatId(chatId)
-                .sticker(file);
-        MessageOptionUtils.applyStickerOptions(builder, options, file);
-
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке геолокации в чат {}: {}", chatId, e.getMessage(), e);
-        }
+    public Message sendSticker(long chatId, InputFile file, StickerOptions options) {
+        return await(sendStickerAsync(chatId, file, options));
     }
 
     /**
-     * Супер-метод позволяющий отправлять медя в группу. 10 изображений, документов и т.д в одном сообщении
-     * @param chatId Id чата куда
-     * @param groupMedia Группа типа
+     * Отправляет медиа-группу в указанный чат.
+     * @param chatId ID чата
+     * @param groupMedia элементы медиа-группы
+     * @return отправленные сообщения или null в случае ошибки
      */
     @Override
-    public void sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia){
-        sendMediaGroup(chatId, groupMedia, null);
+    public List<Message> sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia) {
+        return sendMediaGroup(chatId, groupMedia, null);
     }
 
     /**
-     * Супер-метод позволяющий отправлять медя в группу. 10 изображений, документов и т.д в одном сообщении
-     * @param chatId Id чата куда
-     * @param groupMedia Группа типа
-     * @param options опции по желанию.
+     * Отправляет медиа-группу в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param groupMedia элементы медиа-группы
+     * @param options дополнительные опции для медиа-группы
+     * @return отправленные сообщения или null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options) {
-        if (groupMedia == null || groupMedia.isEmpty()) {
-            log.warn("Попытка отправки пустой медиа-группы в чат {}", chatId);
-            return;
-        }
-
-        SendMediaGroup.SendMediaGroupBuilder builder = SendMediaGroup.builder()
-                .chatId(String.valueOf(chatId))
-                .medias(new ArrayList<>(groupMedia));
-
-        MessageOptionUtils.applyMediaOptions(builder, options);
-
-        try {
-            client.execute(builder.build());
-            log.info("Медиа-группа ({} элементов) отправлена в чат {}", groupMedia.size(), chatId);
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при отправке медиа-группы в чат {}: {}", chatId, e.getMessage(), e);
-            throw new RuntimeException("Не удалось отправить медиа-группу в чат " + chatId, e);
-        }
+    public List<Message> sendMediaGroup(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options) {
+        return await(sendMediaGroupAsync(chatId, groupMedia, options));
     }
 
     /**
-     * Редактирует текст сообщения.
+     * Изменяет текст сообщения.
      * @param chatId ID чата
-     * @param messageId ID сообщения для редактирования
-     * @param text новый текст сообщения
+     * @param messageId ID сообщения
+     * @param text новый текст
+     * @return изменённое сообщение (или {@code true} для inline-сообщений), null в случае ошибки
      */
     @Override
-    public void editText(long chatId, int messageId, String text) {
-        editText(chatId, messageId, text, null);
+    public Serializable editText(long chatId, int messageId, String text) {
+        return editText(chatId, messageId, text, null);
     }
 
     /**
-     * Редактирует текст сообщения.
+     * Изменяет текст сообщения с опциями.
      * @param chatId ID чата
-     * @param messageId ID сообщения для редактирования
-     * @param text новый текст сообщения
-     * @param options опции.
+     * @param messageId ID сообщения
+     * @param text новый текст
+     * @param options дополнительные опции
+     * @return изменённое сообщение (или {@code true} для inline-сообщений), null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void editText(long chatId, int messageId, String text, EditTextOptions options) {
-        EditMessageText.EditMessageTextBuilder builder = EditMessageText.builder()
-                .chatId(chatId)
-                .messageId(messageId)
-                .text(text);
-        MessageOptionUtils.applyEditTextOptions(builder, options);
+    public Serializable editText(long chatId, int messageId, String text, EditTextOptions options) {
+        return await(editTextAsync(chatId, messageId, text, options));
+    }
 
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при изменения сообщения {}: {}", chatId, e.getMessage(), e);
-        }
+    /**
+     * Изменяет медиа сообщения.
+     * @param chatId ID чата
+     * @param messageId ID сообщения
+     * @param file новое медиа
+     * @return изменённое сообщение (или {@code true} для inline-сообщений), null в случае ошибки
+     */
+    @Override
+    public Serializable editMedia(long chatId, int messageId, InputMedia file) {
+        return editMedia(chatId, messageId, file, null);
     }
 
     /**
-     * Редактирует медиа сообщения.
+     * Изменяет медиа сообщения с опциями.
      * @param chatId ID чата
-     * @param messageId ID сообщения для редактирования
+     * @param messageId ID сообщения
      * @param file новое медиа
+     * @param options дополнительные опции
+     * @return изменённое сообщение (или {@code true} для inline-сообщений), null в случае ошибки
      */
     @Override
-    @SuppressWarnings("all")
-    public void editMedia(long chatId, int messageId, InputMedia file) {
-        editMedia(chatId, messageId, file, null);
+    public Serializable editMedia(long chatId, int messageId, InputMedia file, EditMediaOptions options) {
+        return await(editMediaAsync(chatId, messageId, file, options));
     }
 
     /**
-     * Изменяет мультимедийное сообщение в чате по заданному идентификатору сообщения.
-     *
-     * @param chatId  Идентификатор чата, в котором находится сообщение.
-     * @param messageId Идентификатор сообщения, которое нужно изменить.
-     * @param file Новый объект мультимедиа (InputMedia) для замены текущего содержимого.
-     * @param options Дополнительные опции для редактирования сообщения.
+     * Удаляет сообщение.
+     * @param chatId ID чата
+     * @param messageId ID сообщения
+     * @return true, если сообщение удалено
      */
     @Override
-    @SuppressWarnings("all")
-    public void editMedia(long chatId, int messageId, InputMedia file, EditMediaOptions options) {
-        EditMessageMedia.EditMessageMediaBuilder builder = EditMessageMedia.builder()
-                .chatId(String.valueOf(chatId))
-                .messageId(messageId)
-                .media(file);
-        MessageOptionUtils.applyEditMediaOptions(builder, options);
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при изменении сообщения {}: {}", chatId, e.getMessage(), e);
-        }
+    public boolean deleteMessage(long chatId, int messageId) {
+        return Boolean.TRUE.equals(await(deleteMessageAsync(chatId, messageId)));
     }
 
     /**
-     * Удаляет сообщение в чате по заданому идентификатору сообщения.
-     * @param chatId  Идентификатор чата, в котором находися сообщение
-     * @param messageID  Идентификатор сообщение, которое нужно изменить
+     * Удаляет несколько сообщений одного чата.
+     * @param chatId ID чата
+     * @param messageIds ID сообщений (до 100)
+     * @return true, если запрос выполнен
      */
     @Override
-    @SuppressWarnings("all")
-    public void deleteMessage(long chatId, int messageID){
-        DeleteMessage.DeleteMessageBuilder builder = DeleteMessage.builder()
-                .chatId(chatId)
-                .messageId(messageID);
-        try {
-            client.execute(builder.build());
-        } catch (TelegramApiException e) {
-            log.error("Ошибка при удалении сообщения {}: {}", chatId, e.getMessage(), e);
-        }
+    public boolean deleteMessages(long chatId, Collection<Integer> messageIds) {
+        return Boolean.TRUE.equals(await(deleteMessagesAsync(chatId, messageIds)));
     }
 
     /**
-     * Асинхронно отправить текстовое сообщение в чат.
-     *
+     * Асинхронно отправляет текстовое сообщение в указанный чат.
      * @param chatId ID чата
-     * @param text   Текст сообщения
+     * @param text текст сообщения
+     * @return отправленное сообщение
      */
     @Override
-    public void sendMessageAsync(long chatId, String text) {
-        sendMessageAsync(chatId, text, null);
+    public CompletableFuture<Message> sendMessageAsync(long chatId, String text) {
+        return sendMessageAsync(chatId, text, null);
     }
 
     /**
-     * Асинхронно отправить текстовое сообщение в чат с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param text    Текст сообщения
-     * @param options Опции сообщения
+     * Асинхронно отправляет текстовое сообщение в указанный чат с опциями.
+     * Текст длиннее лимита Telegram отправляется несколькими сообщениями.
+     * @param chatId ID чата
+     * @param text текст сообщения
+     * @param options дополнительные опции для сообщения
+     * @return отправленное сообщение; для длинного текста — последнее из них
      */
     @Override
-    @SuppressWarnings("all")
-    public void sendMessageAsync(long chatId, String text, MessageOptions options) {
-        executorService.submit(() -> {
-            SendMessage.SendMessageBuilder builder = SendMessage.builder()
-                    .chatId(String.valueOf(chatId))
-                    .text(text);
+    public CompletableFuture<Message> sendMessageAsync(long chatId, String text, MessageOptions options) {
+        return last(sendText(chatId, text, options, null, "отправке сообщения"));
+    }
 
-            MessageOptionUtils.applyMessageOptions(builder, options);
+    /**
+     * Асинхронно отправляет текст любой длины, разделив его на несколько сообщений.
+     * @param chatId ID чата
+     * @param text текст сообщения
+     * @return отправленные сообщения
+     */
+    @Override
+    public CompletableFuture<List<Message>> sendLongMessageAsync(long chatId, String text) {
+        return sendLongMessageAsync(chatId, text, null);
+    }
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлено сообщение в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при асинхронной отправке сообщения в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
-        });
+    /**
+     * Асинхронно отправляет текст любой длины с опциями, разделив его на несколько сообщений.
+     * Ответ ставится только первой части, клавиатура — только последней.
+     * @param chatId ID чата
+     * @param text текст сообщения
+     * @param options дополнительные опции для сообщения
+     * @return отправленные сообщения в порядке частей
+     */
+    @Override
+    public CompletableFuture<List<Message>> sendLongMessageAsync(long chatId, String text, MessageOptions options) {
+        return sendText(chatId, text, options, null, "отправке сообщения");
     }
 
     /**
-     * Асинхронно отправить ответ на сообщение в контексте.
-     *
-     * @param context Контекст сообщения
-     * @param text    Текст ответа
+     * Асинхронно отправляет ответ на сообщение в контексте.
+     * @param context контекст сообщения
+     * @param text текст ответа
+     * @return отправленное сообщение
      */
     @Override
-    public void sendReplayMessageAsync(MessageContext context, String text) {
-        executorService.submit(() -> {
-            sendMessage(context.getChatId(), text, MessageOptions.builder()
-                    .replyToMessageId(context.getReplyToMessageId())
-                    .build());
-            log.info("Асинхронно отправлен ответ в чат {}", context.getChatId());
-        });
+    public CompletableFuture<Message> sendReplayMessageAsync(MessageContext context, String text) {
+        return sendReplayMessageAsync(context, text, null);
     }
 
     /**
-     * Асинхронно переслать сообщение из одного чата в другой.
-     *
-     * @param context      Контекст исходного сообщения
+     * Асинхронно отправляет ответ на сообщение в контексте с опциями.
+     * Текст длиннее лимита Telegram отправляется несколькими сообщениями.
+     * @param context контекст сообщения
+     * @param text текст ответа
+     * @param options опции сообщения
+     * @return отправленное сообщение; для длинного текста — последнее из них
+     */
+    @Override
+    public CompletableFuture<Message> sendReplayMessageAsync(MessageContext context, String text, MessageOptions options) {
+        return last(sendText(context.getChatId(), text, options, context.getReplyToMessageId(), "отправке ответа"));
+    }
+
+    /**
+     * Асинхронно пересылает сообщение в другой чат.
+     * @param context контекст исходного сообщения
      * @param targetChatId ID целевого чата
-     * @param message      Сообщение для пересылки
-     * @return Future с пересланным сообщением
+     * @param message сообщение для пересылки
+     * @return пересланное сообщение
      */
     @Override
-    public Future<Message> sendForwardMessageAsync(MessageContext context, long targetChatId, Message message) {
-        return executorService.submit(() -> {
-            ForwardMessage forwardMessage = ForwardMessage.builder()
-                    .chatId(String.valueOf(targetChatId))
-                    .fromChatId(String.valueOf(message.getChatId()))
-                    .messageId(message.getMessageId())
-                    .build();
-
-            try {
-                Message sentMessage = client.execute(forwardMessage);
-                log.info("Сообщение переслано в чат {}", targetChatId);
-                return sentMessage;
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при пересылке сообщения в чат {}: {}", targetChatId, e.getMessage(), e);
-                throw new RuntimeException("Ошибка при пересылке сообщения", e);
-            }
-        });
+    public CompletableFuture<Message> sendForwardMessageAsync(MessageContext context, long targetChatId, Message message) {
+        ForwardMessage method = ForwardMessage.builder()
+                .chatId(String.valueOf(targetChatId))
+                .fromChatId(String.valueOf(message.getChatId()))
+                .messageId(message.getMessageId())
+                .build();
+        return send(targetChatId, method, () -> client.executeAsync(method), "пересылке сообщения");
     }
 
     /**
-     * Асинхронно отправить аудио файл.
-     *
+     * Асинхронно отправляет аудиофайл в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл аудио
+     * @param file аудиофайл
+     * @return отправленное сообщение
      */
     @Override
-    public void sendAudioAsync(long chatId, InputFile file) {
-        sendAudioAsync(chatId, file, null);
+    public CompletableFuture<Message> sendAudioAsync(long chatId, InputFile file) {
+        return sendAudioAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить аудио файл с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл аудио
-     * @param options Опции аудио
+     * Асинхронно отправляет аудиофайл в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file аудиофайл
+     * @param options дополнительные опции для аудио
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendAudioAsync(long chatId, InputFile file, AudioOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendAudioAsync(long chatId, InputFile file, AudioOptions options) {
+        return sendMedia(file, MediaKind.AUDIO, resolved -> {
             SendAudio.SendAudioBuilder builder = SendAudio.builder()
                     .chatId(String.valueOf(chatId))
-                    .audio(file);
+                    .audio(resolved);
+            MessageOptionUtils.applyAudioOptions(builder, options, resolved);
 
-            MessageOptionUtils.applyAudioOptions(builder, options, file);
-
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлено аудио в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке аудио в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendAudio method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке аудио");
         });
     }
 
     /**
-     * Асинхронно отправить фото.
-     *
+     * Асинхронно отправляет фотографию в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл фото
+     * @param file фото
+     * @return отправленное сообщение
      */
     @Override
-    public void sendPhotoAsync(long chatId, InputFile file) {
-        sendPhotoAsync(chatId, file, null);
+    public CompletableFuture<Message> sendPhotoAsync(long chatId, InputFile file) {
+        return sendPhotoAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить фото с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл фото
-     * @param options Опции фото
+     * Асинхронно отправляет фотографию в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file фото
+     * @param options дополнительные опции для фото
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendPhotoAsync(long chatId, InputFile file, PhotoOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendPhotoAsync(long chatId, InputFile file, PhotoOptions options) {
+        return sendMedia(file, MediaKind.PHOTO, resolved -> {
             SendPhoto.SendPhotoBuilder builder = SendPhoto.builder()
                     .chatId(String.valueOf(chatId))
-                    .photo(file);
+                    .photo(resolved);
+            MessageOptionUtils.applyPhotoOptions(builder, options, resolved);
 
-            MessageOptionUtils.applyPhotoOptions(builder, options, file);
-
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлено фото в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке фото в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendPhoto method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке фото");
         });
     }
 
     /**
-     * Асинхронно отправить анимацию.
-     *
+     * Асинхронно отправляет анимацию в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл анимации
+     * @param file анимация
+     * @return отправленное сообщение
      */
     @Override
-    public void sendAnimationAsync(long chatId, InputFile file) {
-        sendAnimationAsync(chatId, file, null);
+    public CompletableFuture<Message> sendAnimationAsync(long chatId, InputFile file) {
+        return sendAnimationAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить анимацию с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл анимации
-     * @param options Опции анимации
+     * Асинхронно отправляет анимацию в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file анимация
+     * @param options дополнительные опции для анимации
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendAnimationAsync(long chatId, InputFile file, AnimationOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendAnimationAsync(long chatId, InputFile file, AnimationOptions options) {
+        return sendMedia(file, MediaKind.ANIMATION, resolved -> {
             SendAnimation.SendAnimationBuilder builder = SendAnimation.builder()
                     .chatId(String.valueOf(chatId))
-                    .animation(file);
-
-            MessageOptionUtils.applyAnimationOptions(builder, options, file);
+                    .animation(resolved);
+            MessageOptionUtils.applyAnimationOptions(builder, options, resolved);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлена анимация в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке анимации в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendAnimation method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке анимации");
         });
     }
 
     /**
-     * Асинхронно отправить видео.
-     *
+     * Асинхронно отправляет видео в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл видео
+     * @param file видео
+     * @return отправленное сообщение
      */
     @Override
-    public void sendVideoAsync(long chatId, InputFile file) {
-        sendVideoAsync(chatId, file, null);
+    public CompletableFuture<Message> sendVideoAsync(long chatId, InputFile file) {
+        return sendVideoAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить видео с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл видео
-     * @param options Опции видео
+     * Асинхронно отправляет видео в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file видео
+     * @param options дополнительные опции для видео
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendVideoAsync(long chatId, InputFile file, VideoOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendVideoAsync(long chatId, InputFile file, VideoOptions options) {
+        return sendMedia(file, MediaKind.VIDEO, resolved -> {
             SendVideo.SendVideoBuilder builder = SendVideo.builder()
                     .chatId(String.valueOf(chatId))
-                    .video(file);
+                    .video(resolved);
+            MessageOptionUtils.applyVideoOptions(builder, options, resolved);
 
-            MessageOptionUtils.applyVideoOptions(builder, options, file);
-
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлено видео в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке видео в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendVideo method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке видео");
         });
     }
 
     /**
-     * Асинхронно отправить документ.
-     *
+     * Асинхронно отправляет документ в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл документа
+     * @param file документ
+     * @return отправленное сообщение
      */
     @Override
-    public void sendDocumentAsync(long chatId, InputFile file) {
-        sendDocumentAsync(chatId, file, null);
+    public CompletableFuture<Message> sendDocumentAsync(long chatId, InputFile file) {
+        return sendDocumentAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить документ с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл документа
-     * @param options Опции документа
+     * Асинхронно отправляет документ в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file документ
+     * @param options дополнительные опции для документа
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendDocumentAsync(long chatId, InputFile file, DocumentOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendDocumentAsync(long chatId, InputFile file, DocumentOptions options) {
+        return sendMedia(file, MediaKind.DOCUMENT, resolved -> {
             SendDocument.SendDocumentBuilder builder = SendDocument.builder()
                     .chatId(String.valueOf(chatId))
-                    .document(file);
-
-            MessageOptionUtils.applyDocumentOptions(builder, options, file);
+                    .document(resolved);
+            MessageOptionUtils.applyDocumentOptions(builder, options, resolved);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлен документ в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке документа в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendDocument method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке документа");
         });
     }
 
     /**
-     * Асинхронно отправить голосовое сообщение.
-     *
+     * Асинхронно отправляет голосовое сообщение в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл голоса
+     * @param file голосовое сообщение
+     * @return отправленное сообщение
      */
     @Override
-    public void sendVoiceAsync(long chatId, InputFile file) {
-        sendVoiceAsync(chatId, file, null);
+    public CompletableFuture<Message> sendVoiceAsync(long chatId, InputFile file) {
+        return sendVoiceAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить голосовое сообщение с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл голоса
-     * @param options Опции голосового сообщения
+     * Асинхронно отправляет голосовое сообщение в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file голосовое сообщение
+     * @param options дополнительные опции для голосового сообщения
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendVoiceAsync(long chatId, InputFile file, VoiceOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendVoiceAsync(long chatId, InputFile file, VoiceOptions options) {
+        return sendMedia(file, MediaKind.VOICE, resolved -> {
             SendVoice.SendVoiceBuilder builder = SendVoice.builder()
                     .chatId(String.valueOf(chatId))
-                    .voice(file);
-
-            MessageOptionUtils.applyVoiceOptions(builder, options, file);
+                    .voice(resolved);
+            MessageOptionUtils.applyVoiceOptions(builder, options, resolved);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлено голосовое сообщение в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке голосового сообщения в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendVoice method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке голосового сообщения");
         });
     }
 
     /**
-     * Асинхронно отправить стикер.
-     *
+     * Асинхронно отправляет стикер в указанный чат.
      * @param chatId ID чата
-     * @param file   Файл стикера
+     * @param file стикер
+     * @return отправленное сообщение
      */
     @Override
-    public void sendStickerAsync(long chatId, InputFile file) {
-        sendStickerAsync(chatId, file, null);
+    public CompletableFuture<Message> sendStickerAsync(long chatId, InputFile file) {
+        return sendStickerAsync(chatId, file, null);
     }
 
     /**
-     * Асинхронно отправить стикер с дополнительными опциями.
-     *
-     * @param chatId  ID чата
-     * @param file    Файл стикера
-     * @param options Опции стикера
+     * Асинхронно отправляет стикер в указанный чат с опциями.
+     * @param chatId ID чата
+     * @param file стикер
+     * @param options дополнительные опции для стикера
+     * @return отправленное сообщение
      */
     @Override
     @SuppressWarnings("all")
-    public void sendStickerAsync(long chatId, InputFile file, StickerOptions options) {
-        executorService.submit(() -> {
+    public CompletableFuture<Message> sendStickerAsync(long chatId, InputFile file, StickerOptions options) {
+        return sendMedia(file, MediaKind.STICKER, resolved -> {
             SendSticker.SendStickerBuilder builder = SendSticker.builder()
                     .chatId(String.valueOf(chatId))
-                    .sticker(file);
-
-            MessageOptionUtils.applyStickerOptions(builder, options, file);
+                    .sticker(resolved);
+            MessageOptionUtils.applyStickerOptions(builder, options, resolved);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отправлен стикер в чат {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке стикера в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
+            SendSticker method = builder.build();
+            return send(chatId, method, () -> client.executeAsync(method), "отправке стикера");
         });
     }
 
     /**
-     * Асинхронно отправить группу медиа (несколько медиа файлов в одном сообщении).
-     *
-     * @param chatId     ID чата
-     * @param groupMedia Коллекция медиа объектов для отправки
+     * Асинхронно отправляет медиа-группу в указанный чат.
+     * @param chatId ID чата
+     * @param groupMedia элементы медиа-группы
+     * @return отправленные сообщения
      */
     @Override
-    public void sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia) {
-        sendMediaGroupAsync(chatId, groupMedia, null);
+    public CompletableFuture<List<Message>> sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia) {
+        return sendMediaGroupAsync(chatId, groupMedia, null);
     }
 
     /**
-     * Асинхронно отправить группу медиа с дополнительными опциями.
-     *
-     * @param chatId     ID чата
-     * @param groupMedia Коллекция медиа объектов
-     * @param options    Опции медиа группы
+     * Асинхронно отправляет медиа-группу в указанный чат с опциями.
+     * Пустая группа не отправляется, результат — пустой список. Больше 10 элементов делятся
+     * на несколько групп примерно равного размера; ответ ставится только первой группе.
+     * @param chatId ID чата
+     * @param groupMedia элементы медиа-группы
+     * @param options дополнительные опции для медиа-группы
+     * @return отправленные сообщения
      */
     @Override
     @SuppressWarnings("all")
-    public void sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia, MediaOptions options) {
-        executorService.submit(() -> {
-            if (groupMedia == null || groupMedia.isEmpty()) {
-                log.warn("Попытка отправки пустой медиа-группы в чат {}", chatId);
-                return;
-            }
+    public CompletableFuture<List<Message>> sendMediaGroupAsync(long chatId, Collection<? extends InputMedia> groupMedia,
+                                                                MediaOptions options) {
+        if (groupMedia == null || groupMedia.isEmpty()) {
+            log.warn("Попытка отправки пустой медиа-группы в чат {}", chatId);
+            return CompletableFuture.completedFuture(List.of());
+        }
 
+        List<InputMedia> medias = new ArrayList<>(groupMedia);
+        int groups = (medias.size() + MAX_MEDIA_GROUP - 1) / MAX_MEDIA_GROUP;
+        List<CompletableFuture<List<Message>>> sent = new ArrayList<>(groups);
+        int from = 0;
+        for (int group = 0; group < groups; group++) {
+            // Равные по размеру группы: хвост из одного элемента Telegram не примет
+            int to = from + (medias.size() - from) / (groups - group);
             SendMediaGroup.SendMediaGroupBuilder builder = SendMediaGroup.builder()
                     .chatId(String.valueOf(chatId))
-                    .medias(new ArrayList<>(groupMedia));
-
+                    .medias(new ArrayList<>(medias.subList(from, to)));
             MessageOptionUtils.applyMediaOptions(builder, options);
 
-            try {
-                client.execute(builder.build());
-                log.info("Медиа-группа ({} элементов) отправлена в чат {}", groupMedia.size(), chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при отправке медиа-группы в чат {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
+            SendMediaGroup method = builder.build();
+            if (group > 0) {
+                method.setReplyToMessageId(null);
+                method.setReplyParameters(null);
             }
-        });
+            sent.add(send(chatId, method, () -> client.executeAsync(method), "отправке медиа-группы"));
+            from = to;
+        }
+        return all(sent).thenApply(lists -> lists.stream().flatMap(List::stream).toList());
     }
 
     /**
-     * Асинхронно отредактировать текст сообщения.
-     *
-     * @param chatId    ID чата
+     * Асинхронно изменяет текст сообщения.
+     * @param chatId ID чата
      * @param messageId ID сообщения
-     * @param text      Новый текст сообщения
+     * @param text новый текст
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
     @Override
-    public void editTextAsync(long chatId, int messageId, String text) {
-        editTextAsync(chatId, messageId, text, null);
+    public CompletableFuture<Serializable> editTextAsync(long chatId, int messageId, String text) {
+        return editTextAsync(chatId, messageId, text, null);
     }
 
     /**
-     * Асинхронно отредактировать текст сообщения с дополнительными опциями.
-     *
-     * @param chatId    ID чата
+     * Асинхронно изменяет текст сообщения с опциями.
+     * @param chatId ID чата
      * @param messageId ID сообщения
-     * @param text      Новый текст сообщения
-     * @param options   Опции редактирования текста
+     * @param text новый текст
+     * @param options дополнительные опции
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
     @Override
     @SuppressWarnings("all")
-    public void editTextAsync(long chatId, int messageId, String text, EditTextOptions options) {
-        executorService.submit(() -> {
-            EditMessageText.EditMessageTextBuilder builder = EditMessageText.builder()
-                    .chatId(String.valueOf(chatId))
-                    .messageId(messageId)
-                    .text(text);
-
-            MessageOptionUtils.applyEditTextOptions(builder, options);
+    public CompletableFuture<Serializable> editTextAsync(long chatId, int messageId, String text, EditTextOptions options) {
+        EditMessageText.EditMessageTextBuilder builder = EditMessageText.builder()
+                .chatId(String.valueOf(chatId))
+                .messageId(messageId)
+                .text(text);
+        MessageOptionUtils.applyEditTextOptions(builder, options);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отредактировано сообщение в чате {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при редактировании сообщения в чате {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
-        });
+        EditMessageText method = builder.build();
+        return send(chatId, method, () -> client.executeAsync(method), "изменении сообщения");
     }
 
     /**
-     * Асинхронно отредактировать медиа сообщение.
-     *
-     * @param chatId    ID чата
+     * Асинхронно изменяет медиа сообщения.
+     * @param chatId ID чата
      * @param messageId ID сообщения
-     * @param file      Новый медиа файл
+     * @param file новое медиа
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
     @Override
-    public void editMediaAsync(long chatId, int messageId, InputMedia file) {
-        editMediaAsync(chatId, messageId, file, null);
+    public CompletableFuture<Serializable> editMediaAsync(long chatId, int messageId, InputMedia file) {
+        return editMediaAsync(chatId, messageId, file, null);
     }
 
     /**
-     * Асинхронно отредактировать медиа сообщение с дополнительными опциями.
-     *
-     * @param chatId    ID чата
+     * Асинхронно изменяет медиа сообщения с опциями.
+     * @param chatId ID чата
      * @param messageId ID сообщения
-     * @param file      Новый медиа файл
-     * @param options   Опции редактирования медиа
+     * @param file новое медиа
+     * @param options дополнительные опции
+     * @return изменённое сообщение или {@code true} для inline-сообщений
      */
     @Override
     @SuppressWarnings("all")
-    public void editMediaAsync(long chatId, int messageId, InputMedia file, EditMediaOptions options) {
-        executorService.submit(() -> {
-            EditMessageMedia.EditMessageMediaBuilder builder = EditMessageMedia.builder()
-                    .chatId(String.valueOf(chatId))
-                    .messageId(messageId)
-                    .media(file);
-
-            MessageOptionUtils.applyEditMediaOptions(builder, options);
+    public CompletableFuture<Serializable> editMediaAsync(long chatId, int messageId, InputMedia file,
+                                                          EditMediaOptions options) {
+        EditMessageMedia.EditMessageMediaBuilder builder = EditMessageMedia.builder()
+                .chatId(String.valueOf(chatId))
+                .messageId(messageId)
+                .media(file);
+        MessageOptionUtils.applyEditMediaOptions(builder, options);
 
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно отредактировано медиа в чате {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при редактировании медиа в чате {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
-            }
-        });
+        EditMessageMedia method = builder.build();
+        return send(chatId, method, () -> client.executeAsync(method), "изменении медиа");
     }
 
     /**
-     * Асинхронно удалить сообщение.
-     *
-     * @param chatId    ID чата
+     * Асинхронно удаляет сообщение.
+     * @param chatId ID чата
      * @param messageId ID сообщения
+     * @return true, если сообщение удалено
+     */
+    @Override
+    public CompletableFuture<Boolean> deleteMessageAsync(long chatId, int messageId) {
+        DeleteMessage method = DeleteMessage.builder()
+                .chatId(String.valueOf(chatId))
+                .messageId(messageId)
+                .build();
+        return send(chatId, method, () -> client.executeAsync(method), "удалении сообщения");
+    }
+
+    /**
+     * Асинхронно удаляет несколько сообщений одного чата одним запросом.
+     * Для накопления удалений из разных мест используйте {@link DeleteBatcher}.
+     * @param chatId ID чата
+     * @param messageIds ID сообщений (до 100)
+     * @return true, если запрос выполнен
      */
     @Override
+    public CompletableFuture<Boolean> deleteMessagesAsync(long chatId, Collection<Integer> messageIds) {
+        DeleteMessages method = DeleteMessages.builder()
+                .chatId(String.valueOf(chatId))
+                .messageIds(new ArrayList<>(messageIds))
+                .build();
+        return send(chatId, method, () -> client.executeAsync(method), "удалении сообщений");
+    }
+
+    /**
+     * Отправляет медиа через {@link MediaFileCache}: повторно отправляемый файл заменяется на {@code file_id}
+     * первой загрузки. Если Telegram не принимает сохранённый {@code file_id}, файл загружается заново.
+     * Файл хешируется в {@code executorService}, а не в вызывающем потоке, поэтому такой запрос встаёт
+     * в очередь чата после подготовки файла.
+     *
+     * @param file файл для отправки
+     * @param kind тип медиа
+     * @param send сборка и отправка запроса с подготовленным файлом
+     * @return отправленное сообщение
+     */
+    private CompletableFuture<Message> sendMedia(InputFile file, MediaKind kind,
+                                                 Function<InputFile, CompletableFuture<Message>> send) {
+        if (!mediaCache.needsPrepare(file)) {
+            return sendPrepared(mediaCache.prepare(file, kind), kind, send);
+        }
+        return CompletableFuture.supplyAsync(() -> mediaCache.prepare(file, kind), executorService)
+                .whenComplete((upload, error) -> {
+                    if (error != null) {
+                        log.error("Не удалось подготовить файл {}: {}", file.getMediaName(), error.getMessage(), error);
+                    }
+                })
+                .thenCompose(upload -> sendPrepared(upload, kind, send));
+    }
+
+    private CompletableFuture<Message> sendPrepared(MediaFileCache.Upload upload, MediaKind kind,
+                                                    Function<InputFile, CompletableFuture<Message>> send) {
+        CompletableFuture<Message> sent;
+        if (!upload.isCached()) {
+            sent = send.apply(upload.getFile()).thenApply(message -> {
+                mediaCache.remember(upload, message);
+                return message;
+            });
+        } else {
+            sent = send.apply(upload.getFile()).exceptionallyCompose(error -> {
+                if (!MediaFileCache.isStaleFileId(OutboundPipeline.unwrap(error))) {
+                    return CompletableFuture.failedFuture(error);
+                }
+                mediaCache.invalidate(upload);
+                return sendMedia(upload.original(), kind, send);
+            });
+        }
+        return sent.whenComplete((message, error) -> upload.release());
+    }
+
+    /**
+     * Отправляет текст, при необходимости разделив его на части. Все части сразу ставятся
+     * в очередь чата по порядку; ответ ставится только первой части, клавиатура — только последней.
+     *
+     * @param chatId           чат-адресат
+     * @param text             текст сообщения
+     * @param options          опции сообщения
+     * @param replyToMessageId сообщение, на которое отвечает первая часть, или null
+     * @param action           действие для сообщения об ошибке
+     * @return отправленные сообщения
+     */
     @SuppressWarnings("all")
-    public void deleteMessageAsync(long chatId, int messageId) {
-        executorService.submit(() -> {
-            DeleteMessage.DeleteMessageBuilder builder = DeleteMessage.builder()
+    private CompletableFuture<List<Message>> sendText(long chatId, String text, MessageOptions options,
+                                                      Integer replyToMessageId, String action) {
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(text,
+                options != null ? options.getParseMode() : null, options != null ? options.getEntities() : null);
+        List<CompletableFuture<Message>> sent = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            SendMessage.SendMessageBuilder builder = SendMessage.builder()
                     .chatId(String.valueOf(chatId))
-                    .messageId(messageId);
-
-            try {
-                client.execute(builder.build());
-                log.info("Асинхронно удалено сообщение в чате {}", chatId);
-            } catch (TelegramApiException e) {
-                log.error("Ошибка при удалении сообщения в чате {}: {}", chatId, e.getMessage(), e);
-                throw new RuntimeException(e); // Для синхронных методов
+                    .text(chunks.get(i).getText())
+                    .replyToMessageId(replyToMessageId);
+            MessageOptionUtils.applyMessageOptions(builder, options);
+
+            SendMessage method = builder.build();
+            if (chunks.size() > 1) {
+                method.setEntities(chunks.get(i).getEntities());
+                if (i > 0) {
+                    method.setReplyToMessageId(null);
+                    method.setReplyParameters(null);
+                }
+                if (i < chunks.size() - 1) {
+                    method.setReplyMarkup(null);
+                }
+            }
+            sent.add(send(chatId, method, () -> client.executeAsync(method), action));
+        }
+        return all(sent);
+    }
+
+    /**
+     * Отправляет запрос через конвейер и логирует ошибку.
+     *
+     * @param chatId чат-адресат
+     * @param method метод Bot API
+     * @param call   асинхронный вызов клиента
+     * @param action действие для сообщения об ошибке, например «отправке фото»
+     * @param <T>    тип результата
+     * @return результат запроса
+     */
+    private <T> CompletableFuture<T> send(long chatId, PartialBotApiMethod<?> method,
+                                          OutboundRequest.Call<T> call, String action) {
+        return pipeline.send(chatId, method, call).whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = OutboundPipeline.unwrap(error);
+                log.error("Ошибка при {} в чат {}: {}", action, chatId, cause.getMessage(), cause);
+            } else {
+                log.debug("Запрос {} выполнен в чат {}", method.getMethod(), chatId);
             }
         });
     }
+
+    /**
+     * @param futures результаты запросов
+     * @param <T>     тип результата
+     * @return результаты в том же порядке; ошибка, если не выполнился хотя бы один запрос
+     */
+    private static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
     /**
-     * Завершает пул потоков при уничтожении бина.
+     * @param messages отправленные части
+     * @return последнее сообщение или null, если текст пуст
      */
-    @PreDestroy
-    public void shutdown() {
-        executorService.shutdown();
+    private static CompletableFuture<Message> last(CompletableFuture<List<Message>> messages) {
+        return messages.thenApply(list -> list.isEmpty() ? null : list.get(list.size() - 1));
+    }
+
+    /**
+     * Дожидается результата для синхронных методов. Ошибка уже залогирована в {@link #send}.
+     *
+     * @param future результат запроса
+     * @param <T>    тип результата
+     * @return результат или null в случае ошибки
+     */
+    private static <T> T await(CompletableFuture<T> future) {
         try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-                log.warn("Принудительное завершение пула потоков");
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            log.error("Ошибка при закрытии пула потоков: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
         }
     }
 }
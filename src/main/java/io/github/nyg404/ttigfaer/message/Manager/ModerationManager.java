@@ -4,6 +4,8 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.nyg404.ttigfaer.api.Interface.async.ModerationAsyncService;
 import io.github.nyg404.ttigfaer.api.Interface.ModerationService;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundScheduler;
 import io.github.nyg404.ttigfaer.message.Options.ChatPermissionsOptions;
 import io.github.nyg404.ttigfaer.message.Utils.ChatPermissionOptions;
 import jakarta.annotation.PreDestroy;
@@ -12,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.GetMe;
 import org.telegram.telegrambots.meta.api.methods.groupadministration.*;
 import org.telegram.telegrambots.meta.api.objects.ChatPermissions;
 import org.telegram.telegrambots.meta.api.objects.chatmember.ChatMember;
@@ -36,6 +39,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
     private final TelegramClient client;
     private final MessageManager msv;
     private final ExecutorService executorService; // Внедряется ThreadPoolTaskExecutor из AsyncSettings
+    private final OutboundPipeline pipeline;
 
     // Кэш для статусов пользователей: ключ — serverId:userId, значение — статус (creator, administrator, etc.)
     private final Cache<String, String> memberStatusCache = Caffeine.newBuilder()
@@ -65,7 +69,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
 
         executorService.submit(() -> {
             try {
-                client.executeAsync(request);
+                pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request));
                 log.info("Пользователь забанен: userId={}", userId);
                 sendIfNotEmpty(messageToUser, userId);
                 sendIfNotEmpty(messageToChat, serverId);
@@ -89,7 +93,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
                 .build();
         executorService.submit(() -> {
             try {
-                client.executeAsync(request);
+                pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request));
                 log.info("Пользователь раззабанен: userId={}", userId);
             } catch (TelegramApiException e) {
                 log.error("Ошибка при разбане: userId={}, serverId={}, error={}", userId, serverId, e.getMessage(), e);
@@ -129,7 +133,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
 
         executorService.submit(() -> {
             try {
-                client.execute(request);
+                pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request));
                 log.info("Пользователь замучен: userId={}", userId);
                 sendIfNotEmpty(messageToUser, userId);
                 sendIfNotEmpty(messageToChat, serverId);
@@ -161,7 +165,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
 
         executorService.submit(() -> {
             try {
-                client.execute(request);
+                pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request));
                 log.info("Пользователь размучен: userId={}", userId);
                 sendIfNotEmpty(messageToUser, userId);
                 sendIfNotEmpty(messageToChat, serverId);
@@ -496,7 +500,7 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
         GetChatMember request = new GetChatMember(serverId, userId);
         return executorService.submit(() -> {
             try {
-                return client.execute(request);
+                return pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request));
             } catch (TelegramApiException e) {
                 log.error("Ошибка при получении участника: userId={}, serverId={}, error={}", userId, serverId, e.getMessage(), e);
                 throw e;
@@ -511,7 +515,8 @@ public class ModerationManager implements ModerationService, ModerationAsyncServ
     public Future<Long> asyncGetBotId() {
         return executorService.submit(() -> {
             try {
-                return client.execute(new org.telegram.telegrambots.meta.api.methods.GetMe()).getId();
+                GetMe request = new GetMe();
+                return pipeline.execute(OutboundScheduler.NO_CHAT, request, () -> client.executeAsync(request)).getId();
             } catch (TelegramApiException e) {
                 log.error("Ошибка при получении ID бота: {}", e.getMessage(), e);
                 throw e;
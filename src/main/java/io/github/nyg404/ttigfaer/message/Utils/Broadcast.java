@@ -0,0 +1,409 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import io.github.nyg404.ttigfaer.core.Enum.BroadcastFailure;
+import io.github.nyg404.ttigfaer.core.Model.BroadcastProgress;
+import io.github.nyg404.ttigfaer.core.Utils.OutboundPipeline;
+import io.github.nyg404.ttigfaer.core.Utils.TimingWheel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Одна массовая рассылка. Создаётся через {@code BroadcastManager}.
+ *
+ * <p>Получатели читаются из итератора по одному, сообщения отправляются равномерно со скоростью
+ * {@code perSecond}, и одновременно ожидают ответа не больше {@code maxInFlight} из них. Память
+ * не зависит от размера аудитории: хранится только кольцо из {@code maxInFlight} флагов.</p>
+ *
+ * <p>Прогресс — число получателей, обработанных без пропусков, и счётчики — периодически
+ * сохраняется в {@code <имя>.checkpoint}. Запуск рассылки с тем же именем продолжает её с этого
+ * места; после сбоя повторно получат сообщение (и могут быть учтены в счётчиках дважды)
+ * не больше {@code maxInFlight} получателей.
+ * Недоставленные получатели дописываются в {@code <имя>.failed} вместе с причиной
+ * ({@link BroadcastFailure}), чтобы заблокировавших бота можно было убрать из списка.</p>
+ */
+@Slf4j
+public class Broadcast {
+    /** Имя рассылки. */
+    @Getter
+    private final String name;
+    private final Iterator<Long> recipients;
+    private final LongFunction<CompletableFuture<?>> sender;
+    private final TimingWheel timingWheel;
+    private final long intervalNanos;
+    private final int maxInFlight;
+    private final long checkpointIntervalSeconds;
+    private final Path checkpointFile;
+    private final Path failedFile;
+    private final long total;
+
+    /** Завершённые получатели среди последних {@code maxInFlight}, индекс — номер по модулю. Защищено {@code this}. */
+    private final boolean[] done;
+    /** Все получатели с номером меньше этого обработаны. Защищено {@code this}. */
+    private long base;
+    /** Номер следующего получателя. Защищено {@code this}. */
+    private long issued;
+    /** Защищено {@code this}. */
+    private long sent;
+    /** Защищено {@code this}. */
+    private final long[] failures = new long[BroadcastFailure.values().length];
+    /** Теоретическое время следующей отправки, нс. Защищено {@code this}. */
+    private long tat = System.nanoTime();
+    /** Защищено {@code this}. */
+    private boolean timerArmed;
+    /** Получатели закончились. Защищено {@code this}. */
+    private boolean exhausted;
+    /** Рассылка отменена; прогресс больше не сохраняется. Защищено {@code this}. */
+    private boolean cancelled;
+    /** Защищено {@code this}. */
+    private boolean finished;
+    /** Ошибка чтения получателей. Защищено {@code this}. */
+    private Throwable error;
+    /** Защищено {@code this}. */
+    private BufferedWriter failedWriter;
+    private long startNanos;
+    private long startProcessed;
+    private final Object checkpointLock = new Object();
+    private final AtomicInteger pumpRequests = new AtomicInteger();
+    private final CompletableFuture<BroadcastProgress> completion = new CompletableFuture<>();
+
+    /**
+     * @param name                      имя рассылки, часть имён файлов
+     * @param recipients                получатели по порядку; порядок должен совпадать между запусками
+     * @param total                     всего получателей или -1, если неизвестно
+     * @param sender                    отправка сообщения одному получателю
+     * @param timingWheel               общий таймер
+     * @param perSecond                 скорость, сообщений в секунду
+     * @param maxInFlight               сколько сообщений может одновременно ожидать ответа
+     * @param checkpointIntervalSeconds как часто сохранять прогресс
+     * @param directory                 каталог для файлов рассылки
+     */
+    public Broadcast(String name, Iterator<Long> recipients, long total, LongFunction<CompletableFuture<?>> sender,
+                     TimingWheel timingWheel, int perSecond, int maxInFlight, long checkpointIntervalSeconds,
+                     Path directory) {
+        this.name = name;
+        this.recipients = recipients;
+        this.total = total;
+        this.sender = sender;
+        this.timingWheel = timingWheel;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(perSecond, 1);
+        this.maxInFlight = Math.max(maxInFlight, 1);
+        this.done = new boolean[this.maxInFlight];
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+        this.checkpointFile = directory.resolve(name + ".checkpoint");
+        this.failedFile = directory.resolve(name + ".failed");
+    }
+
+    /**
+     * Запускает рассылку, продолжая с сохранённого прогресса. Если рассылка с этим именем уже
+     * была завершена, ничего не отправляется.
+     *
+     * @throws IOException ошибка чтения прогресса или открытия файла ошибок
+     */
+    public void start() throws IOException {
+        Files.createDirectories(checkpointFile.getParent());
+        long offset = restore();
+        if (offset < 0) {
+            log.info("Рассылка {} уже завершена, повторно не отправляется", name);
+            synchronized (this) {
+                finished = true;
+            }
+            completion.complete(progress());
+            return;
+        }
+        for (long i = 0; i < offset && recipients.hasNext(); i++) {
+            recipients.next();
+        }
+        synchronized (this) {
+            base = offset;
+            issued = offset;
+            startProcessed = offset;
+            startNanos = System.nanoTime();
+            failedWriter = Files.newBufferedWriter(failedFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        if (offset > 0) {
+            log.info("Рассылка {} продолжается с получателя {}", name, offset);
+        }
+        scheduleCheckpoint();
+        pump();
+    }
+
+    /**
+     * Останавливает рассылку и сохраняет прогресс. Сообщения, ожидающие ответа, будут
+     * отправлены повторно при следующем запуске.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (finished || cancelled || failedWriter == null) return;
+        }
+        checkpoint(false);
+        synchronized (this) {
+            cancelled = true;
+        }
+        log.info("Рассылка {} остановлена: {}", name, progress());
+        maybeFinish();
+    }
+
+    /**
+     * @return результат рассылки; завершается после отправки последнего сообщения или отмены
+     */
+    public CompletableFuture<BroadcastProgress> completion() {
+        return completion;
+    }
+
+    /**
+     * @return текущее состояние рассылки со скоростью и оценкой оставшегося времени
+     */
+    public synchronized BroadcastProgress progress() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        double rate = startNanos != 0 && seconds > 0 ? (base - startProcessed) / seconds : 0;
+        Duration eta = total >= 0 && rate > 0 && !finished
+                ? Duration.ofSeconds((long) (Math.max(total - base, 0) / rate))
+                : null;
+        Map<BroadcastFailure, Long> byReason = new EnumMap<>(BroadcastFailure.class);
+        for (BroadcastFailure reason : BroadcastFailure.values()) {
+            if (failures[reason.ordinal()] > 0) byReason.put(reason, failures[reason.ordinal()]);
+        }
+        return BroadcastProgress.builder()
+                .name(name)
+                .total(total)
+                .processed(base)
+                .sent(sent)
+                .failures(byReason)
+                .perSecond(rate)
+                .eta(eta)
+                .finished(finished)
+                .build();
+    }
+
+    /**
+     * Отправляет сообщения, пока позволяют скорость и окно. Работает так же, как
+     * {@code OutboundScheduler#pump()}: повторный вызов лишь заставляет текущий цикл пройти ещё раз.
+     */
+    private void pump() {
+        if (pumpRequests.getAndIncrement() != 0) return;
+        do {
+            Recipient recipient;
+            while ((recipient = take()) != null) {
+                send(recipient);
+            }
+        } while (pumpRequests.decrementAndGet() != 0);
+        maybeFinish();
+    }
+
+    /** Выбирает следующего получателя, если его можно отправить сейчас, или возвращает null. */
+    private synchronized Recipient take() {
+        if (cancelled || finished || exhausted || issued - base >= maxInFlight) return null;
+        long now = System.nanoTime();
+        long wait = tat - now;
+        if (wait > 0) {
+            if (!timerArmed) {
+                timerArmed = true;
+                timingWheel.schedule(() -> {
+                    synchronized (this) {
+                        timerArmed = false;
+                    }
+                    pump();
+                }, wait, TimeUnit.NANOSECONDS);
+            }
+            return null;
+        }
+        Long chatId;
+        try {
+            if (!recipients.hasNext()) {
+                exhausted = true;
+                return null;
+            }
+            chatId = recipients.next();
+        } catch (RuntimeException e) {
+            log.error("Рассылка {}: ошибка чтения получателей: {}", name, e.getMessage(), e);
+            error = e;
+            exhausted = true;
+            return null;
+        }
+        tat = (now - tat < intervalNanos ? tat : now) + intervalNanos;
+        return new Recipient(issued++, chatId);
+    }
+
+    private void send(Recipient recipient) {
+        CompletableFuture<?> result;
+        try {
+            result = sender.apply(recipient.chatId);
+        } catch (Throwable e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, e) -> {
+            onComplete(recipient, e);
+            pump();
+        });
+    }
+
+    private synchronized void onComplete(Recipient recipient, Throwable e) {
+        if (e == null) {
+            sent++;
+        } else {
+            BroadcastFailure reason = classify(OutboundPipeline.unwrap(e));
+            failures[reason.ordinal()]++;
+            try {
+                failedWriter.write(recipient.chatId + " " + reason);
+                failedWriter.newLine();
+            } catch (IOException io) {
+                log.warn("Рассылка {}: не удалось записать {}: {}", name, failedFile, io.getMessage());
+            }
+        }
+        done[(int) (recipient.seq % maxInFlight)] = true;
+        while (base < issued && done[(int) (base % maxInFlight)]) {
+            done[(int) (base % maxInFlight)] = false;
+            base++;
+        }
+    }
+
+    /** Завершает рассылку, когда получатели закончились (или она отменена) и ответы на все сообщения получены. */
+    private void maybeFinish() {
+        boolean save;
+        Throwable failure;
+        synchronized (this) {
+            if (finished || !(exhausted || cancelled) || issued != base) return;
+            finished = true;
+            save = !cancelled;
+            failure = error;
+        }
+        if (save) {
+            checkpoint(failure == null);
+        }
+        synchronized (this) {
+            try {
+                failedWriter.close();
+            } catch (IOException e) {
+                log.warn("Рассылка {}: не удалось закрыть {}: {}", name, failedFile, e.getMessage());
+            }
+        }
+        BroadcastProgress progress = progress();
+        if (failure != null) {
+            completion.completeExceptionally(failure);
+        } else {
+            log.info("Рассылка {} завершена: {}", name, progress);
+            completion.complete(progress);
+        }
+    }
+
+    private void scheduleCheckpoint() {
+        timingWheel.schedule(() -> {
+            synchronized (this) {
+                if (finished || cancelled) return;
+            }
+            checkpoint(false);
+            log.info("Рассылка {}", progress());
+            scheduleCheckpoint();
+        }, checkpointIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Атомарно сохраняет прогресс. Снимок берётся под {@code checkpointLock}, поэтому более
+     * поздняя запись всегда содержит более новое состояние.
+     */
+    private void checkpoint(boolean complete) {
+        synchronized (checkpointLock) {
+            Properties state = new Properties();
+            synchronized (this) {
+                if (cancelled) return;
+                state.setProperty("offset", Long.toString(base));
+                state.setProperty("sent", Long.toString(sent));
+                state.setProperty("total", Long.toString(total));
+                state.setProperty("finished", Boolean.toString(complete));
+                for (BroadcastFailure reason : BroadcastFailure.values()) {
+                    state.setProperty("failed." + reason.name(), Long.toString(failures[reason.ordinal()]));
+                }
+                try {
+                    failedWriter.flush();
+                } catch (IOException e) {
+                    log.warn("Рассылка {}: не удалось записать {}: {}", name, failedFile, e.getMessage());
+                }
+            }
+            Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            try {
+                try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    state.store(out, "Прогресс рассылки " + name);
+                }
+                try {
+                    Files.move(tmp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                log.error("Рассылка {}: не удалось сохранить прогресс в {}: {}", name, checkpointFile, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Загружает счётчики из сохранённого прогресса.
+     *
+     * @return с какого получателя продолжать или -1, если рассылка уже завершена
+     */
+    private long restore() throws IOException {
+        if (!Files.exists(checkpointFile)) return 0;
+        Properties state = new Properties();
+        try (Reader in = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            state.load(in);
+        }
+        synchronized (this) {
+            sent = Long.parseLong(state.getProperty("sent", "0"));
+            base = Long.parseLong(state.getProperty("offset", "0"));
+            for (BroadcastFailure reason : BroadcastFailure.values()) {
+                failures[reason.ordinal()] = Long.parseLong(state.getProperty("failed." + reason.name(), "0"));
+            }
+        }
+        return Boolean.parseBoolean(state.getProperty("finished")) ? -1 : base;
+    }
+
+    private static BroadcastFailure classify(Throwable error) {
+        if (!(error instanceof TelegramApiRequestException e) || e.getErrorCode() == null) {
+            return BroadcastFailure.OTHER;
+        }
+        String response = e.getApiResponse() != null ? e.getApiResponse().toLowerCase(Locale.ROOT) : "";
+        return switch (e.getErrorCode()) {
+            case 403 -> response.contains("blocked") ? BroadcastFailure.BLOCKED
+                    : response.contains("deactivated") ? BroadcastFailure.DEACTIVATED
+                    : BroadcastFailure.CHAT_NOT_FOUND;
+            case 400 -> response.contains("chat not found") ? BroadcastFailure.CHAT_NOT_FOUND : BroadcastFailure.OTHER;
+            case 429 -> BroadcastFailure.FLOOD;
+            default -> BroadcastFailure.OTHER;
+        };
+    }
+
+    /**
+     * Получатель и его номер в рассылке.
+     */
+    private static final class Recipient {
+        private final long seq;
+        private final long chatId;
+
+        private Recipient(long seq, long chatId) {
+            this.seq = seq;
+            this.chatId = chatId;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.nyg404.ttigfaer.core.Enum.MediaKind;
+import io.github.nyg404.ttigfaer.core.Properties.MediaCacheProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import org.telegram.telegrambots.meta.api.objects.PhotoSize;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Кэш {@code file_id} загруженных файлов по их содержимому.
+ *
+ * <p>Перед отправкой файл из диска или потока хешируется (SHA-256). Поток хешируется по мере
+ * копирования во временный файл, который и загружается, поэтому в памяти он не держится.
+ * Если такой файл того же {@link MediaKind} уже загружался, вместо байтов отправляется его
+ * {@code file_id}; иначе файл загружается, а {@code file_id} из ответа запоминается. Кэш ограничен
+ * {@code ttigfaer.media-cache.max-entries} и дописывается в файл {@code ttigfaer.media-cache.file},
+ * который читается (и сжимается) при старте. Хеши файлов на диске запоминаются по пути, размеру
+ * и времени изменения, чтобы не перечитывать неизменные файлы.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaFileCache {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MediaCacheProperties properties;
+
+    // Ключ — sha256:ТИП, значение — file_id
+    private Cache<String, String> fileIds;
+    // Ключ — путь:размер:время изменения, значение — sha256
+    private final Cache<String, String> fileHashes = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+    private BufferedWriter journal;
+
+    /**
+     * Загружает кэш из файла и переписывает файл без устаревших и вытесненных записей.
+     */
+    @PostConstruct
+    public void init() {
+        fileIds = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .build();
+        if (!properties.isEnabled()) return;
+
+        Path path = Paths.get(properties.getFile());
+        try {
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    String[] parts = line.split("\t");
+                    if (parts.length >= 2) fileIds.put(parts[0], parts[1]);
+                }
+                fileIds.cleanUp();
+                Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+                try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    for (Map.Entry<String, String> entry : fileIds.asMap().entrySet()) {
+                        out.write(entry.getKey() + "\t" + entry.getValue());
+                        out.newLine();
+                    }
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+                log.info("Загружено {} file_id из {}", fileIds.estimatedSize(), path);
+            }
+            journal = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Кэш файлов {} недоступен, file_id не будут сохраняться: {}", path, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть кэш файлов: {}", e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     * @param file файл для отправки
+     * @return {@link #prepare} будет читать файл (хешировать или копировать поток), а не просто вернёт его
+     */
+    public boolean needsPrepare(InputFile file) {
+        return properties.isEnabled() && file != null && file.isNew();
+    }
+
+    /**
+     * Готовит файл к отправке: подменяет на {@code file_id}, если такой файл уже загружался.
+     * Ссылки и {@code file_id} возвращаются без изменений. Если файл прочитать не удалось, он отправляется
+     * как есть, без кэша; но если ошибка случилась, когда часть потока уже прочитана, отправить
+     * его целиком уже нельзя, и выбрасывается исключение.
+     *
+     * @param file файл для отправки
+     * @param kind тип медиа
+     * @return подготовленная загрузка
+     * @throws UncheckedIOException поток прочитан частично и отправить его нельзя
+     */
+    public Upload prepare(InputFile file, MediaKind kind) {
+        if (!needsPrepare(file)) {
+            return new Upload(file, null, null, null);
+        }
+        try {
+            if (file.getNewMediaFile() != null) {
+                File source = file.getNewMediaFile();
+                String key = key(hash(source), kind);
+                return new Upload(cached(key, file), key, source, null).named(file.getMediaName());
+            }
+            return prepareStream(file, kind);
+        } catch (PartialReadException e) {
+            throw new UncheckedIOException("Поток файла " + file.getMediaName() + " прочитан частично", e);
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать файл {} для кэша: {}", file.getMediaName(), e.getMessage());
+            return new Upload(file, null, null, null);
+        }
+    }
+
+    /**
+     * Запоминает {@code file_id} из ответа на загрузку.
+     *
+     * @param upload  загрузка из {@link #prepare}
+     * @param message отправленное сообщение
+     */
+    public void remember(Upload upload, Message message) {
+        if (upload.key == null || upload.isCached() || message == null) return;
+        String fileId = fileId(message, upload.key);
+        if (fileId == null || fileId.equals(fileIds.getIfPresent(upload.key))) return;
+        fileIds.put(upload.key, fileId);
+        synchronized (this) {
+            if (journal == null) return;
+            try {
+                journal.write(upload.key + "\t" + fileId);
+                journal.newLine();
+                journal.flush();
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить file_id: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Забывает {@code file_id}, который Telegram больше не принимает.
+     *
+     * @param upload загрузка из {@link #prepare}
+     */
+    public void invalidate(Upload upload) {
+        if (upload.key != null) {
+            fileIds.invalidate(upload.key);
+        }
+    }
+
+    /**
+     * @param file файл на диске
+     * @param kind тип медиа
+     * @return есть ли {@code file_id} для этого файла
+     * @throws IOException ошибка чтения файла
+     */
+    public boolean contains(File file, MediaKind kind) throws IOException {
+        return fileIds.getIfPresent(key(hash(file), kind)) != null;
+    }
+
+    /**
+     * @param error ошибка отправки
+     * @return Telegram отклонил {@code file_id} (файл удалён или идентификатор устарел)
+     */
+    public static boolean isStaleFileId(Throwable error) {
+        return error instanceof TelegramApiRequestException e
+                && Integer.valueOf(400).equals(e.getErrorCode())
+                && e.getApiResponse() != null
+                && e.getApiResponse().toLowerCase(Locale.ROOT).contains("file identifier");
+    }
+
+    private Upload prepareStream(InputFile file, MediaKind kind) throws IOException {
+        MessageDigest digest = sha256();
+        InputStream in = file.getNewMediaStream();
+        Path temp = Files.createTempFile("ttigfaer-media-", ".tmp");
+        long limit = properties.getMaxStreamBytes();
+        long size = 0;
+        boolean tooLarge = false;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+                size += read;
+                if (size > limit) {
+                    tooLarge = true;
+                    break;
+                }
+                digest.update(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            // Прочитанные байты из потока не вернуть: исходный InputFile отправил бы обрезанный файл
+            throw size > 0 ? new PartialReadException(e) : e;
+        }
+        if (tooLarge) {
+            // Слишком большой файл: отправляем записанное и остаток потока без кэширования
+            InputStream rest = new SequenceInputStream(
+                    Files.newInputStream(temp, StandardOpenOption.DELETE_ON_CLOSE), in);
+            return new Upload(new InputFile(rest, file.getMediaName()), null, null, temp);
+        }
+        in.close();
+        String key = key(HexFormat.of().formatHex(digest.digest()), kind);
+        InputFile upload = new InputFile(temp.toFile(), file.getMediaName());
+        return new Upload(cached(key, upload), key, temp.toFile(), temp).named(file.getMediaName());
+    }
+
+    /** @return {@code file_id} для ключа или исходный файл */
+    private InputFile cached(String key, InputFile file) {
+        String fileId = fileIds.getIfPresent(key);
+        return fileId != null ? new InputFile(fileId) : file;
+    }
+
+    private String hash(File file) throws IOException {
+        String memoKey = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        String hash = fileHashes.getIfPresent(memoKey);
+        if (hash != null) return hash;
+
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        }
+        hash = HexFormat.of().formatHex(digest.digest());
+        fileHashes.put(memoKey, hash);
+        return hash;
+    }
+
+    private static String key(String hash, MediaKind kind) {
+        return hash + ":" + kind.name();
+    }
+
+    private static String fileId(Message message, String key) {
+        MediaKind kind = MediaKind.valueOf(key.substring(key.lastIndexOf(':') + 1));
+        return switch (kind) {
+            case PHOTO -> {
+                List<PhotoSize> sizes = message.getPhoto();
+                yield sizes == null || sizes.isEmpty() ? null : sizes.get(sizes.size() - 1).getFileId();
+            }
+            case VIDEO -> message.getVideo() != null ? message.getVideo().getFileId() : null;
+            case ANIMATION -> message.getAnimation() != null ? message.getAnimation().getFileId() : null;
+            case DOCUMENT -> message.getDocument() != null ? message.getDocument().getFileId() : null;
+            case AUDIO -> message.getAudio() != null ? message.getAudio().getFileId() : null;
+            case VOICE -> message.getVoice() != null ? message.getVoice().getFileId() : null;
+            case STICKER -> message.getSticker() != null ? message.getSticker().getFileId() : null;
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Ошибка чтения потока, из которого уже прочитана часть данных. */
+    private static final class PartialReadException extends IOException {
+        private PartialReadException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Файл, подготовленный к отправке.
+     */
+    public static final class Upload {
+        /** Что отправлять: {@code file_id} из кэша или сам файл. */
+        @Getter
+        private final InputFile file;
+        private final String key;
+        private final File source;
+        // Временная копия потока, удаляется в release()
+        private final Path temp;
+        private String name;
+
+        private Upload(InputFile file, String key, File source, Path temp) {
+            this.file = file;
+            this.key = key;
+            this.source = source;
+            this.temp = temp;
+        }
+
+        private Upload named(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @return вместо файла отправляется {@code file_id} из кэша
+         */
+        public boolean isCached() {
+            return key != null && !file.isNew();
+        }
+
+        /**
+         * @return исходный файл для повторной загрузки, если {@code file_id} из кэша не принят
+         */
+        public InputFile original() {
+            return source != null ? new InputFile(source, name) : file;
+        }
+
+        /**
+         * Удаляет временную копию потока. Вызывается, когда отправка (и повторная загрузка) завершена.
+         */
+        public void release() {
+            if (temp == null) return;
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("Не удалось удалить временный файл {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import io.github.nyg404.ttigfaer.core.Enum.MediaKind;
+import io.github.nyg404.ttigfaer.core.Properties.MediaCacheProperties;
+import io.github.nyg404.ttigfaer.message.Manager.MessageManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Загружает статические файлы из {@code ttigfaer.media-cache.preload-directory} в служебный чат
+ * {@code ttigfaer.media-cache.preload-chat-id}, чтобы их {@code file_id} попали в {@link MediaFileCache}
+ * и первая отправка пользователю уже не загружала байты. Уже известные кэшу файлы пропускаются.
+ * Тип медиа определяется по расширению. Предзагрузка запускается после старта приложения
+ * и не задерживает его: файлы отправляются в фоне через обычный конвейер отправки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaPreloader implements ApplicationRunner {
+    private final MediaCacheProperties properties;
+    private final MediaFileCache mediaCache;
+    private final MessageManager messageManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled() || properties.getPreloadDirectory() == null) return;
+        if (properties.getPreloadChatId() == 0) {
+            log.warn("Не задан ttigfaer.media-cache.preload-chat-id, предзагрузка файлов пропущена");
+            return;
+        }
+        Path directory = Paths.get(properties.getPreloadDirectory());
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            log.error("Не удалось прочитать каталог предзагрузки {}: {}", directory, e.getMessage(), e);
+            return;
+        }
+
+        long chatId = properties.getPreloadChatId();
+        int uploads = 0;
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[files.size()];
+        for (Path path : files) {
+            File file = path.toFile();
+            MediaKind kind = kind(file.getName());
+            try {
+                if (mediaCache.contains(file, kind)) continue;
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать {}: {}", path, e.getMessage());
+                continue;
+            }
+            InputFile input = new InputFile(file);
+            sent[uploads++] = switch (kind) {
+                case PHOTO -> messageManager.sendPhotoAsync(chatId, input);
+                case VIDEO -> messageManager.sendVideoAsync(chatId, input);
+                case ANIMATION -> messageManager.sendAnimationAsync(chatId, input);
+                case AUDIO -> messageManager.sendAudioAsync(chatId, input);
+                default -> messageManager.sendDocumentAsync(chatId, input);
+            };
+        }
+        if (uploads == 0) return;
+
+        int total = uploads;
+        log.info("Предзагрузка {} файлов из {}", total, directory);
+        CompletableFuture.allOf(Arrays.copyOf(sent, total))
+                .whenComplete((result, error) -> log.info("Предзагрузка файлов из {} завершена{}", directory,
+                        error != null ? " с ошибками" : ""));
+    }
+
+    private static MediaKind kind(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "jpg", "jpeg", "png", "webp" -> MediaKind.PHOTO;
+            case "mp4", "mov" -> MediaKind.VIDEO;
+            case "gif" -> MediaKind.ANIMATION;
+            case "mp3", "m4a" -> MediaKind.AUDIO;
+            default -> MediaKind.DOCUMENT;
+        };
+    }
+}
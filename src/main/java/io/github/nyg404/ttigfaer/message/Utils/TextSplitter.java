@@ -0,0 +1,350 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import lombok.Getter;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Делит текст длиннее лимита Telegram на части, не разрывая разметку.
+ *
+ * <p>Разрыв ищется во второй половине части: сначала по пустой строке, затем по переводу строки,
+ * затем по пробелу; в крайнем случае текст режется по лимиту, но не посреди суррогатной пары.</p>
+ * <ul>
+ *     <li>Без {@code parseMode} — разрыв не попадает внутрь сущности из {@code entities}
+ *     (если она короче лимита), а сущности пересчитываются для каждой части.</li>
+ *     <li>{@code HTML} — теги и {@code &amp;}-последовательности не разрываются, открытые теги
+ *     закрываются в конце части и открываются заново в следующей.</li>
+ *     <li>{@code Markdown}/{@code MarkdownV2} — текст делится по строкам, блок кода {@code ```}
+ *     закрывается и открывается заново; экранирование {@code \} не отрывается от символа.
+ *     Строчное форматирование, переходящее через разрыв, не восстанавливается.</li>
+ * </ul>
+ */
+public final class TextSplitter {
+    /** Наибольшая длина текста сообщения. */
+    public static final int MAX_MESSAGE_LENGTH = 4096;
+
+    private static final int PARAGRAPH = 3;
+    private static final int LINE = 2;
+    private static final int SPACE = 1;
+
+    private TextSplitter() {
+    }
+
+    /**
+     * Делит текст на части не длиннее {@link #MAX_MESSAGE_LENGTH}.
+     *
+     * @param text      текст сообщения
+     * @param parseMode режим разметки или null
+     * @param entities  сущности форматирования (только без {@code parseMode}) или null
+     * @return части текста; одна часть, если делить не нужно
+     */
+    public static List<Chunk> split(String text, String parseMode, List<MessageEntity> entities) {
+        return split(text, parseMode, entities, MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * Делит текст на части не длиннее {@code limit}.
+     *
+     * @param text      текст сообщения
+     * @param parseMode режим разметки или null
+     * @param entities  сущности форматирования (только без {@code parseMode}) или null
+     * @param limit     наибольшая длина части
+     * @return части текста; одна часть, если делить не нужно
+     */
+    public static List<Chunk> split(String text, String parseMode, List<MessageEntity> entities, int limit) {
+        if (text == null || text.length() <= limit) {
+            return List.of(new Chunk(text, entities));
+        }
+        String mode = parseMode == null ? "" : parseMode.toLowerCase(Locale.ROOT);
+        return switch (mode) {
+            case "html" -> splitHtml(text, limit);
+            case "markdown", "markdownv2" -> splitMarkdown(text, limit);
+            default -> splitPlain(text, entities == null ? List.of() : entities, limit);
+        };
+    }
+
+    private static List<Chunk> splitPlain(String text, List<MessageEntity> entities, int limit) {
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.length() - start <= limit ? text.length() : cutPlain(text, start, limit, entities);
+            int from = start;
+            int to = end;
+            while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+            while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+            if (from < to) {
+                chunks.add(new Chunk(text.substring(from, to), shift(entities, from, to)));
+            }
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int cutPlain(String text, int start, int limit, List<MessageEntity> entities) {
+        int max = start + limit;
+        int min = start + limit / 2;
+        for (int rank = PARAGRAPH; rank >= SPACE; rank--) {
+            for (int at = max; at > min; at--) {
+                if (rank(text, at) >= rank && !insideEntity(entities, at, limit)) return at;
+            }
+        }
+        int at = max;
+        for (MessageEntity entity : entities) {
+            if (entity.getLength() <= limit && entity.getOffset() > start
+                    && entity.getOffset() < at && at < entity.getOffset() + entity.getLength()) {
+                at = entity.getOffset();
+            }
+        }
+        return splitsSurrogate(text, at) ? at - 1 : at;
+    }
+
+    private static boolean insideEntity(List<MessageEntity> entities, int at, int limit) {
+        for (MessageEntity entity : entities) {
+            if (entity.getLength() <= limit && entity.getOffset() < at
+                    && at < entity.getOffset() + entity.getLength()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return сущности, попадающие в {@code [from, to)}, со смещениями относительно {@code from} */
+    private static List<MessageEntity> shift(List<MessageEntity> entities, int from, int to) {
+        List<MessageEntity> shifted = new ArrayList<>();
+        for (MessageEntity entity : entities) {
+            int begin = Math.max(entity.getOffset(), from);
+            int end = Math.min(entity.getOffset() + entity.getLength(), to);
+            if (begin >= end) continue;
+            shifted.add(MessageEntity.builder()
+                    .type(entity.getType())
+                    .offset(begin - from)
+                    .length(end - begin)
+                    .url(entity.getUrl())
+                    .user(entity.getUser())
+                    .language(entity.getLanguage())
+                    .customEmojiId(entity.getCustomEmojiId())
+                    .build());
+        }
+        return shifted;
+    }
+
+    private static List<Chunk> splitHtml(String text, int limit) {
+        List<Chunk> chunks = new ArrayList<>();
+        Deque<String[]> open = new ArrayDeque<>();
+        StringBuilder chunk = new StringBuilder();
+        int closing = 0;
+        // Лучшие места разрыва текущей части по рангу: позиция в тексте, длина части, открытые теги
+        int[] breakSource = new int[PARAGRAPH + 1];
+        int[] breakLength = new int[PARAGRAPH + 1];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Deque<String[]>[] breakOpen = new Deque[PARAGRAPH + 1];
+
+        int i = 0;
+        while (i < text.length()) {
+            int next = htmlToken(text, i);
+            String token = text.substring(i, next);
+            String[] tag = token.startsWith("<") && !token.startsWith("</") ? new String[]{tagName(token), token} : null;
+            int growth = tag != null ? tag[0].length() + 3 : 0;
+
+            if (chunk.length() + token.length() + closing + growth > limit && chunk.length() > reopened(open)) {
+                int rank = PARAGRAPH;
+                while (rank >= SPACE && (breakOpen[rank] == null || breakLength[rank] < limit / 2)) rank--;
+                if (rank < SPACE) {
+                    rank = PARAGRAPH;
+                    while (rank >= SPACE && breakOpen[rank] == null) rank--;
+                }
+                if (rank >= SPACE) {
+                    chunk.setLength(breakLength[rank]);
+                    open = breakOpen[rank];
+                    i = breakSource[rank];
+                }
+                addHtml(chunks, chunk, open);
+                chunk.setLength(0);
+                closing = 0;
+                for (String[] reopen : reversed(open)) {
+                    chunk.append(reopen[1]);
+                    closing += reopen[0].length() + 3;
+                }
+                Arrays.fill(breakOpen, null);
+                continue;
+            }
+
+            chunk.append(token);
+            if (tag != null) {
+                open.push(tag);
+                closing += growth;
+            } else if (token.startsWith("</")) {
+                String name = tagName(token);
+                while (!open.isEmpty()) {
+                    String[] top = open.pop();
+                    closing -= top[0].length() + 3;
+                    if (top[0].equals(name)) break;
+                }
+            }
+            int before = i;
+            i = next;
+
+            int rank = rank(text, i);
+            if (rank == 0 && token.startsWith("</")) {
+                // Разрыв сразу перед закрывающим тегом переносим за него, чтобы не открывать пустой тег
+                for (int r = SPACE; r <= PARAGRAPH; r++) {
+                    if (breakOpen[r] != null && breakSource[r] == before) rank = r;
+                }
+            }
+            if (rank >= SPACE) {
+                breakSource[rank] = i;
+                breakLength[rank] = chunk.length();
+                breakOpen[rank] = new ArrayDeque<>(open);
+            }
+        }
+        addHtml(chunks, chunk, open);
+        return chunks;
+    }
+
+    private static void addHtml(List<Chunk> chunks, StringBuilder chunk, Deque<String[]> open) {
+        StringBuilder text = new StringBuilder(chunk.toString().strip());
+        for (String[] tag : open) {
+            text.append("</").append(tag[0]).append('>');
+        }
+        if (!chunk.toString().isBlank()) {
+            chunks.add(new Chunk(text.toString(), null));
+        }
+    }
+
+    /** @return конец тега, {@code &...;}-последовательности или символа, начинающегося с {@code i} */
+    private static int htmlToken(String text, int i) {
+        char c = text.charAt(i);
+        if (c == '<') {
+            int end = text.indexOf('>', i);
+            if (end > 0) return end + 1;
+        } else if (c == '&') {
+            int end = text.indexOf(';', i);
+            if (end > 0 && end - i <= 10) return end + 1;
+        } else if (Character.isHighSurrogate(c) && i + 1 < text.length()) {
+            return i + 2;
+        }
+        return i + 1;
+    }
+
+    private static String tagName(String tag) {
+        int from = tag.startsWith("</") ? 2 : 1;
+        int to = from;
+        while (to < tag.length() && (Character.isLetterOrDigit(tag.charAt(to)) || tag.charAt(to) == '-')) {
+            to++;
+        }
+        return tag.substring(from, to).toLowerCase(Locale.ROOT);
+    }
+
+    private static int reopened(Deque<String[]> open) {
+        int length = 0;
+        for (String[] tag : open) length += tag[1].length();
+        return length;
+    }
+
+    private static List<String[]> reversed(Deque<String[]> open) {
+        List<String[]> tags = new ArrayList<>(open);
+        Collections.reverse(tags);
+        return tags;
+    }
+
+    private static List<Chunk> splitMarkdown(String text, int limit) {
+        List<Chunk> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        String fence = null;
+        int paragraph = -1;
+
+        int i = 0;
+        while (i < text.length()) {
+            int newline = text.indexOf('\n', i);
+            int next = newline < 0 ? text.length() : newline + 1;
+            String line = text.substring(i, next);
+            int closing = fence != null ? 4 : 0;
+
+            if (chunk.length() + line.length() + closing > limit && !chunk.isEmpty()
+                    && chunk.length() > (fence != null ? fence.length() + 1 : 0)) {
+                if (paragraph >= limit / 2) {
+                    // Разрыв по пустой строке вне блока кода: остаток части переносится в следующую
+                    String rest = chunk.substring(paragraph);
+                    chunk.setLength(paragraph);
+                    addMarkdown(chunks, chunk, null);
+                    chunk.setLength(0);
+                    chunk.append(rest);
+                } else {
+                    addMarkdown(chunks, chunk, fence);
+                    chunk.setLength(0);
+                    if (fence != null) chunk.append(fence).append('\n');
+                }
+                paragraph = -1;
+                continue;
+            }
+
+            if (line.length() + closing + (fence != null ? fence.length() + 1 : 0) > limit) {
+                // Строка длиннее части: режем по пробелу, не отрывая экранирование
+                int room = limit - closing - chunk.length();
+                int at = Math.min(line.length(), Math.max(room, 1));
+                int space = line.lastIndexOf(' ', at);
+                if (space > at / 2) at = space + 1;
+                while (at > 1 && (line.charAt(at - 1) == '\\' || splitsSurrogate(line, at))) at--;
+                chunk.append(line, 0, at);
+                addMarkdown(chunks, chunk, fence);
+                chunk.setLength(0);
+                if (fence != null) chunk.append(fence).append('\n');
+                paragraph = -1;
+                i += at;
+                continue;
+            }
+
+            chunk.append(line);
+            i = next;
+            if (line.strip().startsWith("```")) {
+                fence = fence == null ? line.strip() : null;
+            } else if (line.isBlank() && fence == null) {
+                paragraph = chunk.length();
+            }
+        }
+        addMarkdown(chunks, chunk, fence);
+        return chunks;
+    }
+
+    private static void addMarkdown(List<Chunk> chunks, StringBuilder chunk, String fence) {
+        String text = chunk.toString().strip();
+        if (text.isEmpty()) return;
+        chunks.add(new Chunk(fence != null ? text + "\n```" : text, null));
+    }
+
+    /** @return ранг разрыва перед позицией {@code at}: пустая строка, перевод строки, пробел или 0 */
+    private static int rank(String text, int at) {
+        if (at <= 0 || at >= text.length()) return 0;
+        char c = text.charAt(at - 1);
+        if (c == '\n') return at > 1 && text.charAt(at - 2) == '\n' ? PARAGRAPH : LINE;
+        return c == ' ' ? SPACE : 0;
+    }
+
+    private static boolean splitsSurrogate(String text, int at) {
+        return at > 0 && at < text.length()
+                && Character.isHighSurrogate(text.charAt(at - 1)) && Character.isLowSurrogate(text.charAt(at));
+    }
+
+    /**
+     * Часть текста для отдельного сообщения.
+     */
+    @Getter
+    public static final class Chunk {
+        /** Текст части. */
+        private final String text;
+        /** Сущности со смещениями внутри части или null при разметке {@code parseMode}. */
+        private final List<MessageEntity> entities;
+
+        private Chunk(String text, List<MessageEntity> entities) {
+            this.text = text;
+            this.entities = entities;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.nyg404.ttigfaer.api.Message;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.chat.Chat;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageContextTest {
+
+    @Test
+    void commandWithOwnSuffixIsRecognizedIgnoringCase() {
+        MessageContext ctx = new MessageContext(update("/Ban@mybot 42 spam"), "/", "MyBot");
+
+        assertEquals("ban", ctx.getCommand());
+        assertEquals(List.of("42", "spam"), ctx.getMessageArgs());
+    }
+
+    @Test
+    void commandForAnotherBotIsIgnored() {
+        assertEquals("", new MessageContext(update("/ban@OtherBot 42"), "/", "MyBot").getCommand());
+        assertEquals("", new MessageContext(update("/ban@MyBot2"), "/", "MyBot").getCommand());
+    }
+
+    @Test
+    void commandWithoutSuffixIsRecognized() {
+        assertEquals("ban", new MessageContext(update("/ban 42"), "/", "MyBot").getCommand());
+    }
+
+    @Test
+    void suffixIsNotCheckedWithoutUsername() {
+        assertEquals("ban", new MessageContext(update("/ban@OtherBot"), "/").getCommand());
+    }
+
+    @Test
+    void plainTextIsNotCommand() {
+        MessageContext ctx = new MessageContext(update("привет, /ban"), "/", "MyBot");
+
+        assertEquals("", ctx.getCommand());
+        assertEquals(List.of(), ctx.getMessageArgs());
+    }
+
+    private static Update update(String text) {
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setText(text);
+        message.setChat(Chat.builder().id(-100L).type("supergroup").build());
+        message.setFrom(new User(7L, "user", false));
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+}
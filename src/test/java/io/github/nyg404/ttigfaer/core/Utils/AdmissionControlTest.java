@@ -0,0 +1,110 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Message.MessageContext;
+import io.github.nyg404.ttigfaer.core.Enum.OverloadPolicy;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.chat.Chat;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTest {
+
+    @Test
+    void dropOldestChatterEvictsPendingMessage() {
+        AdmissionControl admission = new AdmissionControl(2, OverloadPolicy.DROP_OLDEST_CHATTER, ctx -> { });
+        AdmissionControl.Ticket oldest = admission.admit(context("привет"));
+        AdmissionControl.Ticket second = admission.admit(context("как дела"));
+
+        AdmissionControl.Ticket newest = admission.admit(context("ещё сообщение"));
+
+        assertNotNull(newest);
+        assertFalse(oldest.start(), "вытесненное сообщение не должно обрабатываться");
+        assertTrue(second.start());
+        assertEquals(2, admission.depth());
+        assertEquals(1, admission.shedCount());
+    }
+
+    @Test
+    void dropOldestChatterSkipsStartedMessagesAndAdmitsCommands() {
+        AdmissionControl admission = new AdmissionControl(1, OverloadPolicy.DROP_OLDEST_CHATTER, ctx -> { });
+        AdmissionControl.Ticket running = admission.admit(context("привет"));
+        assertTrue(running.start());
+
+        // Вытеснять некого: обычное сообщение отбрасывается, команда допускается сверх ёмкости
+        assertNull(admission.admit(context("ещё")));
+        assertNotNull(admission.admit(context("/start")));
+        assertEquals(2, admission.depth());
+        assertEquals(1, admission.shedCount());
+    }
+
+    @Test
+    void replyBusyAnswersOnlyCommands() {
+        List<MessageContext> replies = new CopyOnWriteArrayList<>();
+        AdmissionControl admission = new AdmissionControl(1, OverloadPolicy.REPLY_BUSY, replies::add);
+        AdmissionControl.Ticket ticket = admission.admit(context("привет"));
+
+        assertNull(admission.admit(context("ещё")));
+        assertNull(admission.admit(context("/start")));
+        assertEquals(1, replies.size());
+        assertEquals("start", replies.get(0).getCommand());
+        assertEquals(2, admission.shedCount());
+
+        ticket.release();
+        assertNotNull(admission.admit(context("/start")));
+    }
+
+    @Test
+    void blockWaitsUntilLastReferenceIsReleased() throws Exception {
+        AdmissionControl admission = new AdmissionControl(1, OverloadPolicy.BLOCK, ctx -> { });
+        AdmissionControl.Ticket ticket = admission.admit(context("привет"));
+        ticket.retain();
+
+        CompletableFuture<AdmissionControl.Ticket> blocked =
+                CompletableFuture.supplyAsync(() -> admission.admit(context("ещё")));
+        ticket.release();
+        assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+
+        // Отложенный вызов обработчика отпускает последнюю ссылку
+        ticket.release();
+        assertNotNull(blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(1, admission.depth());
+    }
+
+    @Test
+    void rejectedHandlerCallIsCountedAndReleased() {
+        AdmissionControl admission = new AdmissionControl(1, OverloadPolicy.REPLY_BUSY, ctx -> { });
+        AdmissionControl.Ticket ticket = admission.admit(context("/start"));
+        ticket.retain();
+
+        ticket.reject();
+        ticket.release();
+
+        assertEquals(1, admission.rejectedCount());
+        assertEquals(0, admission.depth());
+    }
+
+    private static MessageContext context(String text) {
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setText(text);
+        message.setChat(Chat.builder().id(1L).type("private").build());
+        message.setFrom(new User(1L, "user", false));
+        Update update = new Update();
+        update.setMessage(message);
+        return new MessageContext(update, "/");
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatMailboxExecutorTest {
+    private final ChatMailboxExecutor executor = new ChatMailboxExecutor(Executors.newFixedThreadPool(4));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void tasksOfOneChatRunInOrderAndNeverOverlap() throws InterruptedException {
+        int chats = 8;
+        int perChat = 500;
+        Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+        Map<Long, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(chats * perChat);
+        for (long chat = 0; chat < chats; chat++) {
+            seen.put(chat, new ArrayList<>());
+            running.put(chat, new AtomicInteger());
+        }
+
+        for (int i = 0; i < perChat; i++) {
+            for (long chat = 0; chat < chats; chat++) {
+                long chatId = chat;
+                int index = i;
+                Runnable task = () -> {
+                    if (running.get(chatId).incrementAndGet() != 1) overlaps.incrementAndGet();
+                    seen.get(chatId).add(index);
+                    running.get(chatId).decrementAndGet();
+                    done.countDown();
+                };
+                // Половина задач — пачкой, как при executeAll
+                if (index % 2 == 0) {
+                    executor.execute(chatId, task);
+                } else {
+                    executor.executeAll(chatId, List.of(task));
+                }
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (List<Integer> order : seen.values()) {
+            for (int i = 0; i < perChat; i++) {
+                assertEquals(i, order.get(i));
+            }
+        }
+        awaitIdle();
+    }
+
+    @Test
+    void slowChatDoesNotBlockOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+
+        executor.execute(1, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(2, other::countDown);
+
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        awaitIdle();
+    }
+
+    @Test
+    void failingTaskDoesNotStopMailbox() throws InterruptedException {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.executeAll(1, List.of(
+                () -> order.add("первая"),
+                () -> {
+                    throw new IllegalStateException("ошибка обработчика");
+                },
+                () -> {
+                    order.add("третья");
+                    done.countDown();
+                }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("первая", "третья"), order);
+    }
+
+    @Test
+    void withoutLanesTasksRunInCallerThread() {
+        ChatMailboxExecutor direct = new ChatMailboxExecutor(null);
+        Thread[] ran = new Thread[1];
+
+        direct.execute(1, () -> ran[0] = Thread.currentThread());
+
+        assertEquals(Thread.currentThread(), ran[0]);
+        assertEquals(0, direct.activeChats());
+    }
+
+    /** Пустые очереди чатов удаляются после выполнения задач. */
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeChats() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, executor.activeChats());
+    }
+}
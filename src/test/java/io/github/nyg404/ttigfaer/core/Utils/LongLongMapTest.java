@@ -0,0 +1,92 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongLongMapTest {
+    /** Ёмкость новой таблицы; до девяти записей она не растёт. */
+    private static final int CAPACITY = 16;
+
+    @Test
+    void putGetAndOverwrite() {
+        LongLongMap map = new LongLongMap();
+        map.put(42, 1);
+        map.put(-7, 2);
+        map.put(42, 3);
+
+        assertEquals(3, map.get(42, -1));
+        assertEquals(2, map.get(-7, -1));
+        assertEquals(-1, map.get(8, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void minValueKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongLongMap().put(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    void removeInWrappedProbeChainKeepsOtherKeys() {
+        // Три ключа с последней ячейкой и один с нулевой: цепочка 15 -> 0 -> 1 -> 2 переходит через конец массива
+        List<Long> last = keysForSlot(CAPACITY - 1, 3);
+        long first = keysForSlot(0, 1).get(0);
+        LongLongMap map = new LongLongMap();
+        for (long key : last) map.put(key, key + 1);
+        map.put(first, first + 1);
+
+        assertEquals(1, map.removeIf((key, value) -> key == last.get(0)));
+        assertEquals(-1, map.get(last.get(0), -1));
+        assertEquals(last.get(1) + 1, map.get(last.get(1), -1));
+        assertEquals(last.get(2) + 1, map.get(last.get(2), -1));
+        assertEquals(first + 1, map.get(first, -1));
+
+        assertEquals(1, map.removeIf((key, value) -> key == last.get(2)));
+        assertEquals(last.get(1) + 1, map.get(last.get(1), -1));
+        assertEquals(first + 1, map.get(first, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void removeIfMatchesHashMap() {
+        Random random = new Random(1);
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 50; i++) {
+                long key = random.nextInt(500) - 250;
+                long value = random.nextLong();
+                map.put(key, value);
+                expected.put(key, value);
+            }
+            long mod = 2 + random.nextInt(5);
+            int removed = map.removeIf((key, value) -> Math.floorMod(key + value, mod) == 0);
+            int expectedRemoved = expected.size();
+            expected.entrySet().removeIf(e -> Math.floorMod(e.getKey() + e.getValue(), mod) == 0);
+            expectedRemoved -= expected.size();
+
+            assertEquals(expectedRemoved, removed);
+            assertEquals(expected.size(), map.size());
+            for (long key = -250; key < 250; key++) {
+                assertEquals(expected.getOrDefault(key, Long.MIN_VALUE), map.get(key, Long.MIN_VALUE));
+            }
+        }
+    }
+
+    /** Подбирает ключи с нужной начальной ячейкой; хеш повторяет {@code LongLongMap.slot}. */
+    private static List<Long> keysForSlot(int slot, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (CAPACITY - 1)) == slot) keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import io.github.nyg404.ttigfaer.api.Interface.OutboundStage;
+import io.github.nyg404.ttigfaer.core.Model.OutboundRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.telegram.telegrambots.meta.api.methods.GetMe;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class OutboundJournalTest {
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unconfirmedRequestIsReplayedOnce() throws IOException {
+        OutboundJournal journal = new OutboundJournal(dir, 64 * 1024, MAX_AGE);
+        Network network = new Network();
+        OutboundPipeline pipeline = new OutboundPipeline(List.of(journal, network));
+        send(pipeline, 10, "первое");
+        send(pipeline, 20, "второе");
+        network.responses.get(0).complete(null);
+        journal.flush();
+
+        // Перезапуск: второе сообщение не подтверждено
+        OutboundJournal reopened = new OutboundJournal(dir, 64 * 1024, MAX_AGE);
+        assertEquals(1, reopened.pending());
+        Network replayed = new Network();
+        reopened.replay(new OutboundPipeline(List.of(reopened, replayed)), null);
+
+        assertEquals(1, replayed.requests.size());
+        OutboundRequest<?> request = replayed.requests.get(0);
+        assertEquals(20, request.getChatId());
+        assertEquals("второе", assertInstanceOf(SendMessage.class, request.getMethod()).getText());
+        // Повторённый запрос не записывается в журнал заново
+        assertEquals(1, reopened.pending());
+
+        replayed.responses.get(0).complete(null);
+        reopened.flush();
+        assertEquals(0, reopened.pending());
+        assertEquals(0, new OutboundJournal(dir, 64 * 1024, MAX_AGE).pending());
+    }
+
+    @Test
+    void failedRequestIsConfirmedToo() throws IOException {
+        OutboundJournal journal = new OutboundJournal(dir, 64 * 1024, MAX_AGE);
+        Network network = new Network();
+        send(new OutboundPipeline(List.of(journal, network)), 10, "текст");
+
+        network.responses.get(0).completeExceptionally(new IllegalStateException("400 Bad Request"));
+
+        assertEquals(0, journal.pending());
+    }
+
+    @Test
+    void rotationCarriesOnlyPendingRequests() throws IOException {
+        OutboundJournal journal = new OutboundJournal(dir, 4096, MAX_AGE);
+        Network network = new Network();
+        OutboundPipeline pipeline = new OutboundPipeline(List.of(journal, network));
+        for (int i = 0; i < 500; i++) {
+            send(pipeline, i + 1, "сообщение " + i);
+            // Три запроса остаются без ответа, остальные подтверждаются
+            if (i % 200 != 0) network.responses.get(i).complete(null);
+        }
+        journal.flush();
+
+        assertEquals(1, segmentCount());
+        assertEquals(3, journal.pending());
+        OutboundJournal reopened = new OutboundJournal(dir, 4096, MAX_AGE);
+        Network replayed = new Network();
+        reopened.replay(new OutboundPipeline(List.of(reopened, replayed)), null);
+
+        assertEquals(List.of(1L, 201L, 401L), replayed.requests.stream().map(OutboundRequest::getChatId).toList());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void readRequestsAreNotJournaled() throws IOException {
+        OutboundJournal journal = new OutboundJournal(dir, 64 * 1024, MAX_AGE);
+        GetMe method = new GetMe();
+
+        new OutboundPipeline(List.of(journal, new Network())).send(OutboundScheduler.NO_CHAT, method, () -> null);
+
+        assertEquals(0, journal.pending());
+    }
+
+    private static void send(OutboundPipeline pipeline, long chatId, String text) {
+        SendMessage method = SendMessage.builder().chatId(chatId).text(text).build();
+        pipeline.send(chatId, method, () -> null);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).count();
+        }
+    }
+
+    /** Последняя стадия вместо сети: запоминает запросы и отвечает, когда ответ завершит тест. */
+    private static final class Network implements OutboundStage {
+        private final List<OutboundRequest<?>> requests = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<?>> responses = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <T> CompletableFuture<T> apply(OutboundRequest<T> request, Chain chain) {
+            CompletableFuture<T> response = new CompletableFuture<>();
+            requests.add(request);
+            responses.add(response);
+            return response;
+        }
+
+        @Override
+        public int getOrder() {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaPhoto;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundSchedulerTest {
+    /** Допуск на тик таймера и планирование потоков. */
+    private static final long SLACK_MILLIS = 50;
+
+    private TimingWheel wheel;
+    private OutboundScheduler scheduler;
+    private OutboundPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(1, 512, "Test-Timer");
+        wheel.start();
+        useScheduler(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        wheel.stop();
+    }
+
+    @Test
+    void unpacedRequestWaitsRetryAfter() throws Exception {
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> edit = pipeline.send(1, edit(1), () -> {
+            starts.add(System.nanoTime());
+            return calls.getAndIncrement() == 0 ? flood(1) : CompletableFuture.completedFuture("ok");
+        });
+
+        assertEquals("ok", edit.get(5, TimeUnit.SECONDS));
+        assertEquals(2, starts.size());
+        assertAtLeast(1000, starts.get(1) - starts.get(0));
+        assertEquals(1, scheduler.floods());
+    }
+
+    @Test
+    void floodPausesWholeChatButNotOthers() throws Exception {
+        CompletableFuture<Void> firstFlood = new CompletableFuture<>();
+        long[] sentAt = new long[3];
+
+        CompletableFuture<String> first = pipeline.send(1, edit(1), () -> {
+            if (!firstFlood.isDone()) {
+                firstFlood.complete(null);
+                return flood(1);
+            }
+            return CompletableFuture.completedFuture("ok");
+        });
+        firstFlood.get(5, TimeUnit.SECONDS);
+        long floodAt = System.nanoTime();
+        CompletableFuture<String> sameChat = pipeline.send(1, edit(2), () -> stamp(sentAt, 1));
+        CompletableFuture<String> otherChat = pipeline.send(2, edit(3), () -> stamp(sentAt, 2));
+
+        otherChat.get(5, TimeUnit.SECONDS);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(sentAt[2] - floodAt) < 500, "другой чат ждал паузы");
+        first.get(5, TimeUnit.SECONDS);
+        sameChat.get(5, TimeUnit.SECONDS);
+        assertAtLeast(1000, sentAt[1] - floodAt);
+    }
+
+    @Test
+    void floodsInOneChatDoNotPauseOthers() throws Exception {
+        List<CompletableFuture<String>> pending = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            pipeline.send(1, edit(i), () -> {
+                if (calls.getAndIncrement() < 3) {
+                    CompletableFuture<String> response = new CompletableFuture<>();
+                    pending.add(response);
+                    return response;
+                }
+                return CompletableFuture.completedFuture("ok");
+            });
+        }
+        // Три запроса одновременно в окне чата получают 429; общий лимит разносит их на миллисекунды
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pending.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, pending.size());
+        for (CompletableFuture<String> response : pending) {
+            response.completeExceptionally(floodError(1));
+        }
+        long start = System.nanoTime();
+        long[] sentAt = new long[1];
+
+        pipeline.send(2, edit(9), () -> stamp(sentAt, 0)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(sentAt[0] - start) < 500, "429 одного чата остановили всю отправку");
+        assertEquals(3, scheduler.floods());
+    }
+
+    @Test
+    void floodsInSeveralChatsPauseEverything() throws Exception {
+        for (long chatId = 1; chatId <= 3; chatId++) {
+            AtomicInteger calls = new AtomicInteger();
+            pipeline.send(chatId, edit(1), () -> calls.getAndIncrement() == 0
+                    ? flood(1) : CompletableFuture.completedFuture("ok"));
+        }
+        long floodAt = System.nanoTime();
+        long[] sentAt = new long[1];
+
+        pipeline.send(4, edit(1), () -> stamp(sentAt, 0)).get(5, TimeUnit.SECONDS);
+
+        assertAtLeast(1000, sentAt[0] - floodAt);
+    }
+
+    @Test
+    void mediaGroupIsPacedByItemCount() throws Exception {
+        scheduler.stop();
+        useScheduler(10);
+        long[] sentAt = new long[2];
+        SendMediaGroup group = SendMediaGroup.builder()
+                .chatId(1L)
+                .medias(List.of(new InputMediaPhoto("a"), new InputMediaPhoto("b"), new InputMediaPhoto("c")))
+                .build();
+
+        pipeline.send(1, group, () -> stamp(sentAt, 0));
+        pipeline.send(1, SendMessage.builder().chatId(1L).text("x").build(), () -> stamp(sentAt, 1))
+                .get(5, TimeUnit.SECONDS);
+
+        // 10 сообщений в секунду: альбом из трёх фото занимает 300 мс лимита
+        assertAtLeast(300, sentAt[1] - sentAt[0]);
+    }
+
+    private void useScheduler(int privatePerSecond) {
+        scheduler = new OutboundScheduler(wheel, 10, 3, 1000, privatePerSecond, 600, 3);
+        pipeline = new OutboundPipeline(List.of(scheduler));
+    }
+
+    private static EditMessageText edit(int messageId) {
+        return EditMessageText.builder().chatId(1L).messageId(messageId).text("x").build();
+    }
+
+    private static CompletableFuture<String> stamp(long[] sentAt, int index) {
+        sentAt[index] = System.nanoTime();
+        return CompletableFuture.completedFuture("ok");
+    }
+
+    private static CompletableFuture<String> flood(int retryAfter) {
+        return CompletableFuture.failedFuture(floodError(retryAfter));
+    }
+
+    private static TelegramApiRequestException floodError(int retryAfter) {
+        return new TelegramApiRequestException("Too Many Requests", ApiResponse.builder()
+                .ok(false)
+                .errorCode(429)
+                .errorDescription("Too Many Requests: retry after " + retryAfter)
+                .parameters(new ResponseParameters(null, retryAfter))
+                .build());
+    }
+
+    private static void assertAtLeast(long millis, long elapsedNanos) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        assertTrue(elapsed >= millis - SLACK_MILLIS, "прошло " + elapsed + " мс, ожидалось не меньше " + millis);
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.nyg404.ttigfaer.core.Utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    /** Тик 1 мс и 8 ячеек: один оборот колеса — 8 мс. */
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(1, 8, "Test-Timer");
+        wheel.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void delayLongerThanOneRevolutionIsNotFiredEarly() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicLong elapsed = new AtomicLong();
+        long start = System.nanoTime();
+
+        wheel.schedule(() -> {
+            elapsed.set(System.nanoTime() - start);
+            fired.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(elapsed.get() >= TimeUnit.MILLISECONDS.toNanos(50),
+                "сработал через " + TimeUnit.NANOSECONDS.toMillis(elapsed.get()) + " мс");
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() throws InterruptedException {
+        AtomicBoolean fired = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+
+        TimingWheel.Timeout timeout = wheel.schedule(() -> fired.set(true), 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(later::countDown, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(fired.get());
+        assertFalse(timeout.isExpired());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void timerScheduledBeforeStartFiresAfterStart() throws InterruptedException {
+        TimingWheel idle = new TimingWheel(1, 8, "Test-Idle-Timer");
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            idle.schedule(fired::countDown, 5, TimeUnit.MILLISECONDS);
+            assertFalse(fired.await(30, TimeUnit.MILLISECONDS));
+
+            idle.start();
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+        } finally {
+            idle.stop();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import io.github.nyg404.ttigfaer.core.Enum.MediaKind;
+import io.github.nyg404.ttigfaer.core.Properties.MediaCacheProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MediaFileCacheTest {
+    @TempDir
+    Path dir;
+
+    private MediaFileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MediaCacheProperties properties = new MediaCacheProperties();
+        properties.setEnabled(true);
+        properties.setFile(dir.resolve("media-cache.tsv").toString());
+        cache = new MediaFileCache(properties);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void streamFailingBeforeFirstByteIsSentAsIs() {
+        InputFile file = new InputFile(new FailingStream(new byte[0]), "photo.jpg");
+
+        MediaFileCache.Upload upload = cache.prepare(file, MediaKind.PHOTO);
+
+        assertSame(file, upload.getFile());
+        assertFalse(upload.isCached());
+    }
+
+    @Test
+    void streamFailingAfterPartialReadFailsTheSend() {
+        InputFile file = new InputFile(new FailingStream(new byte[]{1, 2, 3}), "photo.jpg");
+
+        assertThrows(UncheckedIOException.class, () -> cache.prepare(file, MediaKind.PHOTO));
+    }
+
+    @Test
+    void streamIsSpooledAndHashed() throws IOException {
+        byte[] bytes = {1, 2, 3, 4};
+        InputFile file = new InputFile(new ByteArrayInputStream(bytes), "photo.jpg");
+
+        MediaFileCache.Upload upload = cache.prepare(file, MediaKind.PHOTO);
+        try (InputStream in = Files.newInputStream(upload.getFile().getNewMediaFile().toPath())) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        } finally {
+            upload.release();
+        }
+    }
+
+    /** Отдаёт {@code data}, а следующее чтение завершается ошибкой. */
+    private static final class FailingStream extends InputStream {
+        private final ByteArrayInputStream data;
+
+        private FailingStream(byte[] data) {
+            this.data = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = data.read();
+            if (b == -1) throw new IOException("соединение разорвано");
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = data.read(buffer, offset, length);
+            if (read == -1) throw new IOException("соединение разорвано");
+            return read;
+        }
+    }
+}
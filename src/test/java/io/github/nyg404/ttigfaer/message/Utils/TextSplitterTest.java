@@ -0,0 +1,119 @@
+package io.github.nyg404.ttigfaer.message.Utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextSplitterTest {
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+
+    @Test
+    void shortTextIsSingleChunk() {
+        List<TextSplitter.Chunk> chunks = TextSplitter.split("привет", null, null, 20);
+
+        assertEquals(1, chunks.size());
+        assertEquals("привет", chunks.get(0).getText());
+    }
+
+    @Test
+    void htmlTagCrossingLimitIsClosedAndReopened() {
+        String words = "word ".repeat(30).strip();
+        String text = "<b>" + words + "</b>";
+
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(text, "HTML", null, 50);
+
+        assertTrue(chunks.size() > 1);
+        StringBuilder plain = new StringBuilder();
+        for (TextSplitter.Chunk chunk : chunks) {
+            String part = chunk.getText();
+            assertTrue(part.length() <= 50, part);
+            assertTrue(part.startsWith("<b>") && part.endsWith("</b>"), part);
+            String stripped = TAG.matcher(part).replaceAll("");
+            // Тег не разрезан: после удаления целых тегов скобок не остаётся
+            assertFalse(stripped.contains("<") || stripped.contains(">"), part);
+            plain.append(stripped).append(' ');
+        }
+        assertEquals(words, plain.toString().strip());
+    }
+
+    @Test
+    void htmlTagIsNotCutAtLimit() {
+        String text = "a".repeat(45) + "<i>italic</i>" + " tail".repeat(10);
+
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(text, "HTML", null, 50);
+
+        for (TextSplitter.Chunk chunk : chunks) {
+            String stripped = TAG.matcher(chunk.getText()).replaceAll("");
+            assertFalse(stripped.contains("<") || stripped.contains(">"), chunk.getText());
+            assertTrue(chunk.getText().length() <= 50, chunk.getText());
+        }
+    }
+
+    @Test
+    void entityStraddlingCutIsKeptWhole() {
+        // Без сущности разрыв пришёлся бы на пробел внутри "BOLD PART"
+        String text = "x".repeat(12) + " BOLD PART " + "y".repeat(15);
+        MessageEntity bold = MessageEntity.builder().type("bold").offset(13).length(9).build();
+
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(text, null, List.of(bold), 20);
+
+        int found = 0;
+        for (TextSplitter.Chunk chunk : chunks) {
+            assertTrue(chunk.getText().length() <= 20, chunk.getText());
+            for (MessageEntity entity : chunk.getEntities()) {
+                assertEquals("bold", entity.getType());
+                assertEquals(9, entity.getLength());
+                assertEquals("BOLD PART", chunk.getText().substring(entity.getOffset(),
+                        entity.getOffset() + entity.getLength()));
+                found++;
+            }
+        }
+        assertEquals(1, found);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"HTML", "MarkdownV2"})
+    void surrogatePairAtLimitIsNotSplit(String parseMode) {
+        String text = "a".repeat(19) + "😀" + "b".repeat(20);
+
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(text, parseMode, null, 20);
+
+        StringBuilder joined = new StringBuilder();
+        for (TextSplitter.Chunk chunk : chunks) {
+            String part = chunk.getText();
+            assertTrue(part.length() <= 20, part);
+            assertFalse(Character.isHighSurrogate(part.charAt(part.length() - 1)), part);
+            assertFalse(Character.isLowSurrogate(part.charAt(0)), part);
+            joined.append(part);
+        }
+        assertEquals(text, joined.toString());
+    }
+
+    @Test
+    void markdownCodeBlockIsClosedAndReopened() {
+        StringBuilder code = new StringBuilder("```java\n");
+        for (int i = 0; i < 10; i++) {
+            code.append("int x").append(i).append(" = ").append(i).append(";\n");
+        }
+        code.append("```");
+
+        List<TextSplitter.Chunk> chunks = TextSplitter.split(code.toString(), "MarkdownV2", null, 60);
+
+        assertTrue(chunks.size() > 1);
+        for (TextSplitter.Chunk chunk : chunks) {
+            String part = chunk.getText();
+            assertTrue(part.length() <= 60, part);
+            assertTrue(part.startsWith("```java\n") && part.endsWith("```"), part);
+        }
+    }
+}